@@ -0,0 +1,31 @@
+package ai.rpg.core.domain;
+
+/**
+ * ActionCategory groups action types for session statistics and behavior analysis.
+ *
+ * {@link #of(ActionType)} is the one classification table shared by the domain
+ * metrics, the persisted metrics and outcome classification, indexed by ordinal.
+ */
+public enum ActionCategory {
+    COMBAT,
+    SOCIAL,
+    EXPLORE,
+    OTHER;
+
+    private static final ActionCategory[] BY_TYPE = new ActionCategory[ActionType.values().length];
+
+    static {
+        for (ActionType type : ActionType.values()) {
+            BY_TYPE[type.ordinal()] = switch (type) {
+                case ATTACK, COMBAT -> COMBAT;
+                case TALK, TRADE -> SOCIAL;
+                case MOVE, EXAMINE -> EXPLORE;
+                case USE, CAST, REST, UNKNOWN -> OTHER;
+            };
+        }
+    }
+
+    public static ActionCategory of(ActionType type) {
+        return BY_TYPE[type.ordinal()];
+    }
+}
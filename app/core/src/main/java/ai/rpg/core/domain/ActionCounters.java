@@ -0,0 +1,61 @@
+package ai.rpg.core.domain;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ActionCounters is the mutable, thread-safe counterpart of {@link ActionCounts}
+ * for aggregating actions across all sessions.
+ *
+ * One {@link LongAdder} per type, indexed by ordinal, so concurrent increments of
+ * the same type spread over striped cells instead of contending on one word.
+ */
+public final class ActionCounters {
+    private static final ActionType[] TYPES = ActionType.values();
+
+    private final LongAdder[] counters = new LongAdder[TYPES.length];
+
+    public ActionCounters() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    public void increment(ActionType type) {
+        counters[type.ordinal()].increment();
+    }
+
+    public long count(ActionType type) {
+        return counters[type.ordinal()].sum();
+    }
+
+    public long count(ActionCategory category) {
+        long sum = 0;
+        for (int i = 0; i < counters.length; i++) {
+            if (ActionCategory.of(TYPES[i]) == category) {
+                sum += counters[i].sum();
+            }
+        }
+        return sum;
+    }
+
+    public long total() {
+        long sum = 0;
+        for (LongAdder counter : counters) {
+            sum += counter.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Point-in-time copy of every count; not atomic across types while increments continue
+     */
+    public Map<ActionType, Long> snapshot() {
+        Map<ActionType, Long> snapshot = new EnumMap<>(ActionType.class);
+        for (ActionType type : TYPES) {
+            snapshot.put(type, counters[type.ordinal()].sum());
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,131 @@
+package ai.rpg.core.domain;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * ActionCounts is an immutable count of actions per {@link ActionType}.
+ *
+ * Counts live in an int array indexed by ordinal; the map view lists every type,
+ * including those with a count of zero, in declaration order. Incrementing
+ * returns a new instance and copies only that array.
+ */
+public final class ActionCounts extends AbstractMap<ActionType, Integer> {
+    private static final ActionType[] TYPES = ActionType.values();
+    private static final ActionCounts EMPTY = new ActionCounts(new int[TYPES.length], 0);
+
+    private final int[] counts;
+    private final int total;
+
+    private ActionCounts(int[] counts, int total) {
+        this.counts = counts;
+        this.total = total;
+    }
+
+    /**
+     * Factory method for no actions
+     */
+    public static ActionCounts empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Create counts from a map of type to count; missing types count zero
+     */
+    public static ActionCounts of(Map<ActionType, ? extends Number> source) {
+        if (source instanceof ActionCounts counts) {
+            return counts;
+        }
+        int[] counts = new int[TYPES.length];
+        int total = 0;
+        for (Map.Entry<ActionType, ? extends Number> entry : source.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                continue;
+            }
+            int count = entry.getValue().intValue();
+            if (count < 0) {
+                throw new IllegalArgumentException("Action count cannot be negative: " + entry.getKey());
+            }
+            counts[entry.getKey().ordinal()] += count;
+            total += count;
+        }
+        return total == 0 ? EMPTY : new ActionCounts(counts, total);
+    }
+
+    /**
+     * Counts with one more action of the given type
+     */
+    public ActionCounts increment(ActionType type) {
+        int[] next = counts.clone();
+        next[type.ordinal()]++;
+        return new ActionCounts(next, total + 1);
+    }
+
+    public int count(ActionType type) {
+        return counts[type.ordinal()];
+    }
+
+    public int count(ActionCategory category) {
+        int sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (ActionCategory.of(TYPES[i]) == category) {
+                sum += counts[i];
+            }
+        }
+        return sum;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    @Override
+    public Integer get(Object key) {
+        return key instanceof ActionType type ? counts[type.ordinal()] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof ActionType;
+    }
+
+    @Override
+    public int size() {
+        return TYPES.length;
+    }
+
+    @Override
+    public Set<Entry<ActionType, Integer>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<ActionType, Integer>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < TYPES.length;
+                    }
+
+                    @Override
+                    public Entry<ActionType, Integer> next() {
+                        if (next >= TYPES.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return new SimpleImmutableEntry<>(TYPES[i], counts[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TYPES.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package ai.rpg.core.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ActionDigest is the running summary of a session's actions used for AI context.
+ * 
+ * It is updated in O(1) as each action is applied, so prompt generation reads a
+ * ready snapshot instead of rescanning the action history. It holds only what the
+ * retained actions can tell: visit counts live in the {@link LocationHistory} index
+ * and per-category totals in {@link SessionMetrics}, both of which are persisted.
+ */
+public record ActionDigest(
+    List<String> recentActions, // "command -> outcome", oldest first
+    List<String> activeNpcs, // recent conversation partners, least recently spoken to first
+    String lastLocation
+) {
+    public static final int MAX_RECENT_ACTIONS = 5;
+    public static final int MAX_ACTIVE_NPCS = 5;
+    
+    public ActionDigest {
+        lastLocation = Symbols.intern(lastLocation);
+        recentActions = BoundedHistory.of(recentActions != null ? recentActions : List.of(), MAX_RECENT_ACTIONS);
+        activeNpcs = BoundedHistory.of(activeNpcs != null ? activeNpcs : List.of(), MAX_ACTIVE_NPCS);
+    }
+    
+    /**
+     * Factory method for a session that has not acted yet
+     */
+    public static ActionDigest startingAt(String location) {
+        return new ActionDigest(List.of(), List.of(), location);
+    }
+    
+    /**
+     * Rebuild a digest from an action history, e.g. after loading a session
+     */
+    public static ActionDigest replay(LocationState location, List<ActionEvent> actions) {
+        var digest = startingAt(location != null ? location.current() : null);
+        if (actions == null) {
+            return digest;
+        }
+        for (ActionEvent action : actions) {
+            digest = digest.apply(action);
+        }
+        return digest;
+    }
+    
+    /**
+     * Fold one more action into the digest
+     */
+    public ActionDigest apply(ActionEvent action) {
+        boolean social = action.type() == ActionType.TALK;
+        
+        var npcs = BoundedHistory.of(activeNpcs, MAX_ACTIVE_NPCS);
+        String npc = action.target();
+        if (social && npc != null && !npc.isBlank() && !npc.equals(npcs.latest())) {
+            if (npcs.contains(npc)) {
+                // Move a repeat partner to the end instead of keeping its first position
+                var others = new ArrayList<>(npcs);
+                others.remove(npc);
+                npcs = BoundedHistory.of(others, MAX_ACTIVE_NPCS);
+            }
+            npcs = npcs.append(npc);
+        }
+        
+        return new ActionDigest(
+            BoundedHistory.of(recentActions, MAX_RECENT_ACTIONS).append(action.command() + " -> " + action.outcome()),
+            npcs,
+            action.location()
+        );
+    }
+    
+    /**
+     * Up to {@code count} recent actions, newest first
+     */
+    public List<String> latestActions(int count) {
+        int n = Math.min(count, recentActions.size());
+        var latest = new ArrayList<String>(n);
+        for (int i = recentActions.size() - 1; i >= recentActions.size() - n; i--) {
+            latest.add(recentActions.get(i));
+        }
+        return List.copyOf(latest);
+    }
+}
@@ -18,7 +18,8 @@ public record ActionEvent(
     String location,
     String outcome,
     java.util.List<String> consequences,
-    Map<String, Object> metadata
+    Map<String, Object> metadata,
+    int outcomeFlags // OutcomeFlags bits, classified from type and consequences on creation
 ) {
     public ActionEvent {
         if (id == null || id.isBlank()) {
@@ -40,6 +41,9 @@ public record ActionEvent(
             throw new IllegalArgumentException("Outcome cannot be null or blank");
         }
         
+        location = Symbols.intern(location);
+        // Targets are free-form; share the name only if it is a known location or NPC
+        target = Symbols.canonical(target);
         consequences = consequences != null ? java.util.List.copyOf(consequences) : java.util.List.of();
         metadata = metadata != null ? Map.copyOf(metadata) : Map.of();
     }
@@ -63,7 +67,8 @@ public record ActionEvent(
             location,
             outcome,
             consequences,
-            Map.of()
+            Map.of(),
+            OutcomeFlags.classify(type, consequences)
         );
     }
     
@@ -71,15 +76,13 @@ public record ActionEvent(
      * Check if action was successful based on consequences
      */
     public boolean isSuccessful() {
-        return consequences.stream()
-            .anyMatch(c -> c.contains("success") || c.contains("victory"));
+        return OutcomeFlags.hasAny(outcomeFlags, OutcomeFlags.SUCCESSFUL);
     }
     
     /**
      * Check if action involved combat
      */
     public boolean isCombat() {
-        return type == ActionType.COMBAT || 
-               consequences.stream().anyMatch(c -> c.contains("combat"));
+        return OutcomeFlags.hasAny(outcomeFlags, OutcomeFlags.COMBAT);
     }
 }
@@ -0,0 +1,118 @@
+package ai.rpg.core.domain;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BoundedHistory is an immutable window over the most recent N elements, oldest first.
+ * 
+ * Versions share an append-only backing segment. Appending to the newest version
+ * claims the next free slot in place, so append-and-evict is O(1) and no earlier
+ * version ever observes a change. Appending to an older version, or to a full
+ * segment, compacts the live window into a fresh segment (amortized O(1)).
+ */
+public final class BoundedHistory<E> extends AbstractList<E> implements RandomAccess {
+    
+    private final Segment segment;
+    private final int capacity;
+    private final int start; // inclusive slot index
+    private final int end;   // exclusive slot index
+    
+    private BoundedHistory(Segment segment, int capacity, int start, int end) {
+        this.segment = segment;
+        this.capacity = capacity;
+        this.start = start;
+        this.end = end;
+    }
+    
+    /**
+     * Factory method for an empty history
+     */
+    public static <E> BoundedHistory<E> empty(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive");
+        }
+        return new BoundedHistory<>(new Segment(segmentSize(capacity)), capacity, 0, 0);
+    }
+    
+    /**
+     * Create a history holding the last {@code capacity} elements of the given ones.
+     * Returns the argument itself when it already is a history of that capacity.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> BoundedHistory<E> of(Collection<? extends E> elements, int capacity) {
+        if (elements instanceof BoundedHistory<?> history && history.capacity == capacity) {
+            return (BoundedHistory<E>) history;
+        }
+        var result = BoundedHistory.<E>empty(capacity);
+        int skip = Math.max(0, elements.size() - capacity);
+        for (E element : elements) {
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result = result.append(element);
+        }
+        return result;
+    }
+    
+    /**
+     * Append an element, evicting the oldest one when the window is full
+     */
+    public BoundedHistory<E> append(E element) {
+        Objects.requireNonNull(element, "History element cannot be null");
+        
+        if (end < segment.slots.length && segment.claimed.compareAndSet(end, end + 1)) {
+            segment.slots[end] = element;
+            return new BoundedHistory<>(segment, capacity, Math.max(start, end + 1 - capacity), end + 1);
+        }
+        
+        // Segment exhausted, or another version already claimed the next slot
+        var fresh = new Segment(segmentSize(capacity));
+        int kept = Math.min(size(), capacity - 1);
+        System.arraycopy(segment.slots, end - kept, fresh.slots, 0, kept);
+        fresh.slots[kept] = element;
+        fresh.claimed.set(kept + 1);
+        return new BoundedHistory<>(fresh, capacity, 0, kept + 1);
+    }
+    
+    /**
+     * Most recent element, or null when empty
+     */
+    public E latest() {
+        return isEmpty() ? null : get(size() - 1);
+    }
+    
+    public int capacity() {
+        return capacity;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size());
+        return (E) segment.slots[start + index];
+    }
+    
+    @Override
+    public int size() {
+        return end - start;
+    }
+    
+    private static int segmentSize(int capacity) {
+        // Twice the window, so compaction happens at most once per `capacity` appends
+        return Math.max(capacity * 2, 8);
+    }
+    
+    private static final class Segment {
+        private final Object[] slots;
+        private final AtomicInteger claimed = new AtomicInteger();
+        
+        private Segment(int size) {
+            this.slots = new Object[size];
+        }
+    }
+}
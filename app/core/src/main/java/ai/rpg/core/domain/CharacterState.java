@@ -28,11 +28,11 @@ public record CharacterState(
             throw new IllegalArgumentException("Reputation must be between -100 and 100");
         }
         
-        // Defensive copies
-        equipment = equipment != null ? java.util.List.copyOf(equipment) : java.util.List.of();
-        inventory = inventory != null ? java.util.List.copyOf(inventory) : java.util.List.of();
-        attributes = attributes != null ? Map.copyOf(attributes) : Map.of();
-        metadata = metadata != null ? Map.copyOf(metadata) : Map.of();
+        // Defensive copies; persistent collections from an earlier state are shared as-is
+        equipment = equipment != null ? PersistentVector.of(equipment) : PersistentVector.empty();
+        inventory = inventory != null ? PersistentVector.of(inventory) : PersistentVector.empty();
+        attributes = attributes != null ? PersistentMap.of(attributes) : PersistentMap.empty();
+        metadata = metadata != null ? PersistentMap.of(metadata) : PersistentMap.empty();
     }
     
     /**
@@ -70,4 +70,36 @@ public record CharacterState(
         int newReputation = Math.max(-100, Math.min(100, reputation + reputationChange));
         return new CharacterState(name, health, equipment, inventory, newReputation, attributes, metadata);
     }
+    
+    /**
+     * Set one attribute, sharing the rest of the attribute map
+     */
+    public CharacterState withAttribute(String attribute, int value) {
+        var updated = PersistentMap.of(attributes).with(attribute, value);
+        return new CharacterState(name, health, equipment, inventory, reputation, updated, metadata);
+    }
+    
+    /**
+     * Add an item to the inventory, sharing the existing items
+     */
+    public CharacterState withInventoryItem(InventoryItem item) {
+        var updated = PersistentVector.of(inventory).append(item);
+        return new CharacterState(name, health, equipment, updated, reputation, attributes, metadata);
+    }
+    
+    /**
+     * Describe the character's mood from health and reputation for AI context
+     */
+    public String describeMood() {
+        double healthPercentage = health.healthPercentage();
+        if (healthPercentage > 0.8 && reputation > 25) {
+            return "confident";
+        } else if (healthPercentage < 0.3) {
+            return "desperate";
+        } else if (reputation < -25) {
+            return "troubled";
+        } else {
+            return "focused";
+        }
+    }
 }
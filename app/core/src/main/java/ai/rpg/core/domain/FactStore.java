@@ -0,0 +1,216 @@
+package ai.rpg.core.domain;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+
+/**
+ * FactStore is an immutable, capped set of facts ordered by recency, oldest first.
+ *
+ * Facts are indexed by a {@link PersistentMap}, so membership is a hash lookup.
+ * Mentioning a known fact counts it again and moves it to the end; mentioning a
+ * new one in a full store evicts the least recently mentioned fact. Order is kept
+ * in a {@link PersistentVector} of slots where moved and evicted facts leave gaps,
+ * compacted once gaps outnumber live facts, so every change is O(log n)
+ * amortized and versions share structure.
+ */
+public final class FactStore extends AbstractList<String> implements RandomAccess {
+    private static final Object GAP = new Object();
+    private static final int MIN_COMPACTED_SLOTS = 32;
+
+    private final PersistentVector<Object> slots;
+    private final PersistentMap<String, Fact> index;
+    private final int first; // slots before this one are all gaps
+    private final int capacity;
+    private Dense dense;
+
+    private record Fact(int slot, int mentions) {}
+
+    // Final field, so the array is safely published with the holder
+    private record Dense(String[] facts) {}
+
+    private FactStore(PersistentVector<Object> slots, PersistentMap<String, Fact> index, int first, int capacity) {
+        this.slots = slots;
+        this.index = index;
+        this.first = first;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Factory method for an empty store
+     */
+    public static FactStore empty(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Fact store capacity must be positive");
+        }
+        return new FactStore(PersistentVector.empty(), PersistentMap.empty(), 0, capacity);
+    }
+
+    /**
+     * Create a store from facts in order, oldest first; repeats count as mentions.
+     * Returns the argument itself when it already is a store of that capacity.
+     */
+    public static FactStore of(Collection<String> facts, int capacity) {
+        if (facts instanceof FactStore store && store.capacity == capacity) {
+            return store;
+        }
+        return empty(capacity).mentionAll(facts);
+    }
+
+    /**
+     * Create a store from facts with their mention counts, in iteration order, oldest first
+     */
+    public static FactStore of(Map<String, Integer> mentions, int capacity) {
+        var result = empty(capacity);
+        for (Map.Entry<String, Integer> entry : mentions.entrySet()) {
+            result = result.mention(entry.getKey(), entry.getValue() != null ? entry.getValue() : 1);
+        }
+        return result;
+    }
+
+    /**
+     * Record one mention of a fact
+     */
+    public FactStore mention(String fact) {
+        return mention(fact, 1);
+    }
+
+    /**
+     * Record mentions of a fact and make it the most recent
+     */
+    public FactStore mention(String fact, int mentions) {
+        Objects.requireNonNull(fact, "Fact cannot be null");
+        if (mentions <= 0) {
+            throw new IllegalArgumentException("Mentions must be positive");
+        }
+
+        Fact known = index.get(fact);
+        int slot = slots.size();
+        if (known != null && known.slot() == slot - 1) {
+            return new FactStore(slots, index.with(fact, new Fact(known.slot(), known.mentions() + mentions)), first, capacity);
+        }
+
+        var newSlots = (known != null ? slots.with(known.slot(), GAP) : slots).append(fact);
+        var newIndex = index.with(fact, new Fact(slot, known != null ? known.mentions() + mentions : mentions));
+        int newFirst = skipGaps(newSlots, first);
+        if (newIndex.size() > capacity) {
+            newIndex = newIndex.without(newSlots.get(newFirst));
+            newSlots = newSlots.with(newFirst, GAP);
+            newFirst = skipGaps(newSlots, newFirst + 1);
+        }
+        return compacted(newSlots, newIndex, newFirst, capacity);
+    }
+
+    /**
+     * Record one mention of each fact, in order
+     */
+    public FactStore mentionAll(Collection<String> facts) {
+        var result = this;
+        for (String fact : facts) {
+            result = result.mention(fact);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean contains(Object fact) {
+        return fact != null && index.containsKey(fact);
+    }
+
+    /**
+     * How often the fact was recorded, or 0 if it is not in the store
+     */
+    public int mentions(String fact) {
+        Fact known = fact != null ? index.get(fact) : null;
+        return known != null ? known.mentions() : 0;
+    }
+
+    /**
+     * Up to {@code limit} facts, most mentioned first, the more recent first among equals
+     */
+    public List<String> top(int limit) {
+        if (limit <= 0 || isEmpty()) {
+            return List.of();
+        }
+        Comparator<Map.Entry<String, Fact>> relevance = Comparator
+            .comparingInt((Map.Entry<String, Fact> entry) -> entry.getValue().mentions())
+            .thenComparingInt(entry -> entry.getValue().slot());
+        // Min-heap of the best `limit` facts seen so far
+        var best = new PriorityQueue<>(limit, relevance);
+        for (Map.Entry<String, Fact> entry : index.entrySet()) {
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (relevance.compare(entry, best.peek()) > 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+        var result = new String[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = best.poll().getKey();
+        }
+        return List.of(result);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public String get(int index) {
+        return dense().facts()[Objects.checkIndex(index, size())];
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    private Dense dense() {
+        Dense result = dense;
+        if (result == null) {
+            String[] facts = new String[size()];
+            int n = 0;
+            for (int i = first; i < slots.size(); i++) {
+                Object slot = slots.get(i);
+                if (slot != GAP) {
+                    facts[n++] = (String) slot;
+                }
+            }
+            result = new Dense(facts);
+            dense = result;
+        }
+        return result;
+    }
+
+    private static int skipGaps(PersistentVector<Object> slots, int from) {
+        int i = from;
+        while (i < slots.size() && slots.get(i) == GAP) {
+            i++;
+        }
+        return i;
+    }
+
+    // Renumber live facts into fresh slots once gaps, evicted ones included, outnumber them
+    private static FactStore compacted(PersistentVector<Object> slots, PersistentMap<String, Fact> index, int first, int capacity) {
+        if (slots.size() <= Math.max(2 * index.size(), MIN_COMPACTED_SLOTS)) {
+            return new FactStore(slots, index, first, capacity);
+        }
+        PersistentVector<Object> packed = PersistentVector.empty();
+        PersistentMap<String, Fact> reindexed = PersistentMap.empty();
+        for (int i = first; i < slots.size(); i++) {
+            Object slot = slots.get(i);
+            if (slot != GAP) {
+                String fact = (String) slot;
+                reindexed = reindexed.with(fact, new Fact(packed.size(), index.get(fact).mentions()));
+                packed = packed.append(fact);
+            }
+        }
+        return new FactStore(packed, reindexed, 0, capacity);
+    }
+}
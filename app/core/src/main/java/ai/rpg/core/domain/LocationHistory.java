@@ -0,0 +1,142 @@
+package ai.rpg.core.domain;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * LocationHistory keeps the most recent visits in full and every visit in summary.
+ *
+ * The list view is a hot window of the last N visits, oldest first, sharing
+ * structure between versions like {@link BoundedHistory}. Each visit is also
+ * folded into a per-location {@link LocationStats} index, so visits that fall
+ * out of the window survive as counts and first/last timestamps, and "have I
+ * been here / how many times" is a hash lookup instead of a scan. List equality
+ * covers the window only.
+ */
+public final class LocationHistory extends AbstractList<LocationVisit> implements RandomAccess {
+
+    // Visits kept in full; older ones live on in the index
+    public static final int DEFAULT_WINDOW = 20;
+
+    private final BoundedHistory<LocationVisit> recent;
+    private final PersistentMap<String, LocationStats> index;
+    private final int totalVisits;
+
+    private LocationHistory(BoundedHistory<LocationVisit> recent, PersistentMap<String, LocationStats> index, int totalVisits) {
+        this.recent = recent;
+        this.index = index;
+        this.totalVisits = totalVisits;
+    }
+
+    /**
+     * Factory method for an empty history
+     */
+    public static LocationHistory empty(int window) {
+        return new LocationHistory(BoundedHistory.empty(window), PersistentMap.empty(), 0);
+    }
+
+    /**
+     * Index all of the given visits and keep the last {@link #DEFAULT_WINDOW} of them.
+     * Returns the argument itself when it already is a history.
+     */
+    public static LocationHistory of(Collection<LocationVisit> visits) {
+        if (visits instanceof LocationHistory history) {
+            return history;
+        }
+        var result = empty(DEFAULT_WINDOW);
+        for (LocationVisit visit : visits) {
+            result = result.append(visit);
+        }
+        return result;
+    }
+
+    /**
+     * Rebuild a stored history from its window and index. Without an index, as on rows
+     * written before one was kept, every given visit is indexed and the last
+     * {@code window} of them are kept.
+     */
+    public static LocationHistory restore(Collection<LocationVisit> recent, Collection<LocationStats> stats, int window) {
+        if (stats == null || stats.isEmpty()) {
+            var result = empty(window);
+            for (LocationVisit visit : recent) {
+                result = result.append(visit);
+            }
+            return result;
+        }
+        PersistentMap<String, LocationStats> index = PersistentMap.empty();
+        int total = 0;
+        for (LocationStats entry : stats) {
+            index = index.with(entry.location(), entry);
+            total += entry.visits();
+        }
+        return new LocationHistory(BoundedHistory.of(recent, window), index, total);
+    }
+
+    /**
+     * Record a visit, evicting the oldest one from the window when it is full
+     */
+    public LocationHistory append(LocationVisit visit) {
+        LocationStats stats = index.get(visit.location());
+        LocationStats updated = stats == null ? LocationStats.of(visit) : stats.withVisit(visit);
+        return new LocationHistory(recent.append(visit), index.with(updated.location(), updated), totalVisits + 1);
+    }
+
+    public boolean hasVisited(String location) {
+        return location != null && index.containsKey(location);
+    }
+
+    /**
+     * Recorded visits to the location, including those no longer in the window
+     */
+    public int visits(String location) {
+        LocationStats stats = location != null ? index.get(location) : null;
+        return stats != null ? stats.visits() : 0;
+    }
+
+    /**
+     * Earliest recorded visit to the location, or null if never visited
+     */
+    public Instant firstVisit(String location) {
+        LocationStats stats = location != null ? index.get(location) : null;
+        return stats != null ? stats.firstVisit() : null;
+    }
+
+    /**
+     * Latest recorded visit to the location, or null if never visited
+     */
+    public Instant lastVisit(String location) {
+        LocationStats stats = location != null ? index.get(location) : null;
+        return stats != null ? stats.lastVisit() : null;
+    }
+
+    /**
+     * One summary per distinct location, in no particular order
+     */
+    public Collection<LocationStats> stats() {
+        return index.values();
+    }
+
+    public int distinctLocations() {
+        return index.size();
+    }
+
+    public int totalVisits() {
+        return totalVisits;
+    }
+
+    public int window() {
+        return recent.capacity();
+    }
+
+    @Override
+    public LocationVisit get(int index) {
+        return recent.get(index);
+    }
+
+    @Override
+    public int size() {
+        return recent.size();
+    }
+}
@@ -25,7 +25,10 @@ public record LocationState(
             throw new IllegalArgumentException("Time in location cannot be negative");
         }
         
-        locationHistory = locationHistory != null ? List.copyOf(locationHistory) : List.of();
+        current = Symbols.intern(current);
+        previous = Symbols.intern(previous);
+        // Bounded and indexed; an existing history is shared as-is
+        locationHistory = LocationHistory.of(locationHistory != null ? locationHistory : List.of());
     }
     
     /**
@@ -51,8 +54,6 @@ public record LocationState(
         }
         
         var visit = new LocationVisit(current, Instant.now(), null, 0);
-        var updatedHistory = new java.util.ArrayList<>(locationHistory);
-        updatedHistory.add(visit);
         
         return new LocationState(
             newLocation,
@@ -60,7 +61,35 @@ public record LocationState(
             current.equals(newLocation) ? visitCount + 1 : 1,
             current.equals(newLocation) ? firstVisit : Instant.now(),
             0,
-            List.copyOf(updatedHistory)
+            history().append(visit)
         );
     }
+    
+    /**
+     * Recent visits in full plus per-location visit counts and timestamps
+     */
+    public LocationHistory history() {
+        return (LocationHistory) locationHistory;
+    }
+    
+    /**
+     * Whether the player is at or has been at the location
+     */
+    public boolean hasVisited(String location) {
+        return current.equals(location) || history().hasVisited(location);
+    }
+    
+    /**
+     * Number of distinct locations the player has been in, including the current one
+     */
+    public int locationsVisited() {
+        return history().distinctLocations() + (history().hasVisited(current) ? 0 : 1);
+    }
+    
+    /**
+     * Completed visits to the location, counting each departure from it
+     */
+    public int timesVisited(String location) {
+        return history().visits(location);
+    }
 }
@@ -0,0 +1,52 @@
+package ai.rpg.core.domain;
+
+import java.time.Instant;
+
+/**
+ * LocationStats summarizes every recorded visit to one location
+ */
+public record LocationStats(
+    String location,
+    int visits,
+    Instant firstVisit,
+    Instant lastVisit,
+    int totalMinutes
+) {
+    public LocationStats {
+        if (location == null || location.isBlank()) {
+            throw new IllegalArgumentException("Location cannot be null or blank");
+        }
+        if (visits <= 0) {
+            throw new IllegalArgumentException("Visits must be positive");
+        }
+        if (firstVisit == null || lastVisit == null) {
+            throw new IllegalArgumentException("First and last visit cannot be null");
+        }
+        if (totalMinutes < 0) {
+            throw new IllegalArgumentException("Total minutes cannot be negative");
+        }
+
+        location = Symbols.intern(location);
+    }
+
+    /**
+     * Stats for a location seen for the first time
+     */
+    public static LocationStats of(LocationVisit visit) {
+        return new LocationStats(visit.location(), 1, visit.entryTime(), visit.entryTime(), visit.durationMinutes());
+    }
+
+    /**
+     * Add one visit
+     */
+    public LocationStats withVisit(LocationVisit visit) {
+        Instant entry = visit.entryTime();
+        return new LocationStats(
+            location,
+            visits + 1,
+            entry.isBefore(firstVisit) ? entry : firstVisit,
+            entry.isAfter(lastVisit) ? entry : lastVisit,
+            totalMinutes + visit.durationMinutes()
+        );
+    }
+}
@@ -21,6 +21,8 @@ public record LocationVisit(
         if (durationMinutes < 0) {
             throw new IllegalArgumentException("Duration cannot be negative");
         }
+        
+        location = Symbols.intern(location);
     }
     
     /**
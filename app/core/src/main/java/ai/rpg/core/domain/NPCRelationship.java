@@ -2,9 +2,11 @@ package ai.rpg.core.domain;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 /**
- * NPCRelationship tracks relationship with specific NPCs
+ * NPCRelationship tracks relationship with specific NPCs.
+ * Knowledge holds free-form details about the NPC; it is carried along unchanged.
  */
 public record NPCRelationship(
     String npcId,
@@ -16,8 +18,14 @@ public record NPCRelationship(
     List<String> knownFacts,
     NPCMood mood,
     String location,
-    List<String> notes
+    List<String> notes,
+    Map<String, String> knowledge
 ) {
+    
+    // Least recently mentioned facts and notes are dropped beyond these
+    public static final int MAX_KNOWN_FACTS = 256;
+    public static final int MAX_NOTES = 64;
+    
     public NPCRelationship {
         if (npcId == null || npcId.isBlank()) {
             throw new IllegalArgumentException("NPC ID cannot be null or blank");
@@ -41,8 +49,19 @@ public record NPCRelationship(
             throw new IllegalArgumentException("Mood cannot be null");
         }
         
-        knownFacts = knownFacts != null ? List.copyOf(knownFacts) : List.of();
-        notes = notes != null ? List.copyOf(notes) : List.of();
+        npcId = Symbols.intern(npcId);
+        location = Symbols.intern(location);
+        // Deduplicated, capped and indexed; an existing store is shared as-is
+        knownFacts = FactStore.of(knownFacts != null ? knownFacts : List.of(), MAX_KNOWN_FACTS);
+        notes = FactStore.of(notes != null ? notes : List.of(), MAX_NOTES);
+        knowledge = knowledge != null ? PersistentMap.of(knowledge) : PersistentMap.empty();
+    }
+    
+    public NPCRelationship(String npcId, String name, int disposition, Instant firstMet, Instant lastInteraction,
+                           int interactionCount, List<String> knownFacts, NPCMood mood, String location,
+                           List<String> notes) {
+        this(npcId, name, disposition, firstMet, lastInteraction, interactionCount, knownFacts, mood, location,
+            notes, Map.of());
     }
     
     /**
@@ -71,12 +90,7 @@ public record NPCRelationship(
         var newDisposition = Math.max(-100, Math.min(100, disposition + dispositionChange));
         var newMood = getMoodFromDisposition(newDisposition);
         
-        var updatedFacts = new java.util.ArrayList<>(knownFacts);
-        if (newFacts != null) {
-            newFacts.stream()
-                .filter(fact -> !updatedFacts.contains(fact))
-                .forEach(updatedFacts::add);
-        }
+        var updatedFacts = newFacts != null ? facts().mentionAll(newFacts) : facts();
         
         return new NPCRelationship(
             npcId,
@@ -85,13 +99,28 @@ public record NPCRelationship(
             firstMet,
             Instant.now(),
             interactionCount + 1,
-            List.copyOf(updatedFacts),
+            updatedFacts,
             newMood,
             location,
-            notes
+            notes,
+            knowledge
         );
     }
     
+    /**
+     * Known facts with mention counts, oldest first
+     */
+    public FactStore facts() {
+        return (FactStore) knownFacts;
+    }
+    
+    /**
+     * The facts most worth repeating in a prompt, most mentioned first
+     */
+    public List<String> relevantFacts(int limit) {
+        return facts().top(limit);
+    }
+    
     /**
      * Get relationship level as string
      */
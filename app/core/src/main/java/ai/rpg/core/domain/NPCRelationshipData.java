@@ -1,8 +1,14 @@
 package ai.rpg.core.domain;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Stored form of an NPCRelationship. Facts and the conversation history are lists,
+ * oldest first, so their order survives JSON columns that re-sort object keys.
+ * Knowledge is free-form and kept exactly as stored.
+ */
 public record NPCRelationshipData(
     String npcId,
     String npcName,
@@ -10,5 +16,16 @@ public record NPCRelationshipData(
     int affinity,
     List<String> conversationHistory,
     Map<String, String> knowledge,
-    Map<String, Object> metadata
-) {} 
\ No newline at end of file
+    Map<String, Object> metadata,
+    Instant firstMet,
+    Instant lastInteraction,
+    int interactionCount,
+    String location,
+    List<KnownFact> facts
+) {
+
+    /**
+     * A known fact and how often it has been mentioned
+     */
+    public record KnownFact(String fact, int mentions) {}
+}
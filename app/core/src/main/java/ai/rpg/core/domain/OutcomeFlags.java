@@ -0,0 +1,63 @@
+package ai.rpg.core.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OutcomeFlags classifies an action's consequences into a bitmask once, when the
+ * action is created or written, so later checks and queries read bits instead of
+ * rescanning consequence strings.
+ *
+ * Queries match a flag by listing every mask that contains it (see
+ * {@link #masksWithAny(int)}); an IN over a handful of values can use an index on
+ * the mask column where a bitwise predicate cannot.
+ */
+public final class OutcomeFlags {
+    public static final int SUCCESS = 1;
+    public static final int VICTORY = 1 << 1;
+    public static final int COMBAT = 1 << 2;
+    public static final int FAILURE = 1 << 3;
+
+    public static final int SUCCESSFUL = SUCCESS | VICTORY;
+
+    private static final int ALL = SUCCESS | VICTORY | COMBAT | FAILURE;
+
+    private OutcomeFlags() {}
+
+    /**
+     * Classify an action from its type and consequences
+     */
+    public static int classify(ActionType type, List<String> consequences) {
+        int flags = type != null && ActionCategory.of(type) == ActionCategory.COMBAT ? COMBAT : 0;
+        if (consequences == null) {
+            return flags;
+        }
+        for (String consequence : consequences) {
+            if (consequence == null) {
+                continue;
+            }
+            if (consequence.contains("success")) flags |= SUCCESS;
+            if (consequence.contains("victory")) flags |= VICTORY;
+            if (consequence.contains("combat")) flags |= COMBAT;
+            if (consequence.contains("fail")) flags |= FAILURE;
+        }
+        return flags;
+    }
+
+    public static boolean hasAny(int flags, int mask) {
+        return (flags & mask) != 0;
+    }
+
+    /**
+     * Every mask that has at least one of the given flags, for index-friendly IN queries
+     */
+    public static List<Integer> masksWithAny(int mask) {
+        var masks = new ArrayList<Integer>();
+        for (int candidate = 0; candidate <= ALL; candidate++) {
+            if ((candidate & mask) != 0) {
+                masks.add(candidate);
+            }
+        }
+        return List.copyOf(masks);
+    }
+}
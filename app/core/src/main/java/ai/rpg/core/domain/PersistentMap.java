@@ -0,0 +1,338 @@
+package ai.rpg.core.domain;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * PersistentMap is an immutable hash map that shares structure between versions.
+ *
+ * It is a hash array mapped trie: each level consumes five bits of the key's hash
+ * and stores only the occupied slots, indexed by a bitmap. Adding, replacing or
+ * removing a key copies one path of at most seven small nodes and shares the rest.
+ * Keys whose full hashes are equal share a collision node. Like
+ * {@link Map#copyOf}, it rejects null keys and values; iteration order is
+ * unspecified.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    // Seven five-bit levels cover the hash, plus one collision node
+    private static final int MAX_DEPTH = 8;
+    private static final Object NOT_FOUND = new Object();
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * The given entries as a persistent map; returns the argument itself when it already is one
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> of(Map<? extends K, ? extends V> entries) {
+        if (entries instanceof PersistentMap<?, ?> map) {
+            return (PersistentMap<K, V>) map;
+        }
+        PersistentMap<K, V> result = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * A map with the key set to the value
+     */
+    public PersistentMap<K, V> with(K key, V value) {
+        Objects.requireNonNull(key, "Map key cannot be null");
+        Objects.requireNonNull(value, "Map value cannot be null");
+
+        boolean[] added = new boolean[1];
+        Node newRoot = root.assoc(0, key.hashCode(), key, value, added);
+        return newRoot == root ? this : new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * A map without the key
+     */
+    public PersistentMap<K, V> without(Object key) {
+        if (key == null) {
+            return this;
+        }
+        Node newRoot = root.without(0, key.hashCode(), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Object value = root.find(0, key.hashCode(), key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && root.find(0, key.hashCode(), key) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Object[] cloneAndSet(Object[] array, int index, Object value) {
+        Object[] result = array.clone();
+        result[index] = value;
+        return result;
+    }
+
+    private static Object[] removePair(Object[] array, int pair) {
+        Object[] result = new Object[array.length - 2];
+        System.arraycopy(array, 0, result, 0, 2 * pair);
+        System.arraycopy(array, 2 * pair + 2, result, 2 * pair, result.length - 2 * pair);
+        return result;
+    }
+
+    /**
+     * Trie node. Both kinds keep their contents as key/value pairs in one array
+     */
+    private interface Node {
+        Object find(int shift, int hash, Object key);
+
+        Node assoc(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * @return this if the key is absent, null if the node becomes empty
+         */
+        Node without(int shift, int hash, Object key);
+
+        Object[] pairs();
+    }
+
+    /**
+     * Occupied slots only, in bitmap order. A pair with a null key holds a child node
+     */
+    private record BitmapNode(int bitmap, Object[] pairs) implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int i = 2 * index(bit);
+            Object k = pairs[i];
+            if (k == null) {
+                return ((Node) pairs[i + 1]).find(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? pairs[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        public Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = bit(hash, shift);
+            int i = 2 * index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] result = new Object[pairs.length + 2];
+                System.arraycopy(pairs, 0, result, 0, i);
+                result[i] = key;
+                result[i + 1] = value;
+                System.arraycopy(pairs, i, result, i + 2, pairs.length - i);
+                return new BitmapNode(bitmap | bit, result);
+            }
+
+            Object k = pairs[i];
+            Object v = pairs[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).assoc(shift + BITS, hash, key, value, added);
+                return child == v ? this : new BitmapNode(bitmap, cloneAndSet(pairs, i + 1, child));
+            }
+            if (key.equals(k)) {
+                return value == v ? this : new BitmapNode(bitmap, cloneAndSet(pairs, i + 1, value));
+            }
+            // Slot taken by another key: push both one level down
+            added[0] = true;
+            Object[] result = cloneAndSet(pairs, i, null);
+            result[i + 1] = split(shift + BITS, k, v, hash, key, value);
+            return new BitmapNode(bitmap, result);
+        }
+
+        @Override
+        public Node without(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int pair = index(bit);
+            int i = 2 * pair;
+            Object k = pairs[i];
+            Object v = pairs[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).without(shift + BITS, hash, key);
+                if (child == v) {
+                    return this;
+                }
+                if (child != null) {
+                    return new BitmapNode(bitmap, cloneAndSet(pairs, i + 1, child));
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            return bitmap == bit ? null : new BitmapNode(bitmap ^ bit, removePair(pairs, pair));
+        }
+
+        private static Node split(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            int hash1 = key1.hashCode();
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+            }
+            boolean[] ignored = new boolean[1];
+            return EMPTY.assoc(shift, hash1, key1, value1, ignored).assoc(shift, hash2, key2, value2, ignored);
+        }
+    }
+
+    /**
+     * Keys whose hashes are all equal, compared by equals
+     */
+    private record CollisionNode(int hash, Object[] pairs) implements Node {
+        private int indexOf(Object key) {
+            for (int i = 0; i < pairs.length; i += 2) {
+                if (key.equals(pairs[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) {
+                return NOT_FOUND;
+            }
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : pairs[i + 1];
+        }
+
+        @Override
+        public Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // A different hash can only meet this node above bit 30; nest it where they diverge
+                return new BitmapNode(bit(this.hash, shift), new Object[] {null, this})
+                    .assoc(shift, hash, key, value, added);
+            }
+            int i = indexOf(key);
+            if (i >= 0) {
+                return pairs[i + 1] == value ? this : new CollisionNode(hash, cloneAndSet(pairs, i + 1, value));
+            }
+            added[0] = true;
+            Object[] result = Arrays.copyOf(pairs, pairs.length + 2);
+            result[pairs.length] = key;
+            result[pairs.length + 1] = value;
+            return new CollisionNode(hash, result);
+        }
+
+        @Override
+        public Node without(int shift, int hash, Object key) {
+            int i = hash == this.hash ? indexOf(key) : -1;
+            if (i < 0) {
+                return this;
+            }
+            return pairs.length == 2 ? null : new CollisionNode(hash, removePair(pairs, i / 2));
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final Object[][] stack = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Entry<K, V> next;
+
+        EntryIterator(Node root) {
+            stack[0] = root.pairs();
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> current = next;
+            advance();
+            return current;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            while (depth >= 0) {
+                Object[] pairs = stack[depth];
+                int i = positions[depth];
+                if (i >= pairs.length) {
+                    depth--;
+                    continue;
+                }
+                positions[depth] = i + 2;
+                if (pairs[i] == null) {
+                    depth++;
+                    stack[depth] = ((Node) pairs[i + 1]).pairs();
+                    positions[depth] = 0;
+                    continue;
+                }
+                next = new SimpleImmutableEntry<>((K) pairs[i], (V) pairs[i + 1]);
+                return;
+            }
+            next = null;
+        }
+    }
+}
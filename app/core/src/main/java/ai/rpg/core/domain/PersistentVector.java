@@ -0,0 +1,157 @@
+package ai.rpg.core.domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * PersistentVector is an immutable list that shares structure between versions.
+ *
+ * Elements live in a 32-way trie plus a tail block of up to 32 elements. Appending
+ * copies only the tail (or one path of the trie when the tail is full), and
+ * replacing an element copies one path, so both are O(log32 n) instead of a full
+ * copy. Like {@link java.util.List#copyOf}, it rejects null elements.
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * The given elements as a vector; returns the argument itself when it already is one
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> of(Collection<? extends E> elements) {
+        if (elements instanceof PersistentVector<?> vector) {
+            return (PersistentVector<E>) vector;
+        }
+        PersistentVector<E> result = empty();
+        for (E element : elements) {
+            result = result.append(element);
+        }
+        return result;
+    }
+
+    /**
+     * A vector with the element added at the end
+     */
+    public PersistentVector<E> append(E element) {
+        Objects.requireNonNull(element, "Vector element cannot be null");
+
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+
+        // Tail is full: move it into the trie, adding a level when the root is full too
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] {element});
+    }
+
+    /**
+     * A vector with the element at {@code index} replaced
+     */
+    public PersistentVector<E> with(int index, E element) {
+        Objects.checkIndex(index, size);
+        Objects.requireNonNull(element, "Vector element cannot be null");
+
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = element;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, assoc(shift, root, index, element), tail);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) blockFor(index)[index & MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] blockFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailBlock) {
+        int slot = ((size - 1) >>> level) & MASK;
+        Object[] result = parent.clone();
+        Object[] child;
+        if (level == BITS) {
+            child = tailBlock;
+        } else {
+            Object[] existing = (Object[]) parent[slot];
+            child = existing != null ? pushTail(level - BITS, existing, tailBlock) : newPath(level - BITS, tailBlock);
+        }
+        result[slot] = child;
+        return result;
+    }
+
+    private static Object[] newPath(int level, Object[] block) {
+        if (level == 0) {
+            return block;
+        }
+        Object[] node = new Object[WIDTH];
+        node[0] = newPath(level - BITS, block);
+        return node;
+    }
+
+    private static Object[] assoc(int level, Object[] node, int index, Object element) {
+        Object[] result = node.clone();
+        if (level == 0) {
+            result[index & MASK] = element;
+        } else {
+            int slot = (index >>> level) & MASK;
+            result[slot] = assoc(level - BITS, (Object[]) node[slot], index, element);
+        }
+        return result;
+    }
+}
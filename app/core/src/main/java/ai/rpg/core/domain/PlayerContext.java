@@ -21,9 +21,13 @@ public record PlayerContext(
     LocationState location,
     List<ActionEvent> actions,
     Map<String, NPCRelationship> npcStates,
-    SessionMetrics sessionStats
+    SessionMetrics sessionStats,
+    ActionDigest digest
 ) {
     
+    // Keep only last N actions (matching Go implementation)
+    public static final int MAX_ACTIONS = 50;
+    
     /**
      * Validation constructor to ensure data integrity
      */
@@ -46,9 +50,11 @@ public record PlayerContext(
         if (location == null) {
             throw new IllegalArgumentException("Location state cannot be null");
         }
-        // Defensive copies for mutable collections
-        actions = actions != null ? List.copyOf(actions) : List.of();
-        npcStates = npcStates != null ? Map.copyOf(npcStates) : Map.of();
+        // Defensive copies for mutable collections; an existing history or NPC map is shared as-is
+        actions = BoundedHistory.of(actions != null ? actions : List.of(), MAX_ACTIONS);
+        npcStates = npcStates != null ? PersistentMap.of(npcStates) : PersistentMap.empty();
+        // Loaded contexts arrive without a digest; rebuild it once from the history
+        digest = digest != null ? digest : ActionDigest.replay(location, actions);
     }
     
     /**
@@ -65,7 +71,8 @@ public record PlayerContext(
             LocationState.startingLocation(),
             List.of(),
             Map.of(),
-            SessionMetrics.empty()
+            SessionMetrics.empty(),
+            null
         );
     }
     
@@ -82,7 +89,8 @@ public record PlayerContext(
             location,
             actions,
             npcStates,
-            sessionStats
+            sessionStats,
+            digest
         );
     }
     
@@ -90,17 +98,6 @@ public record PlayerContext(
      * Add new action to context
      */
     public PlayerContext withNewAction(ActionEvent action) {
-        var updatedActions = new java.util.ArrayList<>(actions);
-        updatedActions.add(action);
-        
-        // Keep only last N actions (matching Go implementation)
-        final int MAX_ACTIONS = 50;
-        if (updatedActions.size() > MAX_ACTIONS) {
-            updatedActions = new java.util.ArrayList<>(
-                updatedActions.subList(updatedActions.size() - MAX_ACTIONS, updatedActions.size())
-            );
-        }
-        
         return new PlayerContext(
             playerId,
             sessionId,
@@ -108,9 +105,28 @@ public record PlayerContext(
             Instant.now(),
             character,
             location,
-            List.copyOf(updatedActions),
+            BoundedHistory.of(actions, MAX_ACTIONS).append(action),
             npcStates,
-            sessionStats.incrementAction(action.type())
+            sessionStats.incrementAction(action.type()),
+            digest.apply(action)
+        );
+    }
+    
+    /**
+     * Record the latest state of one NPC relationship, sharing the other entries
+     */
+    public PlayerContext withNpcState(NPCRelationship relationship) {
+        return new PlayerContext(
+            playerId,
+            sessionId,
+            startTime,
+            Instant.now(),
+            character,
+            location,
+            actions,
+            PersistentMap.of(npcStates).with(relationship.npcId(), relationship),
+            sessionStats,
+            digest
         );
     }
 }
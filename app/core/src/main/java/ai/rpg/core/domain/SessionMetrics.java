@@ -1,30 +1,19 @@
 package ai.rpg.core.domain;
 
 /**
- * SessionMetrics tracks session statistics for analytics and AI context
+ * SessionMetrics tracks session statistics for analytics and AI context.
+ * 
+ * Actions are counted per {@link ActionType}; the combat, social and explore
+ * figures are derived through the shared {@link ActionCategory} table.
  */
 public record SessionMetrics(
-    int totalActions,
-    int combatActions,
-    int socialActions,
-    int exploreActions,
+    ActionCounts actionCounts,
     double sessionTimeMinutes,
     int locationsVisited,
     int npcsInteracted
 ) {
     public SessionMetrics {
-        if (totalActions < 0) {
-            throw new IllegalArgumentException("Total actions cannot be negative");
-        }
-        if (combatActions < 0) {
-            throw new IllegalArgumentException("Combat actions cannot be negative");
-        }
-        if (socialActions < 0) {
-            throw new IllegalArgumentException("Social actions cannot be negative");
-        }
-        if (exploreActions < 0) {
-            throw new IllegalArgumentException("Explore actions cannot be negative");
-        }
+        actionCounts = actionCounts != null ? actionCounts : ActionCounts.empty();
         if (sessionTimeMinutes < 0) {
             throw new IllegalArgumentException("Session time cannot be negative");
         }
@@ -40,61 +29,51 @@ public record SessionMetrics(
      * Factory method for empty metrics
      */
     public static SessionMetrics empty() {
-        return new SessionMetrics(0, 0, 0, 0, 0.0, 0, 0);
+        return new SessionMetrics(ActionCounts.empty(), 0.0, 0, 0);
+    }
+    
+    public int totalActions() {
+        return actionCounts.total();
+    }
+    
+    public int combatActions() {
+        return actionCounts.count(ActionCategory.COMBAT);
+    }
+    
+    public int socialActions() {
+        return actionCounts.count(ActionCategory.SOCIAL);
+    }
+    
+    public int exploreActions() {
+        return actionCounts.count(ActionCategory.EXPLORE);
     }
     
     /**
      * Increment action count based on type
      */
     public SessionMetrics incrementAction(ActionType actionType) {
-        return switch (actionType) {
-            case ATTACK -> new SessionMetrics(
-                totalActions + 1, combatActions + 1, socialActions, exploreActions,
-                sessionTimeMinutes, locationsVisited, npcsInteracted
-            );
-            case TALK -> new SessionMetrics(
-                totalActions + 1, combatActions, socialActions + 1, exploreActions,
-                sessionTimeMinutes, locationsVisited, npcsInteracted
-            );
-            case EXAMINE, MOVE -> new SessionMetrics(
-                totalActions + 1, combatActions, socialActions, exploreActions + 1,
-                sessionTimeMinutes, locationsVisited, npcsInteracted
-            );
-            default -> new SessionMetrics(
-                totalActions + 1, combatActions, socialActions, exploreActions,
-                sessionTimeMinutes, locationsVisited, npcsInteracted
-            );
-        };
+        return new SessionMetrics(actionCounts.increment(actionType), sessionTimeMinutes, locationsVisited, npcsInteracted);
     }
     
     /**
      * Update session time
      */
     public SessionMetrics withSessionTime(double minutes) {
-        return new SessionMetrics(
-            totalActions, combatActions, socialActions, exploreActions,
-            minutes, locationsVisited, npcsInteracted
-        );
+        return new SessionMetrics(actionCounts, minutes, locationsVisited, npcsInteracted);
     }
     
     /**
      * Increment location visited
      */
     public SessionMetrics incrementLocation() {
-        return new SessionMetrics(
-            totalActions, combatActions, socialActions, exploreActions,
-            sessionTimeMinutes, locationsVisited + 1, npcsInteracted
-        );
+        return new SessionMetrics(actionCounts, sessionTimeMinutes, locationsVisited + 1, npcsInteracted);
     }
     
     /**
      * Increment NPC interaction
      */
     public SessionMetrics incrementNPCInteraction() {
-        return new SessionMetrics(
-            totalActions, combatActions, socialActions, exploreActions,
-            sessionTimeMinutes, locationsVisited, npcsInteracted + 1
-        );
+        return new SessionMetrics(actionCounts, sessionTimeMinutes, locationsVisited, npcsInteracted + 1);
     }
     
     /**
@@ -108,13 +87,14 @@ public record SessionMetrics(
     ) {}
     
     public ActionDistribution getActionDistribution() {
+        int totalActions = totalActions();
         if (totalActions == 0) {
             return new ActionDistribution(0, 0, 0, 0);
         }
         
-        double combat = (double) combatActions / totalActions * 100;
-        double social = (double) socialActions / totalActions * 100;
-        double explore = (double) exploreActions / totalActions * 100;
+        double combat = (double) combatActions() / totalActions * 100;
+        double social = (double) socialActions() / totalActions * 100;
+        double explore = (double) exploreActions() / totalActions * 100;
         double other = 100 - combat - social - explore;
         
         return new ActionDistribution(combat, social, explore, other);
@@ -0,0 +1,107 @@
+package ai.rpg.core.domain;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Symbols is the process-wide table of location names and NPC IDs.
+ *
+ * Every occurrence of a name in the domain records is replaced by one canonical
+ * String instance, so a location mentioned by thousands of sessions, actions and
+ * visits is stored once. Each symbol also has a dense int ID for structures that
+ * want a primitive key; IDs are stable for the life of the process and are never
+ * persisted.
+ *
+ * Symbols are never removed, so only names from a bounded vocabulary are
+ * registered. Free-form text such as action targets goes through
+ * {@link #canonical}, which shares an already registered name but never adds
+ * one. As a backstop, names longer than {@value #MAX_SYMBOL_LENGTH} characters
+ * and any name arriving once {@value #MAX_SYMBOLS} symbols exist are passed
+ * through as-is and have no ID ({@link #NONE}).
+ */
+public final class Symbols {
+    public static final int NONE = -1;
+    public static final int MAX_SYMBOLS = 1 << 20;
+    public static final int MAX_SYMBOL_LENGTH = 128;
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    // Grown under the class lock; a reader holding an ID always sees an array containing it
+    private static volatile String[] names = new String[1024];
+    private static int size;
+
+    private Symbols() {}
+
+    /**
+     * The canonical instance of a name, or the name itself if it is not admitted
+     */
+    public static String intern(String name) {
+        int id = id(name);
+        return id == NONE ? name : names[id];
+    }
+
+    /**
+     * The canonical instance of a name if it is already registered, otherwise the name itself
+     */
+    public static String canonical(String name) {
+        Integer id = name != null ? ids.get(name) : null;
+        return id == null ? name : names[id];
+    }
+
+    /**
+     * The ID of a name, registering it on first use; {@link #NONE} for null or names not admitted
+     */
+    public static int id(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (name.length() > MAX_SYMBOL_LENGTH) {
+            return NONE;
+        }
+        return register(name);
+    }
+
+    /**
+     * The name of an ID; null for {@link #NONE}
+     *
+     * @throws IllegalArgumentException if the ID was never issued
+     */
+    public static String name(int id) {
+        if (id == NONE) {
+            return null;
+        }
+        String[] snapshot = names;
+        if (id < 0 || id >= snapshot.length || snapshot[id] == null) {
+            throw new IllegalArgumentException("Unknown symbol ID: " + id);
+        }
+        return snapshot[id];
+    }
+
+    /**
+     * Number of symbols registered so far
+     */
+    public static int size() {
+        return ids.size();
+    }
+
+    private static synchronized int register(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == MAX_SYMBOLS) {
+            return NONE;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        int id = size++;
+        names[id] = name;
+        // Published after the array slot, so a reader that finds the ID also finds the name
+        ids.put(name, id);
+        return id;
+    }
+}
@@ -0,0 +1,64 @@
+package ai.rpg.persistence.codec;
+
+/**
+ * Framing for binary column values: {@code [magic][version][int payload length][payload]}.
+ *
+ * The magic byte can never start a JSON document, which lets readers tell framed
+ * values from columns still holding legacy JSON.
+ */
+public final class BinaryColumnFrame {
+    static final byte MAGIC = (byte) 0xB7;
+    static final int HEADER_BYTES = 6;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private BinaryColumnFrame() {}
+
+    public static <T> byte[] encode(ColumnCodec<T> codec, T value) {
+        BinaryWriter out = new BinaryWriter(128);
+        out.writeByte(MAGIC);
+        out.writeByte(codec.version());
+        out.writeByte(0);
+        out.writeByte(0);
+        out.writeByte(0);
+        out.writeByte(0);
+        codec.write(out, value);
+        out.putInt(2, out.size() - HEADER_BYTES);
+        return out.toByteArray();
+    }
+
+    public static <T> T decode(ColumnCodec<T> codec, byte[] bytes) {
+        if (!isFramed(bytes)) {
+            throw new IllegalArgumentException("Not a binary column frame");
+        }
+        int version = bytes[1] & 0xFF;
+        if (version > codec.version()) {
+            throw new IllegalStateException("Column written by codec version " + version
+                + ", newer than supported version " + codec.version());
+        }
+        int length = ((bytes[2] & 0xFF) << 24) | ((bytes[3] & 0xFF) << 16)
+            | ((bytes[4] & 0xFF) << 8) | (bytes[5] & 0xFF);
+        if (length != bytes.length - HEADER_BYTES) {
+            throw new IllegalStateException("Binary column length " + length
+                + " does not match payload of " + (bytes.length - HEADER_BYTES) + " bytes");
+        }
+        return codec.read(new BinaryReader(bytes, HEADER_BYTES, length), version);
+    }
+
+    public static boolean isFramed(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_BYTES && bytes[0] == MAGIC;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of an encoded value, used for dirty checking
+     */
+    public static long fingerprint(byte[] bytes) {
+        long hash = FNV_OFFSET;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,182 @@
+package ai.rpg.persistence.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate user type storing a collection column through a {@link ColumnCodec}.
+ *
+ * Dirty checking compares the encoded bytes instead of deep-comparing object
+ * graphs. The loaded-state snapshot produced by {@link #deepCopy} keeps its
+ * bytes, so each flush encodes only the current value once. Columns that still
+ * hold JSON from before the binary format are read through Jackson and rewritten
+ * in binary on their next update.
+ */
+public abstract class BinaryColumnType<T> implements UserType<T> {
+    /**
+     * Length for mapped columns, so generated schemas get VARBINARY on H2 and BYTEA on PostgreSQL
+     */
+    public static final int COLUMN_LENGTH = 1024 * 1024;
+
+    private static final ObjectMapper LEGACY_JSON = new ObjectMapper();
+
+    private final ColumnCodec<T> codec;
+    private final Class<T> returnedClass;
+    private final TypeReference<T> legacyJsonType;
+
+    @SuppressWarnings("unchecked")
+    protected BinaryColumnType(ColumnCodec<T> codec, Class<?> returnedClass, TypeReference<T> legacyJsonType) {
+        this.codec = codec;
+        this.returnedClass = (Class<T>) returnedClass;
+        this.legacyJsonType = legacyJsonType;
+    }
+
+    @Override
+    public int getSqlType() {
+        return Types.VARBINARY;
+    }
+
+    @Override
+    public Class<T> returnedClass() {
+        return returnedClass;
+    }
+
+    @Override
+    public boolean equals(T x, T y) {
+        if (x == y) {
+            return true;
+        }
+        if (x == null || y == null) {
+            return false;
+        }
+        return Arrays.equals(encoded(x), encoded(y));
+    }
+
+    @Override
+    public int hashCode(T x) {
+        return x == null ? 0 : Long.hashCode(BinaryColumnFrame.fingerprint(encoded(x)));
+    }
+
+    @Override
+    public T nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        byte[] bytes = rs.getBytes(position);
+        if (bytes == null) {
+            return null;
+        }
+        if (BinaryColumnFrame.isFramed(bytes)) {
+            return BinaryColumnFrame.decode(codec, bytes);
+        }
+        try {
+            return LEGACY_JSON.readValue(bytes, legacyJsonType);
+        } catch (IOException e) {
+            throw new HibernateException("Column is neither a binary frame nor legacy JSON", e);
+        }
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, T value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.VARBINARY);
+        } else {
+            st.setBytes(index, BinaryColumnFrame.encode(codec, value));
+        }
+    }
+
+    /**
+     * Copy via an encode/decode round trip; the copy carries the bytes it was decoded from.
+     * Only Hibernate's loaded-state snapshots come from here, never values handed to the
+     * entity, so the remembered bytes cannot go stale through application mutation.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deepCopy(T value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = BinaryColumnFrame.encode(codec, value);
+        T copy = BinaryColumnFrame.decode(codec, bytes);
+        if (copy instanceof List<?> list) {
+            return (T) new EncodedList<>(list, bytes);
+        }
+        if (copy instanceof Map<?, ?> map) {
+            return (T) new EncodedMap<>(map, bytes);
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    public Serializable disassemble(T value) {
+        return value == null ? null : BinaryColumnFrame.encode(codec, value);
+    }
+
+    @Override
+    public T assemble(Serializable cached, Object owner) {
+        return cached == null ? null : BinaryColumnFrame.decode(codec, (byte[]) cached);
+    }
+
+    @Override
+    public T replace(T detached, T managed, Object owner) {
+        return detached == null ? null : BinaryColumnFrame.decode(codec, BinaryColumnFrame.encode(codec, detached));
+    }
+
+    private byte[] encoded(T value) {
+        if (value instanceof Encoded snapshot) {
+            return snapshot.bytes();
+        }
+        return BinaryColumnFrame.encode(codec, value);
+    }
+
+    private interface Encoded {
+        byte[] bytes();
+    }
+
+    private static final class EncodedList<E> extends ArrayList<E> implements Encoded {
+        private final byte[] bytes;
+
+        EncodedList(List<E> elements, byte[] bytes) {
+            super(elements);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public byte[] bytes() {
+            return bytes;
+        }
+    }
+
+    private static final class EncodedMap<K, V> extends HashMap<K, V> implements Encoded {
+        private final byte[] bytes;
+
+        EncodedMap(Map<K, V> entries, byte[] bytes) {
+            super(entries);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public byte[] bytes() {
+            return bytes;
+        }
+    }
+}
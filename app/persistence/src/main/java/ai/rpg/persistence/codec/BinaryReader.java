@@ -0,0 +1,113 @@
+package ai.rpg.persistence.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the encodings produced by {@link BinaryWriter}
+ */
+public final class BinaryReader {
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+
+    BinaryReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++];
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    public int readSignedVarInt() {
+        int zigzag = readVarInt();
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    public long readSignedVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalStateException("Malformed varlong");
+    }
+
+    public double readDouble() {
+        require(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buffer[position++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public String readString() {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public Object readValue() {
+        int tag = readByte();
+        return switch (tag) {
+            case BinaryWriter.NULL -> null;
+            case BinaryWriter.STRING -> readString();
+            case BinaryWriter.INT -> readSignedVarInt();
+            case BinaryWriter.LONG -> readSignedVarLong();
+            case BinaryWriter.DOUBLE -> readDouble();
+            case BinaryWriter.BOOLEAN -> readByte() != 0;
+            case BinaryWriter.LIST -> {
+                int count = readVarInt();
+                List<Object> list = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    list.add(readValue());
+                }
+                yield list;
+            }
+            case BinaryWriter.MAP -> readMap();
+            default -> throw new IllegalStateException("Unknown value tag " + tag);
+        };
+    }
+
+    public Map<String, Object> readMap() {
+        int count = readVarInt();
+        Map<String, Object> map = new HashMap<>(Math.max(4, (int) (count / 0.75f) + 1));
+        for (int i = 0; i < count; i++) {
+            map.put(readString(), readValue());
+        }
+        return map;
+    }
+
+    private void require(int bytes) {
+        if (position + bytes > limit) {
+            throw new IllegalStateException("Truncated binary column payload");
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ai.rpg.persistence.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Growable byte buffer with the primitive encodings shared by {@link ColumnCodec}s.
+ *
+ * Lengths and counts are unsigned varints, integers are zig-zag varints, and map
+ * keys are written in sorted order so equal values always encode to equal bytes.
+ */
+public final class BinaryWriter {
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte INT = 2;
+    static final byte LONG = 3;
+    static final byte DOUBLE = 4;
+    static final byte BOOLEAN = 5;
+    static final byte LIST = 6;
+    static final byte MAP = 7;
+
+    private byte[] buffer;
+    private int size;
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeSignedVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        ensureCapacity(10);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[size++] = (byte) zigzag;
+    }
+
+    public void writeDouble(double value) {
+        long bits = Double.doubleToLongBits(value);
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (bits >>> shift);
+        }
+    }
+
+    /**
+     * Length-prefixed UTF-8; a length of 0 encodes null, otherwise length + 1
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(utf8.length + 1);
+        ensureCapacity(utf8.length);
+        System.arraycopy(utf8, 0, buffer, size, utf8.length);
+        size += utf8.length;
+    }
+
+    /**
+     * Type-tagged value. Numbers keep their int/long/double kind; values of other
+     * types are written as their {@code toString()}.
+     */
+    public void writeValue(Object value) {
+        if (value == null) {
+            writeByte(NULL);
+        } else if (value instanceof String s) {
+            writeByte(STRING);
+            writeString(s);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeByte(INT);
+            writeSignedVarInt(((Number) value).intValue());
+        } else if (value instanceof Long l) {
+            writeByte(LONG);
+            writeSignedVarLong(l);
+        } else if (value instanceof Double || value instanceof Float) {
+            writeByte(DOUBLE);
+            writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean b) {
+            writeByte(BOOLEAN);
+            writeByte(b ? 1 : 0);
+        } else if (value instanceof Collection<?> list) {
+            writeByte(LIST);
+            writeVarInt(list.size());
+            for (Object element : list) {
+                writeValue(element);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            writeByte(MAP);
+            writeMap(map);
+        } else {
+            writeByte(STRING);
+            writeString(value.toString());
+        }
+    }
+
+    /**
+     * Count followed by key/value pairs in key order, with tagged values
+     */
+    public void writeMap(Map<?, ?> map) {
+        writeVarInt(map.size());
+        for (Map.Entry<?, ?> entry : sortedEntries(map)) {
+            writeString(String.valueOf(entry.getKey()));
+            writeValue(entry.getValue());
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[size];
+        System.arraycopy(buffer, 0, bytes, 0, size);
+        return bytes;
+    }
+
+    void putInt(int index, int value) {
+        buffer[index] = (byte) (value >>> 24);
+        buffer[index + 1] = (byte) (value >>> 16);
+        buffer[index + 2] = (byte) (value >>> 8);
+        buffer[index + 3] = (byte) value;
+    }
+
+    private static Iterable<? extends Map.Entry<?, ?>> sortedEntries(Map<?, ?> map) {
+        if (map instanceof SortedMap<?, ?> || map.size() < 2) {
+            return map.entrySet();
+        }
+        List<Map.Entry<?, ?>> entries = new ArrayList<>(map.entrySet());
+        entries.sort((a, b) -> String.valueOf(a.getKey()).compareTo(String.valueOf(b.getKey())));
+        return entries;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            byte[] grown = new byte[Math.max(buffer.length * 2, size + extra)];
+            System.arraycopy(buffer, 0, grown, 0, size);
+            buffer = grown;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ai.rpg.persistence.codec;
+
+import ai.rpg.core.domain.EquipmentItemData;
+import ai.rpg.core.domain.InventoryItemData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Version 1 layouts for the collection columns of {@code CharacterStateEmbeddable}
+ */
+public final class CharacterCodecs {
+
+    private CharacterCodecs() {}
+
+    public static final ColumnCodec<Map<String, Integer>> ATTRIBUTES = new ColumnCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(BinaryWriter out, Map<String, Integer> value) {
+            out.writeMap(value);
+        }
+
+        @Override
+        public Map<String, Integer> read(BinaryReader in, int version) {
+            return integerMap(in);
+        }
+    };
+
+    public static final ColumnCodec<List<EquipmentItemData>> EQUIPMENT = new ColumnCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(BinaryWriter out, List<EquipmentItemData> value) {
+            out.writeVarInt(value.size());
+            for (EquipmentItemData item : value) {
+                out.writeString(item.id());
+                out.writeString(item.name());
+                out.writeString(item.type());
+                out.writeString(item.slot());
+                writeNullableMap(out, item.stats());
+                writeNullableMap(out, item.metadata());
+            }
+        }
+
+        @Override
+        public List<EquipmentItemData> read(BinaryReader in, int version) {
+            int count = in.readVarInt();
+            List<EquipmentItemData> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(new EquipmentItemData(
+                    in.readString(),
+                    in.readString(),
+                    in.readString(),
+                    in.readString(),
+                    in.readByte() == 0 ? null : integerMap(in),
+                    in.readByte() == 0 ? null : in.readMap()
+                ));
+            }
+            return items;
+        }
+    };
+
+    public static final ColumnCodec<List<InventoryItemData>> INVENTORY = new ColumnCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(BinaryWriter out, List<InventoryItemData> value) {
+            out.writeVarInt(value.size());
+            for (InventoryItemData item : value) {
+                out.writeString(item.id());
+                out.writeString(item.name());
+                out.writeString(item.type());
+                out.writeSignedVarInt(item.quantity());
+                writeNullableMap(out, item.metadata());
+            }
+        }
+
+        @Override
+        public List<InventoryItemData> read(BinaryReader in, int version) {
+            int count = in.readVarInt();
+            List<InventoryItemData> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(new InventoryItemData(
+                    in.readString(),
+                    in.readString(),
+                    in.readString(),
+                    in.readSignedVarInt(),
+                    in.readByte() == 0 ? null : in.readMap()
+                ));
+            }
+            return items;
+        }
+    };
+
+    public static final ColumnCodec<Map<String, Object>> METADATA = new ColumnCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(BinaryWriter out, Map<String, Object> value) {
+            out.writeMap(value);
+        }
+
+        @Override
+        public Map<String, Object> read(BinaryReader in, int version) {
+            return in.readMap();
+        }
+    };
+
+    // Presence byte, then the map; item records allow null maps
+    private static void writeNullableMap(BinaryWriter out, Map<String, ?> map) {
+        out.writeByte(map == null ? 0 : 1);
+        if (map != null) {
+            out.writeMap(map);
+        }
+    }
+
+    private static Map<String, Integer> integerMap(BinaryReader in) {
+        Map<String, Object> raw = in.readMap();
+        Map<String, Integer> map = new HashMap<>(Math.max(4, (int) (raw.size() / 0.75f) + 1));
+        raw.forEach((key, value) -> map.put(key, value == null ? null : ((Number) value).intValue()));
+        return map;
+    }
+}
@@ -0,0 +1,40 @@
+package ai.rpg.persistence.codec;
+
+import ai.rpg.core.domain.EquipmentItemData;
+import ai.rpg.core.domain.InventoryItemData;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link BinaryColumnType}s for {@code CharacterStateEmbeddable}, for use with {@code @Type}
+ */
+public final class CharacterColumnTypes {
+
+    private CharacterColumnTypes() {}
+
+    public static class Attributes extends BinaryColumnType<Map<String, Integer>> {
+        public Attributes() {
+            super(CharacterCodecs.ATTRIBUTES, Map.class, new TypeReference<>() {});
+        }
+    }
+
+    public static class Equipment extends BinaryColumnType<List<EquipmentItemData>> {
+        public Equipment() {
+            super(CharacterCodecs.EQUIPMENT, List.class, new TypeReference<>() {});
+        }
+    }
+
+    public static class Inventory extends BinaryColumnType<List<InventoryItemData>> {
+        public Inventory() {
+            super(CharacterCodecs.INVENTORY, List.class, new TypeReference<>() {});
+        }
+    }
+
+    public static class Metadata extends BinaryColumnType<Map<String, Object>> {
+        public Metadata() {
+            super(CharacterCodecs.METADATA, Map.class, new TypeReference<>() {});
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ai.rpg.persistence.codec;
+
+/**
+ * Binary layout of one column value.
+ *
+ * Payloads are framed by {@link BinaryColumnFrame} with the codec's {@link #version()},
+ * so a codec can change its layout by bumping the version and keeping a read path
+ * for older ones.
+ */
+public interface ColumnCodec<T> {
+
+    /**
+     * Layout version written with every payload, 1-255
+     */
+    int version();
+
+    void write(BinaryWriter out, T value);
+
+    /**
+     * Read a payload written by this codec at {@code version} or earlier
+     */
+    T read(BinaryReader in, int version);
+}
@@ -0,0 +1,57 @@
+package ai.rpg.persistence.codec;
+
+import ai.rpg.core.domain.LocationStats;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Version 1 layouts for the collection columns of {@code LocationStateEmbeddable}
+ */
+public final class LocationCodecs {
+
+    private LocationCodecs() {}
+
+    /**
+     * Per-location summaries in location order. Timestamps are epoch milliseconds, the
+     * last visit as a delta from the first, so a summary is usually under 20 bytes.
+     */
+    public static final ColumnCodec<List<LocationStats>> INDEX = new ColumnCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(BinaryWriter out, List<LocationStats> value) {
+            List<LocationStats> sorted = new ArrayList<>(value);
+            sorted.sort(Comparator.comparing(LocationStats::location));
+            out.writeVarInt(sorted.size());
+            for (LocationStats stats : sorted) {
+                long first = stats.firstVisit().toEpochMilli();
+                out.writeString(stats.location());
+                out.writeVarInt(stats.visits());
+                out.writeSignedVarLong(first);
+                out.writeSignedVarLong(stats.lastVisit().toEpochMilli() - first);
+                out.writeVarInt(stats.totalMinutes());
+            }
+        }
+
+        @Override
+        public List<LocationStats> read(BinaryReader in, int version) {
+            int count = in.readVarInt();
+            List<LocationStats> index = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String location = in.readString();
+                int visits = in.readVarInt();
+                long first = in.readSignedVarLong();
+                long last = first + in.readSignedVarLong();
+                index.add(new LocationStats(location, visits, Instant.ofEpochMilli(first), Instant.ofEpochMilli(last),
+                    in.readVarInt()));
+            }
+            return index;
+        }
+    };
+}
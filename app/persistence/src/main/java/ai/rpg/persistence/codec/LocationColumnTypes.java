@@ -0,0 +1,20 @@
+package ai.rpg.persistence.codec;
+
+import ai.rpg.core.domain.LocationStats;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.List;
+
+/**
+ * {@link BinaryColumnType}s for {@code LocationStateEmbeddable}, for use with {@code @Type}
+ */
+public final class LocationColumnTypes {
+
+    private LocationColumnTypes() {}
+
+    public static class Index extends BinaryColumnType<List<LocationStats>> {
+        public Index() {
+            super(LocationCodecs.INDEX, List.class, new TypeReference<>() {});
+        }
+    }
+}
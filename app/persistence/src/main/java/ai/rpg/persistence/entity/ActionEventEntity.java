@@ -1,12 +1,14 @@
 package ai.rpg.persistence.entity;
 
 import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.OutcomeFlags;
 import jakarta.persistence.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,16 +23,28 @@ import java.util.Map;
  * - Made all fields mutable for Hibernate
  */
 @Entity
+// Keep in step with db/migration (V4, V5)
 @Table(name = "action_events",
        indexes = {
            @Index(name = "idx_action_timestamp", columnList = "timestamp"),
-           @Index(name = "idx_action_type", columnList = "type"),
-           @Index(name = "idx_action_location", columnList = "location")
+           @Index(name = "idx_action_type_timestamp", columnList = "type, timestamp"),
+           @Index(name = "idx_action_location_timestamp", columnList = "location, timestamp"),
+           @Index(name = "idx_action_player_timestamp", columnList = "player_id, timestamp"),
+           @Index(name = "idx_action_player_type", columnList = "player_id, type"),
+           @Index(name = "idx_action_outcome_timestamp", columnList = "outcome_flags, timestamp"),
+           @Index(name = "idx_action_context_timestamp", columnList = "player_context_id, timestamp, id")
        })
 public class ActionEventEntity {
     
+    // Oldest first; the actions collection itself is fetched newest first
+    public static final Comparator<ActionEventEntity> CHRONOLOGICAL = Comparator.comparing(
+        ActionEventEntity::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder()));
+    
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts;
+    // allocationSize must match the sequence's INCREMENT BY
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "action_event_id")
+    @SequenceGenerator(name = "action_event_id", sequenceName = "action_events_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "action_id", nullable = false, unique = true)
@@ -66,6 +80,10 @@ public class ActionEventEntity {
     @Column(name = "player_id", nullable = false, length = 255)
     private String playerId;
     
+    // OutcomeFlags bitmask, classified on write; null only on rows awaiting the backfill
+    @Column(name = "outcome_flags")
+    private Integer outcomeFlags;
+    
     // Relationship to PlayerContext
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "player_context_id", nullable = false)
@@ -90,6 +108,7 @@ public class ActionEventEntity {
         this.location = location;
         this.outcome = outcome;
         this.consequences = consequences != null ? new ArrayList<>(consequences) : new ArrayList<>();
+        classifyOutcome();
     }
     
     // ✅ REQUIRED: All getters and setters for JPA
@@ -103,7 +122,10 @@ public class ActionEventEntity {
     public void setTimestamp(Instant timestamp) { this.timestamp = timestamp; }
     
     public ActionType getType() { return type; }
-    public void setType(ActionType type) { this.type = type; }
+    public void setType(ActionType type) { 
+        this.type = type;
+        classifyOutcome();
+    }
     
     public String getCommand() { return command; }
     public void setCommand(String command) { this.command = command; }
@@ -120,6 +142,7 @@ public class ActionEventEntity {
     public List<String> getConsequences() { return consequences; }
     public void setConsequences(List<String> consequences) { 
         this.consequences = consequences != null ? new ArrayList<>(consequences) : new ArrayList<>();
+        classifyOutcome();
     }
     
     public Map<String, Object> getMetadata() { return metadata; }
@@ -130,6 +153,11 @@ public class ActionEventEntity {
     public String getPlayerId() { return playerId; }
     public void setPlayerId(String playerId) { this.playerId = playerId; }
     
+    public int getOutcomeFlags() {
+        return outcomeFlags != null ? outcomeFlags : OutcomeFlags.classify(type, consequences);
+    }
+    public void setOutcomeFlags(int outcomeFlags) { this.outcomeFlags = outcomeFlags; }
+    
     public PlayerContextEntity getPlayerContext() { return playerContext; }
     public void setPlayerContext(PlayerContextEntity playerContext) { this.playerContext = playerContext; }
     
@@ -139,6 +167,7 @@ public class ActionEventEntity {
             this.consequences = new ArrayList<>();
         }
         this.consequences.add(consequence);
+        classifyOutcome();
     }
     
     public void addMetadata(String key, Object value) {
@@ -149,12 +178,18 @@ public class ActionEventEntity {
     }
     
     public boolean isSuccessful() {
-        return consequences != null && consequences.stream()
-            .anyMatch(c -> c.contains("success") || c.contains("victory"));
+        return OutcomeFlags.hasAny(getOutcomeFlags(), OutcomeFlags.SUCCESSFUL);
     }
     
     public boolean isCombat() {
-        return type == ActionType.ATTACK || 
-               (consequences != null && consequences.stream().anyMatch(c -> c.contains("combat")));
+        return OutcomeFlags.hasAny(getOutcomeFlags(), OutcomeFlags.COMBAT);
+    }
+    
+    // Re-run on every write as well: the consequences list is mutable in place.
+    // Private so the constructor and setters cannot dispatch to an override.
+    @PrePersist
+    @PreUpdate
+    private final void classifyOutcome() {
+        this.outcomeFlags = OutcomeFlags.classify(type, consequences);
     }
 }
@@ -0,0 +1,62 @@
+package ai.rpg.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Number of actions taken at one location in one hourly bucket
+ */
+@Entity
+// Keep in step with db/migration (V7)
+@Table(name = "action_rollup_location_hourly")
+public class ActionLocationRollupEntity {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "action_count", nullable = false)
+    private long actionCount;
+
+    public ActionLocationRollupEntity() {}
+
+    public ActionLocationRollupEntity(Instant bucketStart, String location, long actionCount) {
+        this.id = new Key(bucketStart, location);
+        this.actionCount = actionCount;
+    }
+
+    public Key getId() { return id; }
+    public long getActionCount() { return actionCount; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+        @Column(name = "bucket_start", nullable = false)
+        private Instant bucketStart;
+
+        @Column(name = "location", nullable = false, length = 255)
+        private String location;
+
+        public Key() {}
+
+        public Key(Instant bucketStart, String location) {
+            this.bucketStart = bucketStart;
+            this.location = location;
+        }
+
+        public Instant getBucketStart() { return bucketStart; }
+        public String getLocation() { return location; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(bucketStart, key.bucketStart)
+                && Objects.equals(location, key.location);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketStart, location);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ai.rpg.persistence.entity;
+
+import ai.rpg.core.domain.ActionType;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Number of actions of one type written in one hourly bucket
+ */
+@Entity
+// Keep in step with db/migration (V7)
+@Table(name = "action_rollup_type_hourly")
+public class ActionTypeRollupEntity {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "action_count", nullable = false)
+    private long actionCount;
+
+    public ActionTypeRollupEntity() {}
+
+    public ActionTypeRollupEntity(Instant bucketStart, ActionType type, long actionCount) {
+        this.id = new Key(bucketStart, type);
+        this.actionCount = actionCount;
+    }
+
+    public Key getId() { return id; }
+    public long getActionCount() { return actionCount; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+        @Column(name = "bucket_start", nullable = false)
+        private Instant bucketStart;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "type", nullable = false)
+        private ActionType type;
+
+        public Key() {}
+
+        public Key(Instant bucketStart, ActionType type) {
+            this.bucketStart = bucketStart;
+            this.type = type;
+        }
+
+        public Instant getBucketStart() { return bucketStart; }
+        public ActionType getType() { return type; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(bucketStart, key.bucketStart) && type == key.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketStart, type);
+        }
+    }
+}
@@ -2,8 +2,7 @@ package ai.rpg.persistence.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.Type;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -12,6 +11,8 @@ import java.util.Map;
 
 import ai.rpg.core.domain.EquipmentItemData;
 import ai.rpg.core.domain.InventoryItemData;
+import ai.rpg.persistence.codec.BinaryColumnType;
+import ai.rpg.persistence.codec.CharacterColumnTypes;
 
 @Embeddable
 public class CharacterStateEmbeddable {
@@ -28,20 +29,21 @@ public class CharacterStateEmbeddable {
     @Column(name = "reputation")
     private int reputation = 0;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "attributes", columnDefinition = "CLOB")
+    // Collection columns use the versioned binary codec, dirty-checked by their encoded bytes
+    @Type(CharacterColumnTypes.Attributes.class)
+    @Column(name = "attributes", length = BinaryColumnType.COLUMN_LENGTH)
     private Map<String, Integer> attributes = new HashMap<>();
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "equipment", columnDefinition = "CLOB")
+    @Type(CharacterColumnTypes.Equipment.class)
+    @Column(name = "equipment", length = BinaryColumnType.COLUMN_LENGTH)
     private List<EquipmentItemData> equipment = new ArrayList<>();
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "inventory", columnDefinition = "CLOB")
+    @Type(CharacterColumnTypes.Inventory.class)
+    @Column(name = "inventory", length = BinaryColumnType.COLUMN_LENGTH)
     private List<InventoryItemData> inventory = new ArrayList<>();
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "character_metadata", columnDefinition = "CLOB")
+    @Type(CharacterColumnTypes.Metadata.class)
+    @Column(name = "character_metadata", length = BinaryColumnType.COLUMN_LENGTH)
     private Map<String, Object> metadata = new HashMap<>();
 
     public CharacterStateEmbeddable() {
@@ -3,12 +3,16 @@ package ai.rpg.persistence.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.Type;
 import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import ai.rpg.core.domain.LocationStats;
 import ai.rpg.core.domain.LocationVisitData;
+import ai.rpg.persistence.codec.BinaryColumnType;
+import ai.rpg.persistence.codec.LocationColumnTypes;
 
 @Embeddable
 public class LocationStateEmbeddable {
@@ -28,10 +32,16 @@ public class LocationStateEmbeddable {
     @Column(name = "time_in_location_minutes")
     private int timeInLocationMinutes = 0;
     
+    // Recent visits only; older ones are summarized in location_index
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "location_history", columnDefinition = "CLOB")
     private List<LocationVisitData> locationHistory = new ArrayList<>();
     
+    // Null on rows written before the index existed
+    @Type(LocationColumnTypes.Index.class)
+    @Column(name = "location_index", length = BinaryColumnType.COLUMN_LENGTH)
+    private List<LocationStats> locationIndex = new ArrayList<>();
+    
     public LocationStateEmbeddable() {
         this.locationHistory = new ArrayList<>();
     }
@@ -55,4 +65,9 @@ public class LocationStateEmbeddable {
     public void setLocationHistory(List<LocationVisitData> locationHistory) { 
         this.locationHistory = locationHistory != null ? locationHistory : new ArrayList<>();
     }
-} 
\ No newline at end of file
+    
+    public List<LocationStats> getLocationIndex() { return locationIndex; }
+    public void setLocationIndex(List<LocationStats> locationIndex) {
+        this.locationIndex = locationIndex != null ? locationIndex : new ArrayList<>();
+    }
+}
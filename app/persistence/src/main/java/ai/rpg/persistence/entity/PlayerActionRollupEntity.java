@@ -0,0 +1,62 @@
+package ai.rpg.persistence.entity;
+
+import ai.rpg.core.domain.ActionType;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Number of actions of one type a player has taken, across all sessions
+ */
+@Entity
+// Keep in step with db/migration (V7)
+@Table(name = "action_rollup_player_type")
+public class PlayerActionRollupEntity {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "action_count", nullable = false)
+    private long actionCount;
+
+    public PlayerActionRollupEntity() {}
+
+    public PlayerActionRollupEntity(String playerId, ActionType type, long actionCount) {
+        this.id = new Key(playerId, type);
+        this.actionCount = actionCount;
+    }
+
+    public Key getId() { return id; }
+    public long getActionCount() { return actionCount; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+        @Column(name = "player_id", nullable = false, length = 255)
+        private String playerId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "type", nullable = false)
+        private ActionType type;
+
+        public Key() {}
+
+        public Key(String playerId, ActionType type) {
+            this.playerId = playerId;
+            this.type = type;
+        }
+
+        public String getPlayerId() { return playerId; }
+        public ActionType getType() { return type; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(playerId, key.playerId) && type == key.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(playerId, type);
+        }
+    }
+}
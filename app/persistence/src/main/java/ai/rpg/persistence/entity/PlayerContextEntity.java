@@ -1,6 +1,7 @@
 package ai.rpg.persistence.entity;
 
 import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.BoundedHistory;
 import ai.rpg.core.domain.NPCRelationshipData;
 import jakarta.persistence.*;
 import org.hibernate.annotations.JdbcTypeCode;
@@ -22,16 +23,22 @@ import java.util.Map;
  * - Made all fields mutable for Hibernate
  */
 @Entity
+// Keep in step with db/migration (V5__query_indexes.sql); the migration adds INCLUDE columns
 @Table(name = "player_contexts", 
        indexes = {
-           @Index(name = "idx_player_id", columnList = "playerId"),
-           @Index(name = "idx_session_id", columnList = "sessionId"),
-           @Index(name = "idx_last_update", columnList = "lastUpdate")
+           @Index(name = "idx_player_last_update", columnList = "player_id, last_update"),
+           @Index(name = "idx_last_update", columnList = "last_update"),
+           @Index(name = "idx_active_last_update", columnList = "is_active, last_update"),
+           @Index(name = "idx_active_session", columnList = "is_active, session_id"),
+           @Index(name = "idx_current_location", columnList = "current_location")
        })
 public class PlayerContextEntity {
     
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts;
+    // allocationSize must match the sequence's INCREMENT BY
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_context_id")
+    @SequenceGenerator(name = "player_context_id", sequenceName = "player_contexts_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "player_id", nullable = false, length = 255)
@@ -46,7 +53,9 @@ public class PlayerContextEntity {
     @Column(name = "last_update", nullable = false)
     private Instant lastUpdate;
 
-    @Column(name = "is_active")
+    // Only the bulk deactivate queries change it; entity updates, such as session cache
+    // flushes, never write it back
+    @Column(name = "is_active", updatable = false)
     private Boolean isActive = true; 
     
     // Character state embedded
@@ -141,13 +150,14 @@ public class PlayerContextEntity {
         this.lastUpdate = Instant.now();
     }
     
-    // Limit actions to prevent memory issues (matching Go implementation)
+    // Limit actions to prevent memory issues (matching Go implementation).
+    // Same window as PlayerContext: the newest maxActions, oldest first.
     public void trimActions(int maxActions) {
         if (this.actions != null && this.actions.size() > maxActions) {
-            // Keep only the most recent actions
-            this.actions = new ArrayList<>(
-                this.actions.subList(this.actions.size() - maxActions, this.actions.size())
-            );
+            var chronological = this.actions.stream()
+                .sorted(ActionEventEntity.CHRONOLOGICAL)
+                .toList();
+            this.actions = new ArrayList<>(BoundedHistory.of(chronological, maxActions));
         }
     }
 }
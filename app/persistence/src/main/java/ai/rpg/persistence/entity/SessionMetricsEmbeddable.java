@@ -1,72 +1,99 @@
 package ai.rpg.persistence.entity;
 
+import ai.rpg.core.domain.ActionCategory;
+import ai.rpg.core.domain.ActionCounts;
 import ai.rpg.core.domain.ActionType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persisted session metrics. Per-type counts are stored in action_counts; the
+ * total and per-category columns are derived from them through
+ * {@link ActionCategory} and kept for queries and covering indexes.
+ */
 @Embeddable
 public class SessionMetricsEmbeddable {
-    
+
     @Column(name = "total_actions")
     private int totalActions = 0;
-    
+
     @Column(name = "combat_actions")
     private int combatActions = 0;
-    
+
     @Column(name = "social_actions")
     private int socialActions = 0;
-    
+
     @Column(name = "explore_actions")
     private int exploreActions = 0;
-    
+
+    // Non-zero counts only; null or empty on rows written before per-type counts existed
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "action_counts", columnDefinition = "CLOB")
+    private Map<ActionType, Integer> actionCounts = new HashMap<>();
+
     @Column(name = "session_time_minutes")
     private double sessionTimeMinutes = 0.0;
-    
+
     @Column(name = "locations_visited")
     private int locationsVisited = 0;
-    
+
     @Column(name = "npcs_interacted")
     private int npcsInteracted = 0;
-    
+
     public SessionMetricsEmbeddable() {}
-    
+
     public int getTotalActions() { return totalActions; }
-    public void setTotalActions(int totalActions) { this.totalActions = totalActions; }
-    
     public int getCombatActions() { return combatActions; }
-    public void setCombatActions(int combatActions) { this.combatActions = combatActions; }
-    
     public int getSocialActions() { return socialActions; }
-    public void setSocialActions(int socialActions) { this.socialActions = socialActions; }
-    
     public int getExploreActions() { return exploreActions; }
-    public void setExploreActions(int exploreActions) { this.exploreActions = exploreActions; }
-    
+
+    /**
+     * Per-type counts. A row that only has the legacy category columns is read with
+     * each category attributed to one representative type (ATTACK, TALK, MOVE, and
+     * UNKNOWN for the rest), which keeps the total and the category figures.
+     */
+    public ActionCounts getActionCounts() {
+        if ((actionCounts == null || actionCounts.isEmpty()) && totalActions > 0) {
+            Map<ActionType, Integer> legacy = new EnumMap<>(ActionType.class);
+            legacy.put(ActionType.ATTACK, combatActions);
+            legacy.put(ActionType.TALK, socialActions);
+            legacy.put(ActionType.MOVE, exploreActions);
+            legacy.put(ActionType.UNKNOWN, Math.max(0, totalActions - combatActions - socialActions - exploreActions));
+            return ActionCounts.of(legacy);
+        }
+        return actionCounts != null ? ActionCounts.of(actionCounts) : ActionCounts.empty();
+    }
+
+    public void setActionCounts(ActionCounts counts) {
+        Map<ActionType, Integer> stored = new HashMap<>();
+        counts.forEach((type, count) -> {
+            if (count > 0) {
+                stored.put(type, count);
+            }
+        });
+        this.actionCounts = stored;
+        this.totalActions = counts.total();
+        this.combatActions = counts.count(ActionCategory.COMBAT);
+        this.socialActions = counts.count(ActionCategory.SOCIAL);
+        this.exploreActions = counts.count(ActionCategory.EXPLORE);
+    }
+
     public double getSessionTimeMinutes() { return sessionTimeMinutes; }
     public void setSessionTimeMinutes(double sessionTimeMinutes) { this.sessionTimeMinutes = sessionTimeMinutes; }
-    
+
     public int getLocationsVisited() { return locationsVisited; }
     public void setLocationsVisited(int locationsVisited) { this.locationsVisited = locationsVisited; }
-    
+
     public int getNpcsInteracted() { return npcsInteracted; }
     public void setNpcsInteracted(int npcsInteracted) { this.npcsInteracted = npcsInteracted; }
-    
+
     public void incrementAction(ActionType actionType) {
-        this.totalActions++;
-        switch (actionType) {
-            case ATTACK:
-                this.combatActions++;
-                break;
-            case TALK:
-                this.socialActions++;
-                break;
-            case EXAMINE:
-            case MOVE:
-                this.exploreActions++;
-                break;
-            default:
-                // No specific counter for other actions
-                break;
-        }
+        setActionCounts(getActionCounts().increment(actionType));
     }
-} 
\ No newline at end of file
+}
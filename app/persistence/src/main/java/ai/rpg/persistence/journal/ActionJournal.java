@@ -0,0 +1,448 @@
+package ai.rpg.persistence.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented, memory-mapped append-only log of action events.
+ *
+ * Records are framed as {@code [int length][int crc32][payload]} inside fixed-size
+ * segment files named after their starting position, so a position identifies both
+ * the segment and the offset within it. The length is written last and acts as the
+ * commit marker; a frame that does not fit starts the next segment.
+ *
+ * A single syncer thread forces the mapped segment whenever appends are pending,
+ * so every append that arrives while an fsync is in progress joins the next group.
+ * {@link #sync(long)} blocks until a position is durable.
+ *
+ * The drain side reads durable records from the checkpoint forward and advances the
+ * checkpoint once they are stored elsewhere; fully drained segments are deleted. On
+ * {@link #open} the log is scanned from the checkpoint, a torn tail is discarded, and
+ * everything between the checkpoint and the recovered end is left for the drainer to
+ * replay. Reading and checkpointing assume a single drainer thread.
+ */
+public final class ActionJournal implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ActionJournal.class);
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int ZERO_CHUNK_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long recoveredRecords;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition syncRequested = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+    private final Thread syncer;
+
+    // Guarded by lock
+    private MappedByteBuffer current;
+    private long currentBase;
+    private long writePosition;
+    private boolean closed;
+    private IOException syncFailure;
+
+    private volatile long durablePosition;
+    private volatile long checkpointPosition;
+
+    // Drainer-thread only
+    private long readBase = -1;
+    private ByteBuffer readSegment;
+
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    private ActionJournal(Path directory, int segmentBytes, long checkpoint, long end, long recoveredRecords)
+            throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.recoveredRecords = recoveredRecords;
+        this.checkpointPosition = checkpoint;
+        this.currentBase = segmentBase(end);
+        this.current = map(currentBase, FileChannel.MapMode.READ_WRITE);
+        this.writePosition = end;
+        this.durablePosition = end;
+        this.syncer = Thread.ofPlatform().name("action-journal-syncer").daemon().start(this::syncLoop);
+    }
+
+    /**
+     * Open or create the journal in {@code directory}, recovering from the last checkpoint
+     */
+    public static ActionJournal open(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes <= FRAME_HEADER_BYTES) {
+            throw new IllegalArgumentException("Journal segment size too small: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        long checkpoint = readCheckpoint(directory);
+        TreeSet<Long> bases = listSegments(directory, segmentBytes);
+        if (!bases.isEmpty() && checkpoint < bases.first()) {
+            checkpoint = bases.first();
+        }
+
+        // Scan forward from the checkpoint to the last intact frame
+        long position = checkpoint;
+        long recovered = 0;
+        long mappedBase = -1;
+        ByteBuffer segment = null;
+        while (true) {
+            long base = position - position % segmentBytes;
+            if (!bases.contains(base)) {
+                break;
+            }
+            if (base != mappedBase) {
+                segment = mapSegment(directory, base, segmentBytes, FileChannel.MapMode.READ_ONLY);
+                mappedBase = base;
+            }
+            int offset = (int) (position - base);
+            int length = offset + FRAME_HEADER_BYTES <= segmentBytes ? segment.getInt(offset) : 0;
+            if (length == 0) {
+                if (!bases.contains(base + segmentBytes)) {
+                    break;
+                }
+                position = base + segmentBytes;
+                continue;
+            }
+            if (length < 0 || offset + FRAME_HEADER_BYTES + length > segmentBytes
+                    || !crcMatches(segment, offset, length)) {
+                log.warn("Discarding torn action journal tail at position {}", position);
+                break;
+            }
+            position += FRAME_HEADER_BYTES + length;
+            recovered++;
+        }
+
+        truncateAfter(directory, bases, position, segmentBytes);
+        if (recovered > 0) {
+            log.info("Action journal recovered {} undrained records from position {}", recovered, checkpoint);
+        }
+        return new ActionJournal(directory, segmentBytes, checkpoint, position, recovered);
+    }
+
+    /**
+     * Append a record, returning the position just past it. The record is not yet durable.
+     */
+    public long append(JournalRecord record) throws IOException {
+        byte[] payload = JournalRecordCodec.encode(record);
+        int frameBytes = FRAME_HEADER_BYTES + payload.length;
+        if (frameBytes > segmentBytes) {
+            throw new IllegalArgumentException("Journal record of " + frameBytes + " bytes exceeds segment size");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            ensureOpen();
+            long offset = writePosition - currentBase;
+            if (offset + frameBytes > segmentBytes) {
+                roll();
+                offset = 0;
+            }
+            int at = (int) offset;
+            current.put(at + FRAME_HEADER_BYTES, payload);
+            current.putInt(at + 4, (int) crc.getValue());
+            current.putInt(at, payload.length);
+            writePosition = currentBase + offset + frameBytes;
+            appends.increment();
+            syncRequested.signal();
+            return writePosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until everything up to {@code position} has been forced to disk
+     */
+    public void sync(long position) throws IOException {
+        if (durablePosition >= position) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durablePosition < position) {
+                if (syncFailure != null) {
+                    throw new IOException("Action journal sync failed", syncFailure);
+                }
+                // Also after close: the syncer drains every pending append before it exits
+                durableAdvanced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for action journal sync");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Durable records from {@code from}, up to {@code maxRecords}
+     */
+    public Batch read(long from, int maxRecords) throws IOException {
+        long limit = durablePosition;
+        List<JournalRecord> records = new ArrayList<>(Math.min(maxRecords, 1024));
+        long position = from;
+        while (position < limit && records.size() < maxRecords) {
+            long base = segmentBase(position);
+            ByteBuffer segment = readSegment(base);
+            int offset = (int) (position - base);
+            int length = offset + FRAME_HEADER_BYTES <= segmentBytes ? segment.getInt(offset) : 0;
+            if (length == 0) {
+                // Unused tail of a segment; the next record starts the following one
+                position = base + segmentBytes;
+                continue;
+            }
+            if (!crcMatches(segment, offset, length)) {
+                throw new IOException("Corrupt action journal record at position " + position);
+            }
+            byte[] payload = new byte[length];
+            segment.get(offset + FRAME_HEADER_BYTES, payload);
+            records.add(JournalRecordCodec.decode(payload));
+            position += FRAME_HEADER_BYTES + length;
+        }
+        return new Batch(records, position);
+    }
+
+    /**
+     * Durable records read from the journal and the position to resume from
+     */
+    public record Batch(List<JournalRecord> records, long nextPosition) {}
+
+    /**
+     * Record that everything before {@code position} is stored downstream and delete drained segments
+     */
+    public void checkpoint(long position) throws IOException {
+        if (position <= checkpointPosition) {
+            return;
+        }
+        Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position));
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(CHECKPOINT_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpointPosition = position;
+
+        long activeBase;
+        lock.lock();
+        try {
+            activeBase = currentBase;
+        } finally {
+            lock.unlock();
+        }
+        for (long base : listSegments(directory, segmentBytes)) {
+            if (base + segmentBytes <= position && base < activeBase) {
+                Files.deleteIfExists(segmentPath(directory, base));
+                if (base == readBase) {
+                    readBase = -1;
+                    readSegment = null;
+                }
+            }
+        }
+    }
+
+    public long checkpointPosition() {
+        return checkpointPosition;
+    }
+
+    public long durablePosition() {
+        return durablePosition;
+    }
+
+    /**
+     * Point-in-time journal statistics; {@code undrainedBytes} is the drain lag
+     */
+    public record Stats(long appends, long syncs, long recoveredRecords, long undrainedBytes) {}
+
+    public Stats stats() {
+        return new Stats(appends.sum(), syncs.sum(), recoveredRecords, durablePosition - checkpointPosition);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            syncRequested.signalAll();
+            durableAdvanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        current.force();
+    }
+
+    private void syncLoop() {
+        while (true) {
+            MappedByteBuffer segment;
+            long target;
+            lock.lock();
+            try {
+                while (!closed && writePosition == durablePosition) {
+                    syncRequested.await();
+                }
+                if (writePosition == durablePosition) {
+                    return;
+                }
+                segment = current;
+                target = writePosition;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException failure = null;
+            try {
+                segment.force();
+                syncs.increment();
+            } catch (UncheckedIOException e) {
+                failure = e.getCause();
+            }
+
+            lock.lock();
+            try {
+                if (failure != null) {
+                    syncFailure = failure;
+                    closed = true;
+                    log.error("Action journal sync failed; journal closed", failure);
+                } else {
+                    durablePosition = target;
+                }
+                durableAdvanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (failure != null) {
+                return;
+            }
+        }
+    }
+
+    // Called with lock held. Everything in the old segment is forced before moving on,
+    // so the syncer only ever has to force the current segment.
+    private void roll() throws IOException {
+        current.force();
+        currentBase += segmentBytes;
+        current = map(currentBase, FileChannel.MapMode.READ_WRITE);
+        writePosition = currentBase;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Action journal is closed");
+        }
+    }
+
+    private long segmentBase(long position) {
+        return position - position % segmentBytes;
+    }
+
+    private ByteBuffer readSegment(long base) throws IOException {
+        if (base != readBase) {
+            readSegment = map(base, FileChannel.MapMode.READ_ONLY);
+            readBase = base;
+        }
+        return readSegment;
+    }
+
+    private MappedByteBuffer map(long base, FileChannel.MapMode mode) throws IOException {
+        return mapSegment(directory, base, segmentBytes, mode);
+    }
+
+    private static MappedByteBuffer mapSegment(Path directory, long base, int segmentBytes, FileChannel.MapMode mode)
+            throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+            ? new StandardOpenOption[] {StandardOpenOption.READ}
+            : new StandardOpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE};
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, base), options)) {
+            return channel.map(mode, 0, segmentBytes);
+        }
+    }
+
+    private static boolean crcMatches(ByteBuffer segment, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(segment.slice(offset + FRAME_HEADER_BYTES, length));
+        return (int) crc.getValue() == segment.getInt(offset + 4);
+    }
+
+    // Zero the remainder of the segment holding the recovered end and drop any later segments
+    private static void truncateAfter(Path directory, TreeSet<Long> bases, long end, int segmentBytes)
+            throws IOException {
+        long base = end - end % segmentBytes;
+        if (bases.contains(base)) {
+            MappedByteBuffer segment = mapSegment(directory, base, segmentBytes, FileChannel.MapMode.READ_WRITE);
+            byte[] zeros = new byte[ZERO_CHUNK_BYTES];
+            for (int offset = (int) (end - base); offset < segmentBytes; offset += ZERO_CHUNK_BYTES) {
+                segment.put(offset, zeros, 0, Math.min(ZERO_CHUNK_BYTES, segmentBytes - offset));
+            }
+            segment.force();
+        }
+        for (long later : bases.tailSet(base, false)) {
+            Files.deleteIfExists(segmentPath(directory, later));
+        }
+    }
+
+    private static long readCheckpoint(Path directory) throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(checkpoint)).getLong();
+    }
+
+    private static TreeSet<Long> listSegments(Path directory, int segmentBytes) throws IOException {
+        TreeSet<Long> bases = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(SEGMENT_SUFFIX)) {
+                    continue;
+                }
+                if (Files.size(file) != segmentBytes) {
+                    throw new IllegalStateException("Journal segment " + name + " does not match segment size "
+                        + segmentBytes + "; drain the journal before changing it");
+                }
+                bases.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        return bases;
+    }
+
+    private static Path segmentPath(Path directory, long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+}
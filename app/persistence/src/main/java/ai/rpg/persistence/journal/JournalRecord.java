@@ -0,0 +1,17 @@
+package ai.rpg.persistence.journal;
+
+import ai.rpg.core.domain.ActionEvent;
+
+/**
+ * One journaled action event together with the session it belongs to
+ */
+public record JournalRecord(String sessionId, ActionEvent event) {
+    public JournalRecord {
+        if (sessionId == null || sessionId.isBlank()) {
+            throw new IllegalArgumentException("Session ID cannot be null or blank");
+        }
+        if (event == null) {
+            throw new IllegalArgumentException("Action event cannot be null");
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ai.rpg.persistence.journal;
+
+import ai.rpg.core.domain.ActionEvent;
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.OutcomeFlags;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of {@link JournalRecord} payloads.
+ *
+ * Metadata values keep their type for strings, integral numbers, floating point
+ * numbers and booleans; anything else is journaled as its {@code toString()}.
+ */
+final class JournalRecordCodec {
+    static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    private JournalRecordCodec() {}
+
+    static byte[] encode(JournalRecord record) {
+        ActionEvent event = record.event();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, record.sessionId());
+            writeString(out, event.id());
+            out.writeLong(event.timestamp().getEpochSecond());
+            out.writeInt(event.timestamp().getNano());
+            writeString(out, event.type().name());
+            writeString(out, event.command());
+            writeString(out, event.target());
+            writeString(out, event.location());
+            writeString(out, event.outcome());
+            out.writeInt(event.consequences().size());
+            for (String consequence : event.consequences()) {
+                writeString(out, consequence);
+            }
+            out.writeInt(event.metadata().size());
+            for (Map.Entry<String, Object> entry : event.metadata().entrySet()) {
+                writeString(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalRecord decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal record version " + version);
+        }
+        String sessionId = readString(in);
+        String id = readString(in);
+        Instant timestamp = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        ActionType type = ActionType.valueOf(readString(in));
+        String command = readString(in);
+        String target = readString(in);
+        String location = readString(in);
+        String outcome = readString(in);
+        int consequenceCount = in.readInt();
+        List<String> consequences = new ArrayList<>(consequenceCount);
+        for (int i = 0; i < consequenceCount; i++) {
+            consequences.add(readString(in));
+        }
+        int metadataCount = in.readInt();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < metadataCount; i++) {
+            String key = readString(in);
+            Object value = readValue(in);
+            if (value != null) {
+                metadata.put(key, value);
+            }
+        }
+        return new JournalRecord(sessionId, new ActionEvent(
+            id, timestamp, type, command, target, location, outcome, consequences, metadata,
+            OutcomeFlags.classify(type, consequences)));
+    }
+
+    // Length-prefixed UTF-8; -1 encodes null. DataOutput.writeUTF caps at 64K, which outcomes can exceed.
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case Boolean b -> {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(b);
+            }
+            case Double d -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            case Float f -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(f);
+            }
+            case Number n when n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte -> {
+                out.writeByte(LONG);
+                out.writeLong(n.longValue());
+            }
+            default -> {
+                out.writeByte(STRING);
+                writeString(out, value.toString());
+            }
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> readString(in);
+            case LONG -> in.readLong();
+            case DOUBLE -> in.readDouble();
+            case BOOLEAN -> in.readBoolean();
+            default -> throw new IOException("Unknown journal metadata tag " + tag);
+        };
+    }
+}
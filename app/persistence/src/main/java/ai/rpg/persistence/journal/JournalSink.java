@@ -0,0 +1,14 @@
+package ai.rpg.persistence.journal;
+
+import java.util.List;
+
+/**
+ * Destination for drained journal records, typically a bulk insert into action_events.
+ *
+ * A batch may be delivered more than once after a crash between the write and the
+ * checkpoint, so implementations must skip records whose action id is already stored.
+ */
+@FunctionalInterface
+public interface JournalSink {
+    void write(List<JournalRecord> records);
+}
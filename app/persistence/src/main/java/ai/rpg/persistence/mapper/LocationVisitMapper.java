@@ -3,6 +3,7 @@ package ai.rpg.persistence.mapper;
 import ai.rpg.core.domain.LocationVisit;
 import ai.rpg.core.domain.LocationVisitData;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
 @Mapper(
@@ -10,6 +11,11 @@ import org.mapstruct.ReportingPolicy;
     unmappedTargetPolicy = ReportingPolicy.IGNORE
 )
 public interface LocationVisitMapper {
+    @Mapping(target = "locationId", source = "location")
+    @Mapping(target = "timestamp", source = "entryTime")
     LocationVisitData toData(LocationVisit domain);
+
+    @Mapping(target = "location", source = "locationId")
+    @Mapping(target = "entryTime", source = "timestamp")
     LocationVisit fromData(LocationVisitData data);
 } 
\ No newline at end of file
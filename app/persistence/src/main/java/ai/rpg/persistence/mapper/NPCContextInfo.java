@@ -1,12 +1,37 @@
 package ai.rpg.persistence.mapper;
 
+import ai.rpg.core.domain.PlayerContext;
+
+import java.util.List;
+import java.util.Objects;
+
 public record NPCContextInfo(
     String id,
     String name,
     int disposition,
     String mood,
-    java.util.List<String> knownFacts,
+    List<String> knownFacts,
     String lastSeen,
     String location,
     String relationship
-) {} 
\ No newline at end of file
+) {
+    /**
+     * The session's recent conversation partners, in digest order, that have a known relationship
+     */
+    public static List<NPCContextInfo> activeIn(PlayerContext context) {
+        return context.digest().activeNpcs().stream()
+            .map(npcId -> context.npcStates().get(npcId))
+            .filter(Objects::nonNull)
+            .map(npc -> new NPCContextInfo(
+                npc.npcId(),
+                npc.name(),
+                npc.disposition(),
+                npc.mood().getValue(),
+                npc.relevantFacts(5),
+                npc.lastInteraction().toString(),
+                npc.location(),
+                npc.getRelationshipLevel()
+            ))
+            .toList();
+    }
+}
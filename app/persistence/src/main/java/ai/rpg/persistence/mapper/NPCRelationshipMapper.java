@@ -1,19 +1,75 @@
 package ai.rpg.persistence.mapper;
 
+import ai.rpg.core.domain.FactStore;
+import ai.rpg.core.domain.NPCMood;
 import ai.rpg.core.domain.NPCRelationship;
 import ai.rpg.core.domain.NPCRelationshipData;
+import ai.rpg.core.domain.NPCRelationshipData.KnownFact;
 import org.mapstruct.Mapper;
-import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Mapper(
     componentModel = "spring",
     unmappedTargetPolicy = ReportingPolicy.IGNORE
 )
 public interface NPCRelationshipMapper {
-    @Mapping(target = "mood", source = "mood.value")
-    NPCRelationshipData toData(NPCRelationship domain);
 
-    @Mapping(target = "mood", expression = "java(ai.rpg.core.domain.NPCMood.fromString(data.mood()))")
-    NPCRelationship fromData(NPCRelationshipData data);
-} 
\ No newline at end of file
+    default NPCRelationshipData toData(NPCRelationship domain) {
+        if (domain == null) return null;
+        FactStore facts = domain.facts();
+        List<KnownFact> knownFacts = new ArrayList<>(facts.size());
+        for (String fact : facts) {
+            knownFacts.add(new KnownFact(fact, facts.mentions(fact)));
+        }
+        return new NPCRelationshipData(
+            domain.npcId(),
+            domain.name(),
+            domain.mood().getValue(),
+            domain.disposition(),
+            new ArrayList<>(domain.notes()),
+            new LinkedHashMap<>(domain.knowledge()),
+            Map.of(),
+            domain.firstMet(),
+            domain.lastInteraction(),
+            domain.interactionCount(),
+            domain.location(),
+            knownFacts
+        );
+    }
+
+    /**
+     * Rows written before the timestamps and name were stored fall back to the NPC ID
+     * and the load time; rows written before facts were stored load with none
+     */
+    default NPCRelationship fromData(NPCRelationshipData data) {
+        if (data == null) return null;
+        Instant lastInteraction = data.lastInteraction() != null ? data.lastInteraction() : Instant.now();
+        Map<String, Integer> mentions = new LinkedHashMap<>();
+        if (data.facts() != null) {
+            for (KnownFact known : data.facts()) {
+                if (known != null && known.fact() != null) {
+                    mentions.merge(known.fact(), Math.max(1, known.mentions()), Integer::sum);
+                }
+            }
+        }
+        return new NPCRelationship(
+            data.npcId(),
+            data.npcName() != null ? data.npcName() : data.npcId(),
+            Math.max(-100, Math.min(100, data.affinity())),
+            data.firstMet() != null ? data.firstMet() : lastInteraction,
+            lastInteraction,
+            Math.max(0, data.interactionCount()),
+            FactStore.of(mentions, NPCRelationship.MAX_KNOWN_FACTS),
+            NPCMood.fromString(data.mood()),
+            data.location(),
+            data.conversationHistory() != null ? data.conversationHistory() : List.of(),
+            data.knowledge() != null ? data.knowledge() : Map.of()
+        );
+    }
+}
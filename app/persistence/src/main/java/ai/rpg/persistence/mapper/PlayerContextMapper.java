@@ -5,6 +5,7 @@ import ai.rpg.persistence.entity.*;
 import org.mapstruct.*;
 import org.mapstruct.factory.Mappers;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -38,22 +39,26 @@ public interface PlayerContextMapper {
     // =================================================================
     
     @Mapping(target = "id", ignore = true)
-    @Mapping(target = "character", source = "character")
-    @Mapping(target = "location", source = "location")
+    @Mapping(target = "character", source = "character", qualifiedByName = "characterStateToEmbeddable")
+    @Mapping(target = "location", source = "location", qualifiedByName = "locationStateToEmbeddable")
     @Mapping(target = "actions", ignore = true)
     @Mapping(target = "npcStates", source = "npcStates")
-    @Mapping(target = "sessionStats", source = "sessionStats")
+    @Mapping(target = "sessionStats", source = "sessionStats", qualifiedByName = "sessionMetricsToEmbeddable")
     PlayerContextEntity toEntity(PlayerContext domain);
     
     @Mapping(target = "actions", source = "actions", qualifiedByName = "mapActionsFromEntity")
     @Mapping(target = "npcStates", source = "npcStates")
-    @Mapping(target = "character", source = "character")
-    @Mapping(target = "location", source = "location")
-    @Mapping(target = "sessionStats", source = "sessionStats")
+    @Mapping(target = "character", source = "character", qualifiedByName = "toCharacterState")
+    @Mapping(target = "location", source = "location", qualifiedByName = "toLocationState")
+    @Mapping(target = "sessionStats", source = "sessionStats", qualifiedByName = "toSessionMetrics")
+    @Mapping(target = "digest", ignore = true)
     PlayerContext toPlayerContext(PlayerContextEntity entity);
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "actions", ignore = true)
+    @Mapping(target = "character", source = "character", qualifiedByName = "characterStateToEmbeddable")
+    @Mapping(target = "location", source = "location", qualifiedByName = "locationStateToEmbeddable")
+    @Mapping(target = "sessionStats", source = "sessionStats", qualifiedByName = "sessionMetricsToEmbeddable")
     void updateEntityFromDomain(PlayerContext domain, @MappingTarget PlayerContextEntity entity);
     
     // =================================================================
@@ -70,16 +75,62 @@ public interface PlayerContextMapper {
     CharacterState toCharacterState(CharacterStateEmbeddable embeddable);
     
     @Named("locationStateToEmbeddable")
-    LocationStateEmbeddable locationStateToEmbeddable(LocationState domain);
+    default LocationStateEmbeddable locationStateToEmbeddable(LocationState domain) {
+        if (domain == null) return null;
+        var embeddable = new LocationStateEmbeddable();
+        embeddable.setCurrent(domain.current());
+        embeddable.setPrevious(domain.previous());
+        embeddable.setVisitCount(domain.visitCount());
+        embeddable.setFirstVisit(domain.firstVisit());
+        embeddable.setTimeInLocationMinutes(domain.timeInLocationMinutes());
+        embeddable.setLocationHistory(toLocationVisitData(domain.locationHistory()));
+        embeddable.setLocationIndex(new ArrayList<>(domain.history().stats()));
+        return embeddable;
+    }
     
     @Named("toLocationState")
-    LocationState toLocationState(LocationStateEmbeddable embeddable);
+    default LocationState toLocationState(LocationStateEmbeddable embeddable) {
+        if (embeddable == null) return null;
+        var history = LocationHistory.restore(
+            toLocationVisits(embeddable.getLocationHistory()),
+            embeddable.getLocationIndex(),
+            LocationHistory.DEFAULT_WINDOW
+        );
+        return new LocationState(
+            embeddable.getCurrent(),
+            embeddable.getPrevious(),
+            embeddable.getVisitCount(),
+            embeddable.getFirstVisit(),
+            embeddable.getTimeInLocationMinutes(),
+            history
+        );
+    }
+    
+    List<LocationVisitData> toLocationVisitData(List<LocationVisit> visits);
+    
+    List<LocationVisit> toLocationVisits(List<LocationVisitData> visits);
     
     @Named("sessionMetricsToEmbeddable")
-    SessionMetricsEmbeddable sessionMetricsToEmbeddable(SessionMetrics domain);
+    default SessionMetricsEmbeddable sessionMetricsToEmbeddable(SessionMetrics domain) {
+        if (domain == null) return null;
+        var embeddable = new SessionMetricsEmbeddable();
+        embeddable.setActionCounts(domain.actionCounts());
+        embeddable.setSessionTimeMinutes(domain.sessionTimeMinutes());
+        embeddable.setLocationsVisited(domain.locationsVisited());
+        embeddable.setNpcsInteracted(domain.npcsInteracted());
+        return embeddable;
+    }
     
     @Named("toSessionMetrics")
-    SessionMetrics toSessionMetrics(SessionMetricsEmbeddable embeddable);
+    default SessionMetrics toSessionMetrics(SessionMetricsEmbeddable embeddable) {
+        if (embeddable == null) return null;
+        return new SessionMetrics(
+            embeddable.getActionCounts(),
+            embeddable.getSessionTimeMinutes(),
+            embeddable.getLocationsVisited(),
+            embeddable.getNpcsInteracted()
+        );
+    }
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "actionId", source = "id")
@@ -93,16 +144,29 @@ public interface PlayerContextMapper {
     // Custom Qualified Methods for Complex Transformations
     // =================================================================
     
+    // Keys are NPC IDs; canonicalize them like the IDs inside the relationships
+    @MapMapping(keyQualifiedByName = "symbol")
+    Map<String, NPCRelationship> toNpcStates(Map<String, NPCRelationshipData> npcStates);
+    
     @Named("mapActionsFromEntity")
     default List<ActionEvent> mapActionsFromEntity(List<ActionEventEntity> entities) {
         if (entities == null) return List.of();
-        return entities.stream().map(this::toActionEvent).collect(Collectors.toList());
+        // Domain history is oldest first, matching PlayerContext.withNewAction
+        return entities.stream()
+            .sorted(ActionEventEntity.CHRONOLOGICAL)
+            .map(this::toActionEvent)
+            .collect(Collectors.toList());
     }
     
     // =================================================================
     // Helper Methods
     // =================================================================
     
+    @Named("symbol")
+    default String symbol(String name) {
+        return Symbols.intern(name);
+    }
+    
     @Named("stringToNPCMood")
     default NPCMood stringToNPCMood(String mood) {
         if (mood == null) return NPCMood.NEUTRAL;
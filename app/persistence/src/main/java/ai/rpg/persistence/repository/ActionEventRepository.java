@@ -1,15 +1,17 @@
 package ai.rpg.persistence.repository;
 
 import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.OutcomeFlags;
 import ai.rpg.persistence.entity.ActionEventEntity;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,11 +21,11 @@ import java.util.List;
 public interface ActionEventRepository extends JpaRepository<ActionEventEntity, Long> {
     
     /**
-     * Find recent actions for a session (for AI context)
+     * Find recent actions for a session (for AI context); a Slice, so no COUNT query is issued
      */
     @Query("SELECT ae FROM ActionEventEntity ae WHERE ae.playerContext.sessionId = :sessionId " +
-           "ORDER BY ae.timestamp DESC")
-    Page<ActionEventEntity> findRecentActionsBySessionId(@Param("sessionId") String sessionId, Pageable pageable);
+           "ORDER BY ae.timestamp DESC, ae.id DESC")
+    Slice<ActionEventEntity> findRecentActionsBySessionId(@Param("sessionId") String sessionId, Pageable pageable);
     
     /**
      * Find actions by type for analytics
@@ -36,39 +38,20 @@ public interface ActionEventRepository extends JpaRepository<ActionEventEntity,
     List<ActionEventEntity> findByLocationOrderByTimestampDesc(String location);
     
     /**
-     * Find successful actions (for AI training data)
+     * Find successful actions (for AI training data), read from the outcome flags
      */
-    @Query("SELECT ae FROM ActionEventEntity ae WHERE " +
-           "EXISTS (SELECT 1 FROM ae.consequences c WHERE c LIKE '%success%' OR c LIKE '%victory%')")
-    List<ActionEventEntity> findSuccessfulActions();
-    
-    /**
-     * Count actions by type in time period (analytics)
-     */
-    @Query("SELECT ae.type, COUNT(ae) FROM ActionEventEntity ae " +
-           "WHERE ae.timestamp BETWEEN :start AND :end " +
-           "GROUP BY ae.type")
-    List<Object[]> countActionsByTypeInPeriod(@Param("start") Instant start, @Param("end") Instant end);
-    
-    /**
-     * Find most common locations (for world design insights)
-     */
-    @Query("SELECT ae.location, COUNT(ae) as actionCount FROM ActionEventEntity ae " +
-           "GROUP BY ae.location ORDER BY actionCount DESC")
-    List<Object[]> findMostActiveLocations();
+    default List<ActionEventEntity> findSuccessfulActions() {
+        return findByOutcomeFlagsIn(OutcomeFlags.masksWithAny(OutcomeFlags.SUCCESSFUL));
+    }
     
     /**
-     * Find player behavior patterns
+     * Find actions whose outcome bitmask is one of the given masks
      */
-    @Query("SELECT pc.playerId, ae.type, COUNT(ae) FROM ActionEventEntity ae " +
-           "JOIN ae.playerContext pc " +
-           "WHERE ae.timestamp > :since " +
-           "GROUP BY pc.playerId, ae.type " +
-           "ORDER BY pc.playerId, COUNT(ae) DESC")
-    List<Object[]> findPlayerBehaviorPatterns(@Param("since") Instant since);
+    List<ActionEventEntity> findByOutcomeFlagsIn(Collection<Integer> masks);
     
     /**
-     * Delete old actions for cleanup
+     * Delete old actions for cleanup. Derived delete: loads and removes every matching
+     * entity one by one, so only suitable for small ranges
      */
     void deleteByTimestampBefore(Instant before);
     
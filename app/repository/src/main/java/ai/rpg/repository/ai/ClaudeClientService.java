@@ -1,18 +1,42 @@
 package ai.rpg.repository.ai;
 
 import ai.rpg.repository.config.ClaudeProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
 public class ClaudeClientService {
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+        new ParameterizedTypeReference<>() {};
+
     private final WebClient webClient;
     private final ClaudeProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TokenStreamMetrics streamMetrics;
+    private final CompletionCache completionCache;
+    private final LlmGateway gateway;
 
-    public ClaudeClientService(WebClient.Builder webClientBuilder, ClaudeProperties properties) {
+    public ClaudeClientService(
+            WebClient.Builder webClientBuilder,
+            ClaudeProperties properties,
+            ObjectMapper objectMapper,
+            TokenStreamMetrics streamMetrics,
+            CompletionCache completionCache,
+            LlmGateway gateway) {
         this.properties = properties;
-        this.webClient = webClientBuilder
+        this.objectMapper = objectMapper;
+        this.streamMetrics = streamMetrics;
+        this.completionCache = completionCache;
+        this.gateway = gateway;
+        this.webClient = gateway.configure(webClientBuilder)
             .baseUrl(properties.baseUrl())
             .defaultHeader("x-api-key", properties.apiKey())
             .defaultHeader("anthropic-version", "2023-06-01")
@@ -20,15 +44,69 @@ public class ClaudeClientService {
     }
 
     public Mono<String> getChatCompletion(String prompt) {
-        return webClient.post()
+        return completionCache.get("claude", prompt, () -> gateway.execute("claude", () -> webClient.post()
             .uri("/messages")
             .bodyValue(new ChatRequest(prompt))
             .retrieve()
             .bodyToMono(ChatResponse.class)
-            .map(response -> response.content().get(0).text());
+            .map(response -> response.content().get(0).text())));
+    }
+
+    /**
+     * Stream the completion as text deltas, parsed from the server-sent event stream as they arrive
+     */
+    public Flux<String> streamChatCompletion(String prompt) {
+        Flux<String> tokens = textDeltas(webClient.post()
+            .uri("/messages")
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .bodyValue(new StreamingChatRequest(prompt, true))
+            .retrieve()
+            .bodyToFlux(SSE_TYPE), objectMapper);
+        return streamMetrics.instrument("claude", gateway.stream("claude", () -> tokens));
+    }
+
+    /**
+     * Text deltas of a Messages API event stream; an {@code error} event fails the stream
+     */
+    static Flux<String> textDeltas(Flux<ServerSentEvent<String>> events, ObjectMapper objectMapper) {
+        return events
+            .takeUntil(event -> "message_stop".equals(event.event()))
+            .<String>handle((event, sink) -> {
+                if ("error".equals(event.event())) {
+                    sink.error(streamError(event.data(), objectMapper));
+                } else if ("content_block_delta".equals(event.event()) && event.data() != null) {
+                    String text = deltaText(event.data(), objectMapper);
+                    if (text != null && !text.isEmpty()) {
+                        sink.next(text);
+                    }
+                }
+            });
+    }
+
+    private static String deltaText(String data, ObjectMapper objectMapper) {
+        try {
+            JsonNode text = objectMapper.readTree(data).path("delta").path("text");
+            return text.isTextual() ? text.asText() : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed Claude stream event", e);
+        }
+    }
+
+    private static IllegalStateException streamError(String data, ObjectMapper objectMapper) {
+        if (data == null) {
+            return new IllegalStateException("Claude stream error");
+        }
+        try {
+            JsonNode error = objectMapper.readTree(data).path("error");
+            return new IllegalStateException("Claude stream error: "
+                + error.path("type").asText("unknown") + ": " + error.path("message").asText(""));
+        } catch (JsonProcessingException e) {
+            return new IllegalStateException("Claude stream error: " + data);
+        }
     }
 
     private record ChatRequest(String prompt) {}
+    private record StreamingChatRequest(String prompt, boolean stream) {}
     private record ChatResponse(java.util.List<Content> content) {}
     private record Content(String text) {}
-} 
\ No newline at end of file
+}
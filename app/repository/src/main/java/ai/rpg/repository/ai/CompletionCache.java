@@ -0,0 +1,161 @@
+package ai.rpg.repository.ai;
+
+import ai.rpg.repository.config.CompletionCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of LLM completions keyed by provider and a hash of the normalized prompt.
+ *
+ * Completed responses are kept for a fixed TTL within a bounded number of entries.
+ * A request that arrives while an identical one is still in flight subscribes to
+ * the same shared {@link Mono} instead of issuing a second provider call. Failed or
+ * empty responses are never cached.
+ */
+@Component
+public class CompletionCache implements MeterBinder {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Number of entries inspected when picking an eviction victim
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final CompletionCacheProperties properties;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CompletionCache(CompletionCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Return the cached or in-flight completion for this prompt, or subscribe to {@code loader}
+     */
+    public Mono<String> get(String provider, String prompt, Supplier<Mono<String>> loader) {
+        return Mono.defer(() -> {
+            String key = key(provider, prompt);
+            long now = System.nanoTime();
+            Entry candidate = new Entry(now);
+            candidate.value = Mono.defer(loader)
+                .doOnNext(response -> candidate.complete(System.nanoTime() + properties.ttl().toNanos()))
+                .doOnSuccess(response -> {
+                    if (response == null) {
+                        entries.remove(key, candidate);
+                    }
+                })
+                .doOnError(error -> entries.remove(key, candidate))
+                .cache();
+
+            Entry winner = entries.compute(key, (k, current) ->
+                current != null && !current.isExpired(now) ? current : candidate);
+            if (winner != candidate) {
+                (winner.isCompleted() ? hits : coalesced).increment();
+                return winner.value;
+            }
+
+            misses.increment();
+            if (entries.size() > properties.maxEntries()) {
+                evictOne(key, now);
+            }
+            return candidate.value;
+        });
+    }
+
+    static String key(String provider, String prompt) {
+        String normalized = WHITESPACE.matcher(prompt.strip()).replaceAll(" ");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return provider + ':' + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Evict an expired entry if one is sampled, otherwise the oldest completed one.
+     * In-flight entries are never evicted.
+     */
+    private void evictOne(String justAdded, long now) {
+        String victim = null;
+        long oldest = Long.MAX_VALUE;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        for (int sampled = 0; sampled < EVICTION_SAMPLE_SIZE && iterator.hasNext(); ) {
+            Map.Entry<String, Entry> candidate = iterator.next();
+            if (candidate.getKey().equals(justAdded) || !candidate.getValue().isCompleted()) {
+                continue;
+            }
+            sampled++;
+            if (candidate.getValue().isExpired(now)) {
+                victim = candidate.getKey();
+                break;
+            }
+            if (candidate.getValue().createdNanos < oldest) {
+                oldest = candidate.getValue().createdNanos;
+                victim = candidate.getKey();
+            }
+        }
+        if (victim != null && entries.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Point-in-time cache statistics
+     */
+    public record Stats(long hits, long misses, long coalesced, long evictions, int size) {}
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), coalesced.sum(), evictions.sum(), entries.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("game.llm.cache.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.llm.cache.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.llm.cache.coalesced", coalesced, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.llm.cache.evictions", evictions, LongAdder::sum).register(registry);
+        Gauge.builder("game.llm.cache.size", entries, Map::size).register(registry);
+    }
+
+    private static final class Entry {
+        private final long createdNanos;
+        private volatile Mono<String> value;
+        // Long.MAX_VALUE while the request is in flight
+        private volatile long expiresAtNanos = Long.MAX_VALUE;
+        private volatile boolean completed;
+
+        Entry(long createdNanos) {
+            this.createdNanos = createdNanos;
+        }
+
+        void complete(long expiresAt) {
+            expiresAtNanos = expiresAt;
+            completed = true;
+        }
+
+        boolean isCompleted() {
+            return completed;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos > 0 && completed;
+        }
+    }
+}
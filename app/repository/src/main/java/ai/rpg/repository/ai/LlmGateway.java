@@ -0,0 +1,280 @@
+package ai.rpg.repository.ai;
+
+import ai.rpg.repository.config.LlmGatewayProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Signal;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single path for outbound LLM calls.
+ *
+ * Each provider gets a non-blocking bulkhead: at most {@code concurrencyFor(provider)}
+ * calls run at once, up to {@code queueCapacity} more wait for a permit, and anything
+ * beyond that fails immediately with {@link LlmGatewayRejectedException}. The total
+ * deadline covers queueing as well as the call itself. Streams wait for a permit
+ * within the total deadline, then run under their own longer deadline and fail if
+ * no element arrives within the idle timeout. Connect and read deadlines and
+ * the connection pool live on the shared {@link HttpClient} handed out by
+ * {@link #configure(WebClient.Builder)}.
+ */
+@Component
+public class LlmGateway implements MeterBinder {
+    private final LlmGatewayProperties properties;
+    private final ConnectionProvider connectionProvider;
+    private final ReactorClientHttpConnector connector;
+    private final ConcurrentHashMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public LlmGateway(LlmGatewayProperties properties) {
+        this.properties = properties;
+        this.connectionProvider = ConnectionProvider.builder("llm-gateway")
+            .maxConnections(properties.maxConnections())
+            // Callers already wait in the bulkhead; waiting again for a socket only hides pool exhaustion
+            .pendingAcquireTimeout(properties.connectTimeout())
+            .maxIdleTime(properties.maxIdleTime())
+            .maxLifeTime(properties.maxLifeTime())
+            .evictInBackground(properties.maxIdleTime())
+            .metrics(true)
+            .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(properties.connectTimeout().toMillis()))
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .responseTimeout(properties.readTimeout());
+        this.connector = new ReactorClientHttpConnector(httpClient);
+    }
+
+    /**
+     * Attach the gateway's pooled, deadline-bound connector to a client builder
+     */
+    public WebClient.Builder configure(WebClient.Builder builder) {
+        return builder.clientConnector(connector);
+    }
+
+    /**
+     * Run a single-response call under the provider's concurrency limit and total deadline
+     */
+    public <T> Mono<T> execute(String provider, Supplier<Mono<T>> call) {
+        Bulkhead bulkhead = bulkhead(provider);
+        return bulkhead.acquire()
+            .flatMap(permit -> Mono.defer(call).doFinally(signal -> permit.release()))
+            // A permit granted just as the caller cancelled is discarded rather than delivered
+            .doOnDiscard(Permit.class, Permit::release)
+            .timeout(properties.totalTimeout(), Mono.error(() -> bulkhead.timedOut("total deadline")));
+    }
+
+    /**
+     * Run a streaming call under the provider's concurrency limit.
+     * The permit is held until the stream terminates or is cancelled.
+     */
+    public <T> Flux<T> stream(String provider, Supplier<Flux<T>> call) {
+        Bulkhead bulkhead = bulkhead(provider);
+        Flux<Signal<T>> deadline = Mono.delay(properties.streamTimeout())
+            .map(tick -> Signal.<T>error(bulkhead.timedOut("stream deadline")))
+            .flux();
+        return bulkhead.acquire()
+            .timeout(properties.totalTimeout(), Mono.error(() -> bulkhead.timedOut("total deadline")))
+            .flatMapMany(permit -> Flux.defer(call)
+                .timeout(properties.streamIdleTimeout(), Flux.error(() -> bulkhead.timedOut("stream idle timeout")))
+                .doFinally(signal -> permit.release()))
+            .doOnDiscard(Permit.class, Permit::release)
+            .materialize()
+            .mergeWith(deadline)
+            .<T>dematerialize();
+    }
+
+    private Bulkhead bulkhead(String provider) {
+        return bulkheads.computeIfAbsent(provider, name -> {
+            Bulkhead bulkhead = new Bulkhead(name, properties.concurrencyFor(name), properties.queueCapacity());
+            MeterRegistry current = registry;
+            if (current != null) {
+                bulkhead.bindTo(current);
+            }
+            return bulkhead;
+        });
+    }
+
+    /**
+     * Point-in-time bulkhead statistics for one provider
+     */
+    public record ProviderStats(
+        String provider,
+        int active,
+        int queued,
+        long completed,
+        long rejected,
+        long timeouts
+    ) {}
+
+    public ProviderStats stats(String provider) {
+        return bulkhead(provider).stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        bulkheads.values().forEach(bulkhead -> bulkhead.bindTo(registry));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Lock-free permit counter with a bounded FIFO of waiting subscribers
+     */
+    private static final class Bulkhead {
+        private final String provider;
+        private final int maxConcurrency;
+        private final int queueCapacity;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private volatile Timer queueWait;
+
+        Bulkhead(String provider, int maxConcurrency, int queueCapacity) {
+            this.provider = provider;
+            this.maxConcurrency = maxConcurrency;
+            this.queueCapacity = queueCapacity;
+        }
+
+        Mono<Permit> acquire() {
+            return Mono.create(sink -> {
+                if (tryAcquire()) {
+                    recordWait(0);
+                    sink.success(new Permit(this));
+                    return;
+                }
+                if (queued.incrementAndGet() > queueCapacity) {
+                    queued.decrementAndGet();
+                    rejected.increment();
+                    sink.error(new LlmGatewayRejectedException(provider));
+                    return;
+                }
+                Waiter waiter = new Waiter(sink, System.nanoTime());
+                sink.onCancel(() -> {
+                    if (waiter.claimed.compareAndSet(false, true)) {
+                        waiters.remove(waiter);
+                        queued.decrementAndGet();
+                    }
+                });
+                waiters.add(waiter);
+                // A permit may have been released between tryAcquire and enqueueing
+                drain();
+            });
+        }
+
+        private boolean tryAcquire() {
+            int current;
+            do {
+                current = active.get();
+                if (current >= maxConcurrency) {
+                    return false;
+                }
+            } while (!active.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void release() {
+            active.decrementAndGet();
+            completed.increment();
+            drain();
+        }
+
+        private void drain() {
+            while (!waiters.isEmpty() && tryAcquire()) {
+                Waiter waiter = waiters.poll();
+                if (waiter == null || !waiter.claimed.compareAndSet(false, true)) {
+                    // Queue emptied or the waiter was cancelled (and uncounted itself); hand the permit back
+                    active.decrementAndGet();
+                    continue;
+                }
+                queued.decrementAndGet();
+                recordWait(System.nanoTime() - waiter.enqueuedNanos);
+                waiter.sink.success(new Permit(this));
+            }
+        }
+
+        private void recordWait(long nanos) {
+            Timer timer = queueWait;
+            if (timer != null) {
+                timer.record(Duration.ofNanos(nanos));
+            }
+        }
+
+        TimeoutException timedOut(String deadline) {
+            timeouts.increment();
+            return new TimeoutException("LLM call to " + provider + " exceeded its " + deadline);
+        }
+
+        ProviderStats stats() {
+            return new ProviderStats(provider, active.get(), queued.get(),
+                completed.sum(), rejected.sum(), timeouts.sum());
+        }
+
+        void bindTo(MeterRegistry registry) {
+            Gauge.builder("game.llm.gateway.active", active, AtomicInteger::get)
+                .tag("provider", provider).register(registry);
+            Gauge.builder("game.llm.gateway.queued", queued, AtomicInteger::get)
+                .tag("provider", provider).register(registry);
+            FunctionCounter.builder("game.llm.gateway.completed", completed, LongAdder::sum)
+                .tag("provider", provider).register(registry);
+            FunctionCounter.builder("game.llm.gateway.rejected", rejected, LongAdder::sum)
+                .tag("provider", provider).register(registry);
+            FunctionCounter.builder("game.llm.gateway.timeouts", timeouts, LongAdder::sum)
+                .tag("provider", provider).register(registry);
+            queueWait = Timer.builder("game.llm.gateway.queue.wait")
+                .tag("provider", provider).register(registry);
+        }
+    }
+
+    private record Waiter(MonoSink<Permit> sink, long enqueuedNanos, AtomicBoolean claimed) {
+        Waiter(MonoSink<Permit> sink, long enqueuedNanos) {
+            this(sink, enqueuedNanos, new AtomicBoolean());
+        }
+    }
+
+    /**
+     * One unit of provider concurrency; releasing twice is a no-op
+     */
+    private static final class Permit {
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+}
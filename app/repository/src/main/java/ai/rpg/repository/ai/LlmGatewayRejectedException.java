@@ -0,0 +1,19 @@
+package ai.rpg.repository.ai;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a provider's concurrency limit and wait queue are both exhausted
+ */
+public class LlmGatewayRejectedException extends RejectedExecutionException {
+    private final String provider;
+
+    public LlmGatewayRejectedException(String provider) {
+        super("LLM gateway queue full for provider " + provider);
+        this.provider = provider;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+}
@@ -1,34 +1,104 @@
 package ai.rpg.repository.ai;
 
 import ai.rpg.repository.config.OpenAiProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
 public class OpenAiClientService {
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+        new ParameterizedTypeReference<>() {};
+    private static final String DONE = "[DONE]";
+
     private final WebClient webClient;
     private final OpenAiProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TokenStreamMetrics streamMetrics;
+    private final CompletionCache completionCache;
+    private final LlmGateway gateway;
 
-    public OpenAiClientService(WebClient.Builder webClientBuilder, OpenAiProperties properties) {
+    public OpenAiClientService(
+            WebClient.Builder webClientBuilder,
+            OpenAiProperties properties,
+            ObjectMapper objectMapper,
+            TokenStreamMetrics streamMetrics,
+            CompletionCache completionCache,
+            LlmGateway gateway) {
         this.properties = properties;
-        this.webClient = webClientBuilder
+        this.objectMapper = objectMapper;
+        this.streamMetrics = streamMetrics;
+        this.completionCache = completionCache;
+        this.gateway = gateway;
+        this.webClient = gateway.configure(webClientBuilder)
             .baseUrl(properties.baseUrl())
             .defaultHeader("Authorization", "Bearer " + properties.apiKey())
             .build();
     }
 
     public Mono<String> getChatCompletion(String prompt) {
-        return webClient.post()
+        return completionCache.get("openai", prompt, () -> gateway.execute("openai", () -> webClient.post()
             .uri("/chat/completions")
             .bodyValue(new ChatRequest(prompt))
             .retrieve()
             .bodyToMono(ChatResponse.class)
-            .map(response -> response.choices().get(0).message().content());
+            .map(response -> response.choices().get(0).message().content())));
+    }
+
+    /**
+     * Stream the completion as content deltas, parsed from the server-sent event stream as they arrive
+     */
+    public Flux<String> streamChatCompletion(String prompt) {
+        Flux<String> tokens = contentDeltas(webClient.post()
+            .uri("/chat/completions")
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .bodyValue(new StreamingChatRequest(prompt, true))
+            .retrieve()
+            .bodyToFlux(SSE_TYPE), objectMapper);
+        return streamMetrics.instrument("openai", gateway.stream("openai", () -> tokens));
+    }
+
+    /**
+     * Content deltas of a chat completion chunk stream, up to {@code [DONE]}; a chunk
+     * carrying an {@code error} object fails the stream
+     */
+    static Flux<String> contentDeltas(Flux<ServerSentEvent<String>> events, ObjectMapper objectMapper) {
+        return events
+            .mapNotNull(ServerSentEvent::data)
+            .takeWhile(data -> !DONE.equals(data.trim()))
+            .<String>handle((data, sink) -> {
+                JsonNode chunk = readChunk(data, objectMapper);
+                JsonNode error = chunk.path("error");
+                if (!error.isMissingNode() && !error.isNull()) {
+                    sink.error(new IllegalStateException("OpenAI stream error: "
+                        + error.path("type").asText("unknown") + ": " + error.path("message").asText("")));
+                    return;
+                }
+                JsonNode content = chunk.path("choices").path(0).path("delta").path("content");
+                if (content.isTextual() && !content.asText().isEmpty()) {
+                    sink.next(content.asText());
+                }
+            });
+    }
+
+    private static JsonNode readChunk(String data, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.readTree(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed OpenAI stream event", e);
+        }
     }
 
     private record ChatRequest(String prompt) {}
+    private record StreamingChatRequest(String prompt, boolean stream) {}
     private record ChatResponse(java.util.List<Choice> choices) {}
     private record Choice(Message message) {}
     private record Message(String content) {}
-} 
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package ai.rpg.repository.ai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time-to-first-token and total duration for streamed completions, per provider
+ */
+@Component
+public class TokenStreamMetrics {
+    private final MeterRegistry registry;
+
+    public TokenStreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Flux<String> instrument(String provider, Flux<String> tokens) {
+        Timer firstToken = Timer.builder("game.llm.stream.first.token")
+            .tag("provider", provider)
+            .register(registry);
+        Timer total = Timer.builder("game.llm.stream.duration")
+            .tag("provider", provider)
+            .register(registry);
+
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean seenFirst = new AtomicBoolean();
+            return tokens
+                .doOnNext(token -> {
+                    if (seenFirst.compareAndSet(false, true)) {
+                        firstToken.record(Duration.ofNanos(System.nanoTime() - start));
+                    }
+                })
+                .doFinally(signal -> total.record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+}
@@ -0,0 +1,361 @@
+package ai.rpg.repository.cache;
+
+import ai.rpg.core.domain.PlayerContext;
+import ai.rpg.persistence.mapper.PlayerContextMapper;
+import ai.rpg.repository.config.SessionCacheProperties;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import ai.rpg.repository.service.PlayerContextReader;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Write-behind cache of hot player sessions.
+ *
+ * Reads are served from memory once a session has been loaded. Updates are applied
+ * to the cached {@link PlayerContext} and marked dirty; a background flusher writes
+ * dirty sessions back to {@code player_contexts} on a fixed interval and once more
+ * on shutdown. Dirty sessions are never evicted before they have been flushed.
+ */
+@Component
+public class SessionCache implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(SessionCache.class);
+
+    // Number of entries inspected when picking an eviction victim (sampled LRU)
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final PlayerContextRepository repository;
+    private final PlayerContextMapper mapper;
+    private final PlayerContextReader reader;
+    private final SessionCacheProperties properties;
+    private final TransactionTemplate writeTransaction;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("session-cache-flusher").daemon().factory());
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final AtomicLong lastFlushLagMillis = new AtomicLong();
+    private final AtomicLong maxFlushLagMillis = new AtomicLong();
+
+    public SessionCache(
+            PlayerContextRepository repository,
+            PlayerContextMapper mapper,
+            PlayerContextReader reader,
+            SessionCacheProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.reader = reader;
+        this.properties = properties;
+        // Flushes commit on their own, never as part of a caller's transaction
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void start() {
+        long intervalMillis = properties.flushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(properties.flushInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    /**
+     * Get a session, loading it from the database on a miss
+     */
+    public Optional<PlayerContext> get(String sessionId) {
+        Entry entry = entries.get(sessionId);
+        if (entry != null) {
+            hits.increment();
+            return Optional.of(entry.read());
+        }
+
+        misses.increment();
+        Optional<PlayerContext> loaded = reader.read(sessionId);
+        if (loaded == null || loaded.isEmpty()) {
+            return Optional.empty();
+        }
+        // A concurrent writer may have admitted a newer state while we were loading
+        return Optional.of(admit(loaded.get(), false).read());
+    }
+
+    /**
+     * Cache a session that was just persisted, without scheduling a write
+     */
+    public void prime(PlayerContext context) {
+        admit(context, false);
+    }
+
+    /**
+     * Replace the cached state of a session and schedule it for write-back
+     */
+    public void put(PlayerContext context) {
+        Entry entry = entries.get(context.sessionId());
+        if (entry == null) {
+            entry = admit(context, true);
+        }
+        entry.write(context);
+    }
+
+    /**
+     * Apply an update to a session and schedule it for write-back
+     */
+    public Optional<PlayerContext> update(String sessionId, UnaryOperator<PlayerContext> update) {
+        if (get(sessionId).isEmpty()) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(sessionId);
+        if (entry == null) {
+            // Evicted between the load and the update; fall back to a fresh load
+            return update(sessionId, update);
+        }
+        return Optional.of(entry.apply(update));
+    }
+
+    /**
+     * Drop a session from the cache, flushing it first if it has pending changes.
+     * The flush commits in its own transaction, so call this before locking the
+     * session's row in the current one.
+     */
+    public void invalidate(String sessionId) {
+        Entry entry = entries.remove(sessionId);
+        if (entry != null) {
+            flushEntry(entry);
+        }
+    }
+
+    /**
+     * Write every dirty session back to the database
+     *
+     * @return number of sessions written
+     */
+    public int flush() {
+        int written = 0;
+        for (Entry entry : entries.values()) {
+            if (flushEntry(entry)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Session cache flush cycle failed", e);
+        }
+    }
+
+    private boolean flushEntry(Entry entry) {
+        Entry.Snapshot snapshot = entry.dirtySnapshot();
+        if (snapshot == null) {
+            return false;
+        }
+        try {
+            writeTransaction.executeWithoutResult(status ->
+                repository.findBySessionId(snapshot.context().sessionId())
+                    .ifPresent(entity -> mapper.updateEntityFromDomain(snapshot.context(), entity)));
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.warn("Failed to flush session {}", snapshot.context().sessionId(), e);
+            return false;
+        }
+        entry.markFlushed(snapshot.version());
+        flushes.increment();
+
+        long lagMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - snapshot.dirtySinceNanos());
+        lastFlushLagMillis.set(lagMillis);
+        maxFlushLagMillis.accumulateAndGet(lagMillis, Math::max);
+        return true;
+    }
+
+    private Entry admit(PlayerContext context, boolean dirty) {
+        Entry candidate = new Entry(context, dirty);
+        Entry existing = entries.putIfAbsent(context.sessionId(), candidate);
+        if (existing != null) {
+            return existing;
+        }
+        if (entries.size() > properties.maxSize()) {
+            evictOne(context.sessionId());
+        }
+        return candidate;
+    }
+
+    /**
+     * Evict the least recently used clean entry among a small sample.
+     * If every sampled entry is dirty the cache temporarily exceeds its bound
+     * until the next flush cycle.
+     */
+    private void evictOne(String justAdmitted) {
+        String victim = null;
+        long oldestAccess = Long.MAX_VALUE;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        for (int sampled = 0; sampled < EVICTION_SAMPLE_SIZE && iterator.hasNext(); ) {
+            Map.Entry<String, Entry> candidate = iterator.next();
+            if (candidate.getKey().equals(justAdmitted)) {
+                continue;
+            }
+            sampled++;
+            if (!candidate.getValue().isDirty() && candidate.getValue().lastAccessNanos() < oldestAccess) {
+                oldestAccess = candidate.getValue().lastAccessNanos();
+                victim = candidate.getKey();
+            }
+        }
+        if (victim != null) {
+            Entry removed = entries.remove(victim);
+            if (removed != null) {
+                evictions.increment();
+                // Lost a race with a writer: keep its change rather than dropping it
+                flushEntry(removed);
+            }
+        }
+    }
+
+    private long dirtyCount() {
+        return entries.values().stream().filter(Entry::isDirty).count();
+    }
+
+    /**
+     * Point-in-time cache statistics
+     */
+    public record Stats(
+        long hits,
+        long misses,
+        long evictions,
+        long flushes,
+        long flushFailures,
+        int size,
+        long dirty,
+        long lastFlushLagMillis,
+        long maxFlushLagMillis
+    ) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(
+            hits.sum(),
+            misses.sum(),
+            evictions.sum(),
+            flushes.sum(),
+            flushFailures.sum(),
+            entries.size(),
+            dirtyCount(),
+            lastFlushLagMillis.get(),
+            maxFlushLagMillis.get()
+        );
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("game.session.cache.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.cache.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.cache.evictions", evictions, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.cache.flushes", flushes, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.cache.flush.failures", flushFailures, LongAdder::sum).register(registry);
+        Gauge.builder("game.session.cache.size", entries, Map::size).register(registry);
+        Gauge.builder("game.session.cache.dirty", this, SessionCache::dirtyCount).register(registry);
+        Gauge.builder("game.session.cache.flush.lag", lastFlushLagMillis, AtomicLong::get)
+            .baseUnit("milliseconds")
+            .register(registry);
+    }
+
+    /**
+     * Cached session state with a write version, guarded by its own monitor
+     */
+    private static final class Entry {
+        private PlayerContext context;
+        private long version;
+        private long flushedVersion;
+        private long dirtySinceNanos;
+        private volatile long lastAccessNanos;
+
+        private record Snapshot(PlayerContext context, long version, long dirtySinceNanos) {}
+
+        Entry(PlayerContext context, boolean dirty) {
+            this.context = context;
+            this.version = dirty ? 1 : 0;
+            this.dirtySinceNanos = System.nanoTime();
+            this.lastAccessNanos = dirtySinceNanos;
+        }
+
+        synchronized PlayerContext read() {
+            lastAccessNanos = System.nanoTime();
+            return context;
+        }
+
+        synchronized void write(PlayerContext updated) {
+            markDirty();
+            context = updated;
+        }
+
+        synchronized PlayerContext apply(UnaryOperator<PlayerContext> update) {
+            PlayerContext updated = update.apply(context);
+            if (updated != context) {
+                markDirty();
+                context = updated;
+            }
+            return context;
+        }
+
+        synchronized boolean isDirty() {
+            return version != flushedVersion;
+        }
+
+        synchronized Snapshot dirtySnapshot() {
+            return isDirty() ? new Snapshot(context, version, dirtySinceNanos) : null;
+        }
+
+        synchronized void markFlushed(long flushed) {
+            if (flushed > flushedVersion) {
+                flushedVersion = flushed;
+            }
+        }
+
+        long lastAccessNanos() {
+            return lastAccessNanos;
+        }
+
+        private void markDirty() {
+            long now = System.nanoTime();
+            if (!isDirty()) {
+                dirtySinceNanos = now;
+            }
+            version++;
+            lastAccessNanos = now;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ai.rpg.repository.cache;
+
+import ai.rpg.repository.config.SessionHeartbeatProperties;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces per-request last-access updates into one JDBC batch per interval.
+ *
+ * Touches are recorded in memory; repeated touches of the same session between
+ * flushes collapse into a single pending entry. Each session is written with its
+ * own touch time, so the database value of {@code last_update} is accurate to
+ * within {@link #staleness()} of real activity, and it is only ever moved forward.
+ */
+@Component
+public class SessionHeartbeat implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(SessionHeartbeat.class);
+
+    private final PlayerContextRepository repository;
+    private final SessionHeartbeatProperties properties;
+    private final TransactionTemplate transaction;
+    private final ConcurrentHashMap<String, Instant> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("session-heartbeat-flusher").daemon().factory());
+
+    private final LongAdder touches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rowsUpdated = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+
+    public SessionHeartbeat(
+            PlayerContextRepository repository,
+            SessionHeartbeatProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void start() {
+        long intervalMillis = properties.flushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(properties.flushInterval().toMillis(), TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    /**
+     * Record that a session was accessed now
+     */
+    public void touch(String sessionId) {
+        touches.increment();
+        if (pending.put(sessionId, Instant.now()) != null) {
+            coalesced.increment();
+        }
+    }
+
+    /**
+     * Maximum lag between a touch and its visibility in {@code last_update}
+     */
+    public Duration staleness() {
+        return properties.flushInterval();
+    }
+
+    /**
+     * Lower bound for activity queries over the given window. Widened by the
+     * staleness bound so sessions with an unflushed touch are not reported idle.
+     */
+    public Instant activeSince(Duration window) {
+        return Instant.now().minus(window).minus(staleness());
+    }
+
+    /**
+     * Write all pending touches to the database
+     *
+     * @return number of rows updated
+     */
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Instant> batch = new HashMap<>();
+        int updated = 0;
+        for (Map.Entry<String, Instant> touch : pending.entrySet()) {
+            // Only claim the touch we observed; a newer one stays pending for the next cycle
+            if (!pending.remove(touch.getKey(), touch.getValue())) {
+                continue;
+            }
+            batch.put(touch.getKey(), touch.getValue());
+            if (batch.size() == properties.maxBatchSize()) {
+                updated += writeBatch(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            updated += writeBatch(batch);
+        }
+        return updated;
+    }
+
+    private int writeBatch(Map<String, Instant> touches) {
+        Integer updated = transaction.execute(status -> repository.touchSessions(touches));
+        statements.increment();
+        int rows = updated != null ? updated : 0;
+        rowsUpdated.add(rows);
+        return rows;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Touches claimed by the failed batch are lost; the next access re-records them
+            log.warn("Session heartbeat flush failed", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("game.session.heartbeat.touches", touches, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.heartbeat.coalesced", coalesced, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.heartbeat.rows.updated", rowsUpdated, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.heartbeat.statements", statements, LongAdder::sum).register(registry);
+        Gauge.builder("game.session.heartbeat.pending", pending, Map::size).register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package ai.rpg.repository.config;
+
+import ai.rpg.persistence.journal.ActionJournal;
+import ai.rpg.persistence.journal.ActionJournalDrainer;
+import ai.rpg.repository.journal.JpaJournalSink;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Wires the durable action journal when {@code game.action-journal.enabled=true}.
+ * The drainer is closed before the journal, so shutdown ends with a final drain.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "game.action-journal", name = "enabled", havingValue = "true")
+public class ActionJournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public ActionJournal actionJournal(ActionJournalProperties properties) throws IOException {
+        return ActionJournal.open(Path.of(properties.directory()),
+            Math.toIntExact(properties.segmentSize().toBytes()));
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ActionJournalDrainer actionJournalDrainer(
+            ActionJournal journal,
+            JpaJournalSink sink,
+            ActionJournalProperties properties) {
+        return new ActionJournalDrainer(journal, sink, properties.drainInterval(), properties.drainBatchSize());
+    }
+
+    @Bean
+    public MeterBinder actionJournalMetrics(ActionJournal journal, ActionJournalDrainer drainer) {
+        return registry -> {
+            FunctionCounter.builder("game.action.journal.appends", journal, j -> j.stats().appends())
+                .register(registry);
+            FunctionCounter.builder("game.action.journal.syncs", journal, j -> j.stats().syncs())
+                .register(registry);
+            Gauge.builder("game.action.journal.undrained.bytes", journal, j -> j.stats().undrainedBytes())
+                .register(registry);
+            FunctionCounter.builder("game.action.journal.drained", drainer, d -> d.stats().drained())
+                .register(registry);
+            FunctionCounter.builder("game.action.journal.drain.failures", drainer, d -> d.stats().failures())
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package ai.rpg.repository.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "game.action-journal")
+public record ActionJournalProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("data/action-journal") String directory,
+    @DefaultValue("64MB") DataSize segmentSize,
+    @DefaultValue("1s") Duration drainInterval,
+    @DefaultValue("500") int drainBatchSize
+) {
+    public ActionJournalProperties {
+        if (segmentSize.toBytes() < 4096 || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be between 4KB and 2GB");
+        }
+        if (drainInterval.isNegative() || drainInterval.isZero()) {
+            throw new IllegalArgumentException("Journal drain interval must be positive");
+        }
+        if (drainBatchSize <= 0) {
+            throw new IllegalArgumentException("Journal drain batch size must be positive");
+        }
+    }
+}
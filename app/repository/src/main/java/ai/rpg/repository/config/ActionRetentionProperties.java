@@ -0,0 +1,33 @@
+package ai.rpg.repository.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "game.action-retention")
+public record ActionRetentionProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("90d") Duration maxAge,
+    @DefaultValue("1h") Duration runInterval,
+    @DefaultValue("5000") int chunkSize,
+    @DefaultValue("100ms") Duration chunkPause
+) {
+    // Each chunk's IDs are bound as one IN list; stay well inside driver parameter limits
+    public static final int MAX_CHUNK_SIZE = 10_000;
+
+    public ActionRetentionProperties {
+        if (maxAge == null || maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Action retention max age must be positive");
+        }
+        if (runInterval == null || runInterval.isNegative() || runInterval.isZero()) {
+            throw new IllegalArgumentException("Action retention run interval must be positive");
+        }
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Action retention chunk size must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        if (chunkPause == null || chunkPause.isNegative()) {
+            throw new IllegalArgumentException("Action retention chunk pause must not be negative");
+        }
+    }
+}
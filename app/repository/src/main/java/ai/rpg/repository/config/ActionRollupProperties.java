@@ -0,0 +1,15 @@
+package ai.rpg.repository.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "game.action-rollups")
+public record ActionRollupProperties(
+    @DefaultValue("5000") int rebuildPageSize
+) {
+    public ActionRollupProperties {
+        if (rebuildPageSize <= 0) {
+            throw new IllegalArgumentException("Action rollup rebuild page size must be positive");
+        }
+    }
+}
@@ -8,6 +8,15 @@ import org.springframework.context.annotation.Configuration;
     ClaudeProperties.class,
     OpenAiProperties.class,
     DatabaseProperties.class,
-    RedisProperties.class
+    RedisProperties.class,
+    SessionCacheProperties.class,
+    SessionHeartbeatProperties.class,
+    SessionExecutorProperties.class,
+    CompletionCacheProperties.class,
+    LlmGatewayProperties.class,
+    ActionJournalProperties.class,
+    ActionRetentionProperties.class,
+    SessionReaperProperties.class,
+    ActionRollupProperties.class
 })
 public class AppConfig {} 
\ No newline at end of file
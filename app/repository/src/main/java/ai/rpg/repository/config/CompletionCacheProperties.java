@@ -0,0 +1,21 @@
+package ai.rpg.repository.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "game.llm-cache")
+public record CompletionCacheProperties(
+    @DefaultValue("10m") Duration ttl,
+    @DefaultValue("10000") int maxEntries
+) {
+    public CompletionCacheProperties {
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("Completion cache TTL cannot be negative");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Completion cache size must be positive");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ai.rpg.repository.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "game.llm-gateway")
+public record LlmGatewayProperties(
+    @DefaultValue("8") int maxConcurrency,
+    @DefaultValue("32") int queueCapacity,
+    Map<String, Integer> providerConcurrency,
+    @DefaultValue("5s") Duration connectTimeout,
+    @DefaultValue("30s") Duration readTimeout,
+    @DefaultValue("60s") Duration totalTimeout,
+    @DefaultValue("30s") Duration streamIdleTimeout,
+    @DefaultValue("10m") Duration streamTimeout,
+    @DefaultValue("50") int maxConnections,
+    @DefaultValue("45s") Duration maxIdleTime,
+    @DefaultValue("5m") Duration maxLifeTime
+) {
+    public LlmGatewayProperties {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Gateway concurrency must be positive");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("Gateway queue capacity cannot be negative");
+        }
+        providerConcurrency = providerConcurrency == null ? Map.of() : Map.copyOf(providerConcurrency);
+        if (providerConcurrency.values().stream().anyMatch(limit -> limit <= 0)) {
+            throw new IllegalArgumentException("Provider concurrency must be positive");
+        }
+        if (!isPositive(connectTimeout) || !isPositive(readTimeout) || !isPositive(totalTimeout)
+                || !isPositive(streamIdleTimeout) || !isPositive(streamTimeout)) {
+            throw new IllegalArgumentException("Gateway timeouts must be positive");
+        }
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Gateway connection pool size must be positive");
+        }
+        if (!isPositive(maxIdleTime) || !isPositive(maxLifeTime)) {
+            throw new IllegalArgumentException("Gateway connection lifetimes must be positive");
+        }
+    }
+
+    /**
+     * Concurrency limit for a provider, falling back to the gateway-wide default
+     */
+    public int concurrencyFor(String provider) {
+        return providerConcurrency.getOrDefault(provider, maxConcurrency);
+    }
+
+    private static boolean isPositive(Duration duration) {
+        return duration != null && !duration.isNegative() && !duration.isZero();
+    }
+}
@@ -0,0 +1,20 @@
+package ai.rpg.repository.config;
+
+import ai.rpg.core.domain.ActionDigest;
+import ai.rpg.core.domain.PlayerContext;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.boot.jackson.JsonMixin;
+
+/**
+ * Leaves the running {@link ActionDigest} out of the JSON of {@link PlayerContext}.
+ *
+ * The digest is a cache for prompt building that is rebuilt from the action history
+ * on load, not part of the API. The core module has no Jackson dependency, so the
+ * annotation is declared here.
+ */
+@JsonMixin(PlayerContext.class)
+abstract class PlayerContextJsonMixin {
+
+    @JsonIgnore
+    abstract ActionDigest digest();
+}
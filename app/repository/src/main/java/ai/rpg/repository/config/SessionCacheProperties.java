@@ -0,0 +1,21 @@
+package ai.rpg.repository.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "game.session-cache")
+public record SessionCacheProperties(
+    @DefaultValue("10000") int maxSize,
+    @DefaultValue("5s") Duration flushInterval
+) {
+    public SessionCacheProperties {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Session cache max size must be positive");
+        }
+        if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Session cache flush interval must be positive");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ai.rpg.repository.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "game.session-executor")
+public record SessionExecutorProperties(
+    @DefaultValue("64") int stripes,
+    @DefaultValue("256") int queueCapacity
+) {
+    public SessionExecutorProperties {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Executor stripe count must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Executor queue capacity must be positive");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ai.rpg.repository.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "game.session-heartbeat")
+public record SessionHeartbeatProperties(
+    @DefaultValue("30s") Duration flushInterval,
+    @DefaultValue("1000") int maxBatchSize
+) {
+    public SessionHeartbeatProperties {
+        if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Heartbeat flush interval must be positive");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Heartbeat batch size must be positive");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ai.rpg.repository.config;
+
+import ai.rpg.core.domain.SessionMetrics;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.boot.jackson.JsonMixin;
+
+/**
+ * Keeps the per-category totals in the JSON of {@link SessionMetrics}.
+ *
+ * They used to be record components and are now derived from the per-type counts,
+ * which Jackson does not serialize on its own. The core module has no Jackson
+ * dependency, so the properties are declared here.
+ */
+@JsonMixin(SessionMetrics.class)
+abstract class SessionMetricsJsonMixin {
+
+    @JsonProperty("totalActions")
+    abstract int totalActions();
+
+    @JsonProperty("combatActions")
+    abstract int combatActions();
+
+    @JsonProperty("socialActions")
+    abstract int socialActions();
+
+    @JsonProperty("exploreActions")
+    abstract int exploreActions();
+}
@@ -0,0 +1,35 @@
+package ai.rpg.repository.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "game.session-reaper")
+public record SessionReaperProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("30m") Duration idleTimeout,
+    @DefaultValue("30d") Duration expireAfter,
+    @DefaultValue("5m") Duration runInterval,
+    @DefaultValue("200") int batchSize,
+    @DefaultValue("5s") Duration timeBudget
+) {
+    public SessionReaperProperties {
+        if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Session reaper idle timeout must be positive");
+        }
+        if (expireAfter == null || expireAfter.compareTo(idleTimeout) <= 0) {
+            throw new IllegalArgumentException("Session reaper expiry must be longer than the idle timeout");
+        }
+        if (runInterval == null || runInterval.isNegative() || runInterval.isZero()) {
+            throw new IllegalArgumentException("Session reaper run interval must be positive");
+        }
+        if (batchSize <= 0 || batchSize > ActionRetentionProperties.MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException(
+                "Session reaper batch size must be between 1 and " + ActionRetentionProperties.MAX_CHUNK_SIZE);
+        }
+        if (timeBudget == null || timeBudget.isNegative() || timeBudget.isZero()) {
+            throw new IllegalArgumentException("Session reaper time budget must be positive");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ai.rpg.repository.controller;
+
+import ai.rpg.core.domain.GameResponse;
+import ai.rpg.repository.service.ActionAnalyticsService;
+import ai.rpg.repository.service.ActionRollups;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    private final ActionAnalyticsService analytics;
+    private final ActionRollups rollups;
+
+    public AnalyticsController(ActionAnalyticsService analytics, ActionRollups rollups) {
+        this.analytics = analytics;
+        this.rollups = rollups;
+    }
+
+    @GetMapping("/actions/by-type")
+    public ResponseEntity<GameResponse> getActionsByType(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+        try {
+            return ResponseEntity.ok(GameResponse.success("Action counts retrieved successfully", null,
+                    Map.of("counts", analytics.countByType(start, end))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.error("Invalid request", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/locations")
+    public ResponseEntity<GameResponse> getMostActiveLocations(
+            @RequestParam(defaultValue = "168") long windowHours,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(GameResponse.success("Locations retrieved successfully", null,
+                    Map.of("locations", analytics.mostActiveLocations(windowHours, limit))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.error("Invalid request", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/players/{playerId}")
+    public ResponseEntity<GameResponse> getPlayerBehavior(@PathVariable String playerId) {
+        return ResponseEntity.ok(GameResponse.success("Player behavior retrieved successfully", null,
+                Map.of("counts", analytics.playerBehavior(playerId))));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<GameResponse> rebuildRollups() {
+        ActionRollups.RebuildResult result = rollups.rebuild();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("actions_scanned", result.actionsScanned());
+        body.put("rows_written", result.rowsWritten());
+        body.put("elapsed_ms", result.elapsed().toMillis());
+        return ResponseEntity.ok(GameResponse.success("Rollups rebuilt successfully", null, body));
+    }
+}
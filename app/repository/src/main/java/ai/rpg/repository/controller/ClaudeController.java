@@ -1,9 +1,17 @@
 package ai.rpg.repository.controller;
 
 import ai.rpg.repository.ai.ClaudeClientService;
+import ai.rpg.repository.ai.LlmGatewayRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.TimeoutException;
+
 @RestController
 @RequestMapping("/api/claude")
 public class ClaudeController {
@@ -17,4 +25,23 @@ public class ClaudeController {
     public Mono<String> chat(@RequestBody String prompt) {
         return claudeClientService.getChatCompletion(prompt);
     }
-} 
\ No newline at end of file
+
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> chatStream(@RequestBody String prompt) {
+        return claudeClientService.streamChatCompletion(prompt)
+            .map(token -> ServerSentEvent.builder(token).event("token").build())
+            .concatWithValues(ServerSentEvent.<String>builder().event("done").build());
+    }
+
+    @ExceptionHandler(LlmGatewayRejectedException.class)
+    public ResponseEntity<String> handleRejected(LlmGatewayRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", "1")
+            .body(e.getMessage());
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<String> handleTimeout(TimeoutException e) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(e.getMessage());
+    }
+}
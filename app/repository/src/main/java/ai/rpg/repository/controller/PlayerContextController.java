@@ -5,14 +5,24 @@ import ai.rpg.core.domain.PlayerCommand;
 import ai.rpg.core.domain.GameResponse;
 import ai.rpg.persistence.entity.PlayerContextEntity;
 import ai.rpg.persistence.mapper.PlayerContextMapper;
+import ai.rpg.repository.cache.SessionCache;
+import ai.rpg.repository.cache.SessionHeartbeat;
+import ai.rpg.repository.executor.SessionActionExecutor;
 import ai.rpg.repository.repository.PlayerContextRepository;
 import ai.rpg.repository.service.AIPromptService;
+import ai.rpg.repository.service.ActionHistoryService;
+import ai.rpg.repository.service.SessionMetricsService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.Map;
 import org.springframework.http.HttpStatus;
 
@@ -22,14 +32,29 @@ public class PlayerContextController {
     private final PlayerContextRepository repository;
     private final PlayerContextMapper mapper;
     private final AIPromptService aiPromptService;
+    private final SessionCache sessionCache;
+    private final SessionHeartbeat heartbeat;
+    private final SessionActionExecutor sessionExecutor;
+    private final SessionMetricsService sessionMetrics;
+    private final ActionHistoryService actionHistory;
 
     public PlayerContextController(
             PlayerContextRepository repository, 
             PlayerContextMapper mapper,
-            AIPromptService aiPromptService) {
+            AIPromptService aiPromptService,
+            SessionCache sessionCache,
+            SessionHeartbeat heartbeat,
+            SessionActionExecutor sessionExecutor,
+            SessionMetricsService sessionMetrics,
+            ActionHistoryService actionHistory) {
         this.repository = repository;
         this.mapper = mapper;
         this.aiPromptService = aiPromptService;
+        this.sessionCache = sessionCache;
+        this.heartbeat = heartbeat;
+        this.sessionExecutor = sessionExecutor;
+        this.sessionMetrics = sessionMetrics;
+        this.actionHistory = actionHistory;
     }
 
     @PostMapping("/session/create")
@@ -44,7 +69,11 @@ public class PlayerContextController {
         List<PlayerContextEntity> activeSessions = repository.findActiveSessionsByPlayerId(command.getPlayerId());
         if (!activeSessions.isEmpty()) {
             // Deactivate existing sessions
-            activeSessions.forEach(session -> repository.deactivateSession(session.getSessionId()));
+            // Flush pending changes before the UPDATE locks the row the flush writes
+            activeSessions.forEach(session -> {
+                sessionCache.invalidate(session.getSessionId());
+                repository.deactivateSession(session.getSessionId());
+            });
         }
 
         // Create new session
@@ -53,66 +82,124 @@ public class PlayerContextController {
         newSession.getCharacter().setName(command.getPlayerName());
         newSession.setSessionId(UUID.randomUUID().toString());
         newSession = repository.save(newSession);
+        PlayerContext context = mapper.toPlayerContext(newSession);
+        sessionCache.prime(context);
         
         return ResponseEntity.ok(GameResponse.success(
             String.format("Welcome to the adventure, %s! Your journey begins in a small village.", command.getPlayerName()),
             newSession.getSessionId(),
-            mapper.toPlayerContext(newSession)
+            context
         ));
     }
 
     @PostMapping("/game/action")
-    @Transactional
-    public ResponseEntity<GameResponse> handleGameAction(@RequestBody PlayerCommand command) {
+    public CompletableFuture<ResponseEntity<GameResponse>> handleGameAction(@RequestBody PlayerCommand command) {
         if (command.getSessionId() == null || command.getCommand() == null) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(GameResponse.error("Invalid request", "SessionID and Command are required"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.error("Invalid request", "SessionID and Command are required")));
         }
 
-        return repository.findBySessionId(command.getSessionId())
-                .map(entity -> {
-                    repository.updateLastAccess(command.getSessionId());
+        // Commands for the same session run one at a time, in arrival order
+        return sessionExecutor.submit(command.getSessionId(), () -> processGameAction(command))
+                .exceptionally(this::actionFailure);
+    }
+
+    private ResponseEntity<GameResponse> processGameAction(PlayerCommand command) {
+        return sessionCache.get(command.getSessionId())
+                .map(context -> {
+                    heartbeat.touch(command.getSessionId());
                     // TODO: Process game command and update context
                     return ResponseEntity.ok(GameResponse.success(
                         "Action processed successfully",
                         command.getSessionId(),
-                        mapper.toPlayerContext(entity)
+                        context
                     ));
                 })
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(GameResponse.error("Session not found", "Invalid session ID")));
     }
 
+    private ResponseEntity<GameResponse> actionFailure(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(GameResponse.error("Server busy", "Too many pending actions, retry shortly"));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(GameResponse.error("Failed to process action", cause.getMessage()));
+    }
+
     @GetMapping("/game/status")
     public ResponseEntity<GameResponse> getGameStatus(@RequestParam String sessionId) {
-        return repository.findBySessionId(sessionId)
-                .map(entity -> {
-                    repository.updateLastAccess(sessionId);
+        return sessionCache.get(sessionId)
+                .map(context -> {
+                    heartbeat.touch(sessionId);
                     return ResponseEntity.ok(GameResponse.success(
                         "Context retrieved successfully",
                         sessionId,
-                        mapper.toPlayerContext(entity)
+                        context
                     ));
                 })
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(GameResponse.error("Session not found", "Invalid session ID")));
     }
 
+    @GetMapping("/game/history")
+    public ResponseEntity<GameResponse> getActionHistory(
+            @RequestParam String sessionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return actionHistory.page(sessionId, cursor, limit)
+                    .map(page -> {
+                        Map<String, Object> body = new LinkedHashMap<>();
+                        body.put("actions", page.actions());
+                        body.put("next_cursor", page.nextCursor());
+                        return ResponseEntity.ok(GameResponse.success("History retrieved successfully", sessionId, body));
+                    })
+                    .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(GameResponse.error("Session not found", "Invalid session ID")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.error("Invalid request", e.getMessage()));
+        }
+    }
+
     @GetMapping("/metrics")
-    public ResponseEntity<GameResponse> getMetrics() {
-        List<PlayerContext> activeSessions = repository.findAllActiveSessions()
-                .stream()
-                .map(mapper::toPlayerContext)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(GameResponse.success(
-            "Metrics retrieved successfully",
-            null,
-            Map.of(
-                "active_sessions", activeSessions.size(),
-                "sessions", activeSessions
-            )
-        ));
+    public ResponseEntity<GameResponse> getMetrics(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean countOnly) {
+        if (countOnly) {
+            return ResponseEntity.ok(GameResponse.success(
+                "Metrics retrieved successfully",
+                null,
+                Map.of("active_sessions", sessionMetrics.countActiveSessions())
+            ));
+        }
+
+        try {
+            SessionMetricsService.SessionPage page = sessionMetrics.page(cursor, limit);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("active_sessions", sessionMetrics.countActiveSessions());
+            body.put("page_size", page.sessions().size());
+            body.put("sessions", page.sessions());
+            body.put("next_cursor", page.nextCursor());
+            return ResponseEntity.ok(GameResponse.success("Metrics retrieved successfully", null, body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(GameResponse.error("Invalid request", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/metrics/sessions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamActiveSessions() {
+        StreamingResponseBody body = sessionMetrics::streamActiveSessions;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @GetMapping("/ai/prompt")
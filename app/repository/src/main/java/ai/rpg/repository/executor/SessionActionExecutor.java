@@ -0,0 +1,172 @@
+package ai.rpg.repository.executor;
+
+import ai.rpg.repository.config.SessionExecutorProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs game commands serialized per session and in parallel across sessions.
+ *
+ * Sessions are hashed onto a fixed number of stripes. Each stripe is a single
+ * virtual thread draining a bounded FIFO queue, so commands for one session run
+ * strictly in submission order while different stripes run concurrently. When a
+ * stripe's queue is full, submission fails fast with {@link RejectedExecutionException}.
+ */
+@Component
+public class SessionActionExecutor implements MeterBinder {
+    private final Stripe[] stripes;
+
+    public SessionActionExecutor(SessionExecutorProperties properties) {
+        this.stripes = new Stripe[properties.stripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(i, properties.queueCapacity());
+        }
+    }
+
+    /**
+     * Queue a task behind all earlier tasks for the same session
+     */
+    public <T> CompletableFuture<T> submit(String sessionId, Supplier<T> task) {
+        return stripeFor(sessionId).submit(task);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (Stripe stripe : stripes) {
+            stripe.executor.shutdown();
+        }
+        for (Stripe stripe : stripes) {
+            stripe.executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private Stripe stripeFor(String sessionId) {
+        int hash = sessionId.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    /**
+     * Point-in-time statistics for one stripe
+     */
+    public record StripeStats(
+        int stripe,
+        int queueDepth,
+        long submitted,
+        long completed,
+        long rejected,
+        double meanWaitMillis,
+        double maxWaitMillis
+    ) {}
+
+    public List<StripeStats> stats() {
+        List<StripeStats> result = new ArrayList<>(stripes.length);
+        for (Stripe stripe : stripes) {
+            result.add(stripe.stats());
+        }
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Stripe stripe : stripes) {
+            Tags tags = Tags.of("stripe", Integer.toString(stripe.index));
+            Gauge.builder("game.session.executor.queue.depth", stripe.depth, AtomicInteger::get)
+                .tags(tags)
+                .register(registry);
+            Gauge.builder("game.session.executor.wait.max", stripe.maxWaitNanos, nanos -> nanos.get() / 1_000_000.0)
+                .tags(tags)
+                .baseUnit("milliseconds")
+                .register(registry);
+            FunctionCounter.builder("game.session.executor.wait.total", stripe.totalWaitNanos, nanos -> nanos.sum() / 1_000_000.0)
+                .tags(tags)
+                .baseUnit("milliseconds")
+                .register(registry);
+            FunctionCounter.builder("game.session.executor.completed", stripe.completed, LongAdder::sum)
+                .tags(tags)
+                .register(registry);
+            FunctionCounter.builder("game.session.executor.rejected", stripe.rejected, LongAdder::sum)
+                .tags(tags)
+                .register(registry);
+        }
+    }
+
+    private static final class Stripe {
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        private final AtomicInteger depth = new AtomicInteger();
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        Stripe(int index, int queueCapacity) {
+            this.index = index;
+            // One worker per stripe keeps FIFO order; a virtual thread keeps idle stripes cheap
+            this.executor = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("session-stripe-" + index).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<T> task) {
+            long enqueuedAt = System.nanoTime();
+            CompletableFuture<T> result = new CompletableFuture<>();
+            depth.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    depth.decrementAndGet();
+                    long waitNanos = System.nanoTime() - enqueuedAt;
+                    totalWaitNanos.add(waitNanos);
+                    maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+                    try {
+                        result.complete(task.get());
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                    } finally {
+                        completed.increment();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                depth.decrementAndGet();
+                rejected.increment();
+                result.completeExceptionally(e);
+                return result;
+            }
+            submitted.increment();
+            return result;
+        }
+
+        StripeStats stats() {
+            long done = completed.sum();
+            return new StripeStats(
+                index,
+                depth.get(),
+                submitted.sum(),
+                done,
+                rejected.sum(),
+                done == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / done,
+                maxWaitNanos.get() / 1_000_000.0
+            );
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ai.rpg.repository.journal;
+
+import ai.rpg.core.domain.ActionCategory;
+import ai.rpg.core.domain.ActionCounters;
+import ai.rpg.core.domain.ActionEvent;
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.journal.ActionJournal;
+import ai.rpg.persistence.journal.JournalRecord;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Entry point for persisting a player's action.
+ *
+ * With the action journal enabled the caller waits only for a durable local append
+ * and the drainer loads the event into the database later; otherwise the event is
+ * inserted synchronously.
+ */
+@Component
+public class ActionEventRecorder implements MeterBinder {
+    private final ObjectProvider<ActionJournal> journal;
+    private final JpaJournalSink sink;
+    private final ActionCounters recorded = new ActionCounters();
+
+    public ActionEventRecorder(ObjectProvider<ActionJournal> journal, JpaJournalSink sink) {
+        this.journal = journal;
+        this.sink = sink;
+    }
+
+    public void record(String sessionId, ActionEvent event) {
+        JournalRecord record = new JournalRecord(sessionId, event);
+        ActionJournal active = journal.getIfAvailable();
+        if (active == null) {
+            sink.write(List.of(record));
+        } else {
+            try {
+                active.sync(active.append(record));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to journal action " + event.id(), e);
+            }
+        }
+        recorded.increment(event.type());
+    }
+
+    /**
+     * Actions recorded by this server since startup, per type
+     */
+    public ActionCounters recorded() {
+        return recorded;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ActionType type : ActionType.values()) {
+            FunctionCounter.builder("game.actions.recorded", recorded, counters -> counters.count(type))
+                .tag("type", type.getValue())
+                .tag("category", ActionCategory.of(type).name().toLowerCase(Locale.ROOT))
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ai.rpg.repository.journal;
+
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.persistence.journal.JournalRecord;
+import ai.rpg.persistence.journal.JournalSink;
+import ai.rpg.persistence.mapper.PlayerContextMapper;
+import ai.rpg.repository.repository.ActionEventRepository;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import ai.rpg.repository.repository.PlayerContextRepository.SessionKey;
+import ai.rpg.repository.service.ActionRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stores action events in action_events with one batched insert per call.
+ *
+ * Events already present (a replayed batch) are skipped by action ID, and events
+ * for sessions that no longer exist are dropped. The stored events are counted into
+ * the analytics rollups in the same transaction. A batch that loses a race to create
+ * a rollup row is retried once; the events it tried to insert were rolled back.
+ */
+@Component
+public class JpaJournalSink implements JournalSink {
+    private static final Logger log = LoggerFactory.getLogger(JpaJournalSink.class);
+
+    private final ActionEventRepository actionEvents;
+    private final PlayerContextRepository playerContexts;
+    private final PlayerContextMapper mapper;
+    private final ActionRollups rollups;
+    private final TransactionTemplate transaction;
+
+    public JpaJournalSink(
+            ActionEventRepository actionEvents,
+            PlayerContextRepository playerContexts,
+            PlayerContextMapper mapper,
+            ActionRollups rollups,
+            PlatformTransactionManager transactionManager) {
+        this.actionEvents = actionEvents;
+        this.playerContexts = playerContexts;
+        this.mapper = mapper;
+        this.rollups = rollups;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void write(List<JournalRecord> records) {
+        try {
+            transaction.executeWithoutResult(status -> rollups.record(store(records)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Retrying action batch after a concurrent rollup insert", e);
+            transaction.executeWithoutResult(status -> rollups.record(store(records)));
+        }
+    }
+
+    private List<ActionEventEntity> store(List<JournalRecord> records) {
+        Set<String> sessionIds = records.stream().map(JournalRecord::sessionId).collect(Collectors.toSet());
+        Map<String, SessionKey> sessions = playerContexts.findSessionKeys(sessionIds).stream()
+            .collect(Collectors.toMap(SessionKey::getSessionId, Function.identity()));
+        Set<String> stored = new HashSet<>(actionEvents.findExistingActionIds(
+            records.stream().map(record -> record.event().id()).toList()));
+
+        List<ActionEventEntity> entities = new ArrayList<>(records.size());
+        int orphaned = 0;
+        for (JournalRecord record : records) {
+            if (!stored.add(record.event().id())) {
+                continue;
+            }
+            SessionKey session = sessions.get(record.sessionId());
+            if (session == null) {
+                orphaned++;
+                continue;
+            }
+            ActionEventEntity entity = mapper.actionEventToEntity(record.event());
+            entity.setPlayerId(session.getPlayerId());
+            entity.setPlayerContext(playerContexts.getReferenceById(session.getId()));
+            entities.add(entity);
+        }
+        if (orphaned > 0) {
+            log.warn("Dropped {} journaled actions for sessions that no longer exist", orphaned);
+        }
+        actionEvents.saveAll(entities);
+        return entities;
+    }
+}
@@ -1,18 +1,125 @@
 package ai.rpg.repository.repository;
 
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.OutcomeFlags;
 import ai.rpg.persistence.entity.ActionEventEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ActionEventRepository extends JpaRepository<ActionEventEntity, Long> {
     List<ActionEventEntity> findByPlayerId(String playerId);
     @Query("SELECT a FROM ActionEventEntity a WHERE a.playerId = :playerId AND a.type = :type")
-    List<ActionEventEntity> findByPlayerIdAndType(@Param("playerId") String playerId, @Param("type") ai.rpg.core.domain.ActionType type);
+    List<ActionEventEntity> findByPlayerIdAndType(@Param("playerId") String playerId, @Param("type") ActionType type);
     List<ActionEventEntity> findByPlayerIdAndTimestampBetween(String playerId, Instant start, Instant end);
+    @Query("SELECT a.actionId FROM ActionEventEntity a WHERE a.actionId IN :actionIds")
+    List<String> findExistingActionIds(@Param("actionIds") Collection<String> actionIds);
+    
+    /**
+     * First keyset page of a session's history, newest first; ties on timestamp are broken by ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT a FROM ActionEventEntity a WHERE a.playerContext.sessionId = :sessionId " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<ActionEventEntity> findLatestBySessionId(@Param("sessionId") String sessionId, Pageable page);
+    
+    /**
+     * Next keyset page: actions strictly older than the (timestamp, id) of the last row already seen
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT a FROM ActionEventEntity a WHERE a.playerContext.sessionId = :sessionId " +
+           "AND (a.timestamp < :timestamp OR (a.timestamp = :timestamp AND a.id < :id)) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<ActionEventEntity> findBySessionIdBefore(@Param("sessionId") String sessionId,
+                                                  @Param("timestamp") Instant timestamp,
+                                                  @Param("id") Long id,
+                                                  Pageable page);
+    
+    /**
+     * IDs of the oldest actions before the cutoff, oldest first, for one retention chunk
+     */
+    @Query("SELECT a.id FROM ActionEventEntity a WHERE a.timestamp < :cutoff ORDER BY a.timestamp, a.id")
+    List<Long> findIdsBefore(@Param("cutoff") Instant cutoff, Pageable page);
+    
+    /**
+     * Bulk delete by primary key; no entity is loaded
+     */
+    @Modifying
+    @Query("DELETE FROM ActionEventEntity a WHERE a.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Bulk delete every action of the given sessions
+     */
+    @Modifying
+    @Query("DELETE FROM ActionEventEntity a WHERE a.playerContext.id IN :contextIds")
+    int deleteByPlayerContextIds(@Param("contextIds") Collection<Long> contextIds);
+    
+    /**
+     * Newest actions whose outcome bitmask is one of the given masks
+     */
+    @Query("SELECT a FROM ActionEventEntity a WHERE a.outcomeFlags IN :masks ORDER BY a.timestamp DESC")
+    List<ActionEventEntity> findByOutcomeMasks(@Param("masks") Collection<Integer> masks, Pageable page);
+    
+    /**
+     * Newest successful actions (success or victory)
+     */
+    default List<ActionEventEntity> findSuccessfulActions(Pageable page) {
+        return findByOutcomeMasks(OutcomeFlags.masksWithAny(OutcomeFlags.SUCCESSFUL), page);
+    }
+    
+    /**
+     * Newest combat actions
+     */
+    default List<ActionEventEntity> findCombatActions(Pageable page) {
+        return findByOutcomeMasks(OutcomeFlags.masksWithAny(OutcomeFlags.COMBAT), page);
+    }
+    
+    /**
+     * Next batch of rows written before outcome flags existed, in ID order
+     */
+    @Query("SELECT a.id as id, a.type as type, a.consequences as consequences " +
+           "FROM ActionEventEntity a WHERE a.outcomeFlags IS NULL ORDER BY a.id")
+    List<UnclassifiedAction> findUnclassified(Pageable page);
+    
+    @Modifying
+    @Query("UPDATE ActionEventEntity a SET a.outcomeFlags = :flags WHERE a.id IN :ids")
+    int setOutcomeFlags(@Param("ids") Collection<Long> ids, @Param("flags") int flags);
+    
+    /**
+     * Next batch of the fields rollups are keyed by, in ID order, for a rollup rebuild
+     */
+    @Query("SELECT a.id as id, a.timestamp as timestamp, a.type as type, a.location as location, " +
+           "a.playerId as playerId FROM ActionEventEntity a WHERE a.id > :afterId ORDER BY a.id")
+    List<RollupSource> findRollupSourcesAfter(@Param("afterId") long afterId, Pageable page);
+    
+    interface TypeCount {
+        ActionType getType();
+        Long getTotal();
+    }
+    
+    interface RollupSource {
+        Long getId();
+        Instant getTimestamp();
+        ActionType getType();
+        String getLocation();
+        String getPlayerId();
+    }
+    
+    interface UnclassifiedAction {
+        Long getId();
+        ActionType getType();
+        List<String> getConsequences();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,45 @@
+package ai.rpg.repository.repository;
+
+import ai.rpg.persistence.entity.ActionLocationRollupEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ActionLocationRollupRepository
+        extends JpaRepository<ActionLocationRollupEntity, ActionLocationRollupEntity.Key> {
+
+    /**
+     * Add to an existing bucket; returns 0 if the bucket has no row yet
+     */
+    @Modifying
+    @Query("UPDATE ActionLocationRollupEntity r SET r.actionCount = r.actionCount + :delta " +
+           "WHERE r.id.bucketStart = :bucketStart AND r.id.location = :location")
+    int increment(@Param("bucketStart") Instant bucketStart, @Param("location") String location, @Param("delta") long delta);
+
+    /**
+     * Raise an existing bucket to at least the given count; returns 0 if it has no row or is already there
+     */
+    @Modifying
+    @Query("UPDATE ActionLocationRollupEntity r SET r.actionCount = :count " +
+           "WHERE r.id.bucketStart = :bucketStart AND r.id.location = :location AND r.actionCount < :count")
+    int raiseTo(@Param("bucketStart") Instant bucketStart, @Param("location") String location, @Param("count") long count);
+
+    /**
+     * Busiest locations over the buckets starting at or after {@code from}, busiest first
+     */
+    @Query("SELECT r.id.location as location, SUM(r.actionCount) as total FROM ActionLocationRollupEntity r " +
+           "WHERE r.id.bucketStart >= :from GROUP BY r.id.location ORDER BY SUM(r.actionCount) DESC")
+    List<LocationCount> findMostActiveLocations(@Param("from") Instant from, Pageable page);
+
+    interface LocationCount {
+        String getLocation();
+        Long getTotal();
+    }
+}
@@ -0,0 +1,39 @@
+package ai.rpg.repository.repository;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.entity.ActionTypeRollupEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ActionTypeRollupRepository extends JpaRepository<ActionTypeRollupEntity, ActionTypeRollupEntity.Key> {
+
+    /**
+     * Add to an existing bucket; returns 0 if the bucket has no row yet
+     */
+    @Modifying
+    @Query("UPDATE ActionTypeRollupEntity r SET r.actionCount = r.actionCount + :delta " +
+           "WHERE r.id.bucketStart = :bucketStart AND r.id.type = :type")
+    int increment(@Param("bucketStart") Instant bucketStart, @Param("type") ActionType type, @Param("delta") long delta);
+
+    /**
+     * Raise an existing bucket to at least the given count; returns 0 if it has no row or is already there
+     */
+    @Modifying
+    @Query("UPDATE ActionTypeRollupEntity r SET r.actionCount = :count " +
+           "WHERE r.id.bucketStart = :bucketStart AND r.id.type = :type AND r.actionCount < :count")
+    int raiseTo(@Param("bucketStart") Instant bucketStart, @Param("type") ActionType type, @Param("count") long count);
+
+    /**
+     * Counts per type over the buckets starting in [from, to)
+     */
+    @Query("SELECT r.id.type as type, SUM(r.actionCount) as total FROM ActionTypeRollupEntity r " +
+           "WHERE r.id.bucketStart >= :from AND r.id.bucketStart < :to GROUP BY r.id.type")
+    List<ActionEventRepository.TypeCount> sumByType(@Param("from") Instant from, @Param("to") Instant to);
+}
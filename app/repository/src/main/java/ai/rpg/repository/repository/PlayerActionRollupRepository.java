@@ -0,0 +1,36 @@
+package ai.rpg.repository.repository;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.entity.PlayerActionRollupEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PlayerActionRollupRepository
+        extends JpaRepository<PlayerActionRollupEntity, PlayerActionRollupEntity.Key> {
+
+    /**
+     * Add to an existing counter; returns 0 if the player has no row for the type yet
+     */
+    @Modifying
+    @Query("UPDATE PlayerActionRollupEntity r SET r.actionCount = r.actionCount + :delta " +
+           "WHERE r.id.playerId = :playerId AND r.id.type = :type")
+    int increment(@Param("playerId") String playerId, @Param("type") ActionType type, @Param("delta") long delta);
+
+    /**
+     * Raise an existing counter to at least the given count; returns 0 if it has no row or is already there
+     */
+    @Modifying
+    @Query("UPDATE PlayerActionRollupEntity r SET r.actionCount = :count " +
+           "WHERE r.id.playerId = :playerId AND r.id.type = :type AND r.actionCount < :count")
+    int raiseTo(@Param("playerId") String playerId, @Param("type") ActionType type, @Param("count") long count);
+
+    @Query("SELECT r.id.type as type, r.actionCount as total FROM PlayerActionRollupEntity r " +
+           "WHERE r.id.playerId = :playerId")
+    List<ActionEventRepository.TypeCount> findByPlayerId(@Param("playerId") String playerId);
+}
@@ -1,17 +1,36 @@
 package ai.rpg.repository.repository;
 
 import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.persistence.repository.PlayerContextRepository.SessionSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.Modifying;
 
 @Repository
-public interface PlayerContextRepository extends JpaRepository<PlayerContextEntity, Long> {
+public interface PlayerContextRepository extends JpaRepository<PlayerContextEntity, Long>, SessionTouchRepository {
     Optional<PlayerContextEntity> findByPlayerId(String playerId);
     Optional<PlayerContextEntity> findBySessionId(String sessionId);
+    boolean existsBySessionId(String sessionId);
+    
+    /**
+     * Load a session and its actions as read-only entities: no snapshot, never dirty-checked
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "actions")
+    @Query("SELECT p FROM PlayerContextEntity p WHERE p.sessionId = ?1")
+    Optional<PlayerContextEntity> findReadOnlyBySessionId(String sessionId);
     
     @Query("SELECT p FROM PlayerContextEntity p WHERE p.playerId = ?1 AND p.isActive = true ORDER BY p.lastUpdate DESC")
     List<PlayerContextEntity> findActiveSessionsByPlayerId(String playerId);
@@ -19,10 +38,71 @@ public interface PlayerContextRepository extends JpaRepository<PlayerContextEnti
     @Query("SELECT p FROM PlayerContextEntity p WHERE p.isActive = true ORDER BY p.lastUpdate DESC")
     List<PlayerContextEntity> findAllActiveSessions();
     
+    @Query("SELECT COUNT(p) FROM PlayerContextEntity p WHERE p.isActive = true")
+    long countAllActiveSessions();
+    
+    /**
+     * Keyset page of active session summaries ordered by session ID, starting after the given ID
+     */
+    @Query("SELECT p.sessionId as sessionId, p.playerId as playerId, p.lastUpdate as lastUpdate, " +
+           "p.location.current as currentLocation, p.sessionStats.totalActions as totalActions " +
+           "FROM PlayerContextEntity p WHERE p.isActive = true AND p.sessionId > ?1 ORDER BY p.sessionId")
+    List<SessionSummary> findActiveSessionSummariesAfter(String afterSessionId, Pageable page);
+    
+    @Modifying
     @Query("UPDATE PlayerContextEntity p SET p.isActive = false WHERE p.sessionId = ?1")
     void deactivateSession(String sessionId);
     
     @Modifying
     @Query("UPDATE PlayerContextEntity p SET p.lastUpdate = CURRENT_INSTANT() WHERE p.sessionId = ?1")
     void updateLastAccess(String sessionId);
+    
+    /**
+     * Primary keys and owners for a set of sessions, without loading the contexts
+     */
+    @Query("SELECT p.id as id, p.sessionId as sessionId, p.playerId as playerId " +
+           "FROM PlayerContextEntity p WHERE p.sessionId IN ?1")
+    List<SessionKey> findSessionKeys(Collection<String> sessionIds);
+    
+    /**
+     * Keys of the longest-idle active sessions last updated before the cutoff, for one reaper batch
+     */
+    @Query("SELECT p.id as id, p.sessionId as sessionId, p.playerId as playerId " +
+           "FROM PlayerContextEntity p WHERE p.isActive = true AND p.lastUpdate < ?1 ORDER BY p.lastUpdate, p.id")
+    List<SessionKey> findIdleSessionKeys(Instant idleBefore, Pageable page);
+    
+    /**
+     * Bulk deactivate; a session touched since it was selected is left active
+     */
+    @Modifying
+    @Query("UPDATE PlayerContextEntity p SET p.isActive = false WHERE p.id IN ?1 AND p.lastUpdate < ?2")
+    int deactivateSessions(Collection<Long> ids, Instant idleBefore);
+    
+    /**
+     * Keys of inactive sessions last updated before the cutoff, oldest first, for one reaper batch
+     */
+    @Query("SELECT p.id as id, p.sessionId as sessionId, p.playerId as playerId " +
+           "FROM PlayerContextEntity p WHERE p.isActive = false AND p.lastUpdate < ?1 ORDER BY p.lastUpdate, p.id")
+    List<SessionKey> findExpiredSessionKeys(Instant expiredBefore, Pageable page);
+    
+    /**
+     * Lock the given sessions that are still inactive and expired, returning their ids.
+     * Held until the deleting transaction ends, so a session cannot be revived in between.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM PlayerContextEntity p WHERE p.id IN ?1 AND p.isActive = false AND p.lastUpdate < ?2")
+    List<Long> lockExpiredSessions(Collection<Long> ids, Instant expiredBefore);
+    
+    /**
+     * Bulk delete by primary key; actions must be deleted first, cascades do not apply
+     */
+    @Modifying
+    @Query("DELETE FROM PlayerContextEntity p WHERE p.id IN ?1 AND p.isActive = false AND p.lastUpdate < ?2")
+    int deleteExpiredSessions(Collection<Long> ids, Instant expiredBefore);
+    
+    interface SessionKey {
+        Long getId();
+        String getSessionId();
+        String getPlayerId();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ai.rpg.repository.repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Heartbeat writes for {@link PlayerContextRepository}, which Spring Data backs with
+ * {@link SessionTouchRepositoryImpl}
+ */
+public interface SessionTouchRepository {
+
+    /**
+     * Move last access forward for many sessions, each to its own time, in one JDBC batch
+     *
+     * @return number of rows updated
+     */
+    int touchSessions(Map<String, Instant> touches);
+}
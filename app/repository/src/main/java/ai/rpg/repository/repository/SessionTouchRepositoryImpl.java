@@ -0,0 +1,46 @@
+package ai.rpg.repository.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.type.descriptor.ValueBinder;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.Map;
+
+class SessionTouchRepositoryImpl implements SessionTouchRepository {
+    private static final String TOUCH_SQL =
+        "UPDATE player_contexts SET last_update = ? WHERE session_id = ? AND last_update < ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int touchSessions(Map<String, Instant> touches) {
+        if (touches.isEmpty()) {
+            return 0;
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        // Bind times exactly as Hibernate binds the entity's Instant attributes for this dialect
+        ValueBinder<Instant> binder = session.getFactory().getTypeConfiguration()
+            .getBasicTypeForJavaType(Instant.class)
+            .getJdbcValueBinder();
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(TOUCH_SQL)) {
+                for (Map.Entry<String, Instant> touch : touches.entrySet()) {
+                    binder.bind(statement, touch.getValue(), 1, session);
+                    statement.setString(2, touch.getKey());
+                    binder.bind(statement, touch.getValue(), 3, session);
+                    statement.addBatch();
+                }
+                int updated = 0;
+                for (int count : statement.executeBatch()) {
+                    // Drivers may report SUCCESS_NO_INFO for batched statements
+                    updated += Math.max(count, 0);
+                }
+                return updated;
+            }
+        });
+    }
+}
@@ -1,57 +1,44 @@
 package ai.rpg.repository.service;
 
 import ai.rpg.core.domain.PlayerContext;
-import ai.rpg.persistence.entity.PlayerContextEntity;
-import ai.rpg.persistence.mapper.PlayerContextMapper;
-import ai.rpg.repository.repository.PlayerContextRepository;
+import ai.rpg.persistence.mapper.NPCContextInfo;
+import ai.rpg.repository.cache.SessionCache;
+import ai.rpg.repository.service.prompt.PromptTemplate;
+import ai.rpg.repository.service.prompt.SlotFormatter;
 import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class AIPromptService {
-    private final PlayerContextRepository repository;
-    private final PlayerContextMapper mapper;
+    private final SessionCache sessionCache;
 
-    public AIPromptService(PlayerContextRepository repository, PlayerContextMapper mapper) {
-        this.repository = repository;
-        this.mapper = mapper;
-    }
-
-    public String generatePrompt(String sessionId) {
-        PlayerContextEntity entity = repository.findBySessionId(sessionId)
-                .orElseThrow(() -> new IllegalArgumentException("Session not found"));
-
-        PlayerContext context = mapper.toPlayerContext(entity);
-        ContextSummary summary = generateContextSummary(context);
-        List<String> recentActions = getRecentActions(context, 3);
-
-        return String.format("""
+    // Compiled once: literal sections (including GM INSTRUCTIONS) are appended verbatim
+    static final PromptTemplate<PromptModel> GM_PROMPT = PromptTemplate.<PromptModel>builder("""
             GAME MASTER CONTEXT
 
             CURRENT GAME STATE:
-            - Location: %s (previously: %s)
-            - Player Health: %s
-            - Player Reputation: %d (%s)
-            - Session Duration: %.1f minutes
-            - Player Mood: %s
+            - Location: {{location}} (previously: {{previousLocation}})
+            - Player Health: {{health}}
+            - Player Reputation: {{reputation}} ({{reputationLabel}})
+            - Session Duration: {{sessionMinutes}} minutes
+            - Player Mood: {{mood}}
 
             RECENT PLAYER ACTIONS:
-            %s
+            {{recentActions}}
 
             ACTIVE NPCS IN AREA:
-            %s
+            {{activeNpcs}}
 
             PLAYER CHARACTER:
-            - Name: %s
-            - Equipment: %s
-            - Recent Focus: %s
+            - Name: {{name}}
+            - Equipment: {{equipment}}
+            - Recent Focus: {{focus}}
 
             WORLD CONTEXT:
-            %s
+            {{world}}
 
             GM INSTRUCTIONS:
             You are the AI Game Master for this fantasy RPG session. Based on the current context:
@@ -62,24 +49,45 @@ public class AIPromptService {
             5. Provide immersive, contextual descriptions
             6. Balance challenge with player agency
 
-            Current situation requires your response as Game Master.""",
-            summary.currentLocation(),
-            formatPreviousLocation(summary.previousLocation()),
-            summary.playerHealth(),
-            summary.playerReputation(),
-            getReputationDescription(summary.playerReputation()),
-            summary.sessionDuration(),
-            summary.playerMood(),
-            formatRecentActions(recentActions),
-            formatActiveNPCs(summary.activeNPCs()),
-            context.character().name(),
-            formatEquipment(context),
-            determinePlayerFocus(context),
-            formatWorldContext(summary.worldState())
-        );
+            Current situation requires your response as Game Master.""")
+        .slot("location", SlotFormatter.text(m -> m.summary().currentLocation()))
+        .slot("previousLocation", SlotFormatter.text(m -> formatPreviousLocation(m.summary().previousLocation())))
+        .slot("health", SlotFormatter.text(m -> m.summary().playerHealth()))
+        .slot("reputation", SlotFormatter.integer(m -> m.summary().playerReputation()))
+        .slot("reputationLabel", SlotFormatter.text(m -> getReputationDescription(m.summary().playerReputation())))
+        .slot("sessionMinutes", SlotFormatter.oneDecimal(m -> m.summary().sessionDuration()))
+        .slot("mood", SlotFormatter.text(m -> m.summary().playerMood()))
+        .slot("recentActions", SlotFormatter.lines(PromptModel::recentActions))
+        .slot("activeNpcs", SlotFormatter.text(m -> formatActiveNPCs(m.summary().activeNPCs())))
+        .slot("name", SlotFormatter.text(m -> m.context().character().name()))
+        .slot("equipment", SlotFormatter.text(m -> formatEquipment(m.context())))
+        .slot("focus", SlotFormatter.text(m -> determinePlayerFocus(m.context())))
+        .slot("world", SlotFormatter.bulletedEntries(m -> m.summary().worldState()))
+        .build();
+
+    public AIPromptService(SessionCache sessionCache) {
+        this.sessionCache = sessionCache;
+    }
+
+    /**
+     * Render the prompt from the cached session, which is newer than the database
+     * while writes are pending; misses load through the read-only path.
+     */
+    public String generatePrompt(String sessionId) {
+        PlayerContext context = sessionCache.get(sessionId)
+                .orElseThrow(() -> new IllegalArgumentException("Session not found"));
+
+        return renderPrompt(context);
+    }
+
+    String renderPrompt(PlayerContext context) {
+        ContextSummary summary = generateContextSummary(context);
+        return GM_PROMPT.render(new PromptModel(context, summary, getRecentActions(context, 3)));
     }
 
-    private ContextSummary generateContextSummary(PlayerContext context) {
+    static ContextSummary generateContextSummary(PlayerContext context) {
+        // Everything action-derived comes from the digest, the location index and the session
+        // counters: no history scan per prompt
         return new ContextSummary(
             context.location().current(),
             context.location().previous(), // TODO: Add previous location tracking
@@ -88,26 +96,26 @@ public class AIPromptService {
             Duration.between(context.startTime(), Instant.now()).toMinutes(),
             determinePlayerMood(context),
             getRecentActions(context, 5),
-            List.of(), // TODO: Add NPC tracking
+            NPCContextInfo.activeIn(context),
             Map.of(
-                "locations_visited", 1, // TODO: Add location tracking
-                "total_actions", 0, // TODO: Add action tracking
-                "combat_experienced", false,
-                "social_active", false
+                "locations_visited", context.location().locationsVisited(),
+                "total_actions", context.sessionStats().totalActions(),
+                "combat_experienced", context.sessionStats().combatActions() > 0,
+                "social_active", context.sessionStats().socialActions() > 0
             )
         );
     }
 
-    private List<String> getRecentActions(PlayerContext context, int count) {
-        // TODO: Implement action history tracking
-        return List.of("No recent actions");
+    static List<String> getRecentActions(PlayerContext context, int count) {
+        List<String> recent = context.digest().latestActions(count);
+        return recent.isEmpty() ? List.of("No recent actions") : recent;
     }
 
-    private String formatPreviousLocation(String previous) {
+    static String formatPreviousLocation(String previous) {
         return previous != null && !previous.isEmpty() ? previous : "none";
     }
 
-    private String getReputationDescription(int reputation) {
+    static String getReputationDescription(int reputation) {
         if (reputation >= 80) return "revered";
         if (reputation >= 50) return "respected";
         if (reputation >= 20) return "friendly";
@@ -117,39 +125,43 @@ public class AIPromptService {
         return "hated";
     }
 
-    private String determinePlayerMood(PlayerContext context) {
-        // TODO: Implement mood tracking
-        return "neutral";
-    }
-
-    private String formatRecentActions(List<String> actions) {
-        return actions.stream()
-                .collect(Collectors.joining("\n"));
+    static String determinePlayerMood(PlayerContext context) {
+        return context.character().describeMood();
     }
 
-    private String formatActiveNPCs(List<NPCContextInfo> npcs) {
-        // TODO: Implement NPC tracking
-        return "No active NPCs";
+    static String formatActiveNPCs(List<NPCContextInfo> npcs) {
+        if (npcs.isEmpty()) {
+            return "No active NPCs";
+        }
+        StringBuilder out = new StringBuilder();
+        for (NPCContextInfo npc : npcs) {
+            if (!out.isEmpty()) {
+                out.append('\n');
+            }
+            out.append("- ").append(npc.name())
+                .append(" (").append(npc.relationship()).append(", ").append(npc.mood()).append(')');
+        }
+        return out.toString();
     }
 
-    private String formatEquipment(PlayerContext context) {
+    static String formatEquipment(PlayerContext context) {
         // TODO: Implement equipment tracking
         return "No equipment";
     }
 
-    private String determinePlayerFocus(PlayerContext context) {
+    static String determinePlayerFocus(PlayerContext context) {
         // TODO: Implement player focus tracking
         return "exploration";
     }
 
-    private String formatWorldContext(Map<String, Object> worldState) {
-        return worldState.entrySet().stream()
-                .map(e -> String.format("- %s: %s", e.getKey(), e.getValue()))
-                .collect(Collectors.joining("\n"));
-    }
-
     // Record classes for structured data
-    private record ContextSummary(
+    record PromptModel(
+        PlayerContext context,
+        ContextSummary summary,
+        List<String> recentActions
+    ) {}
+
+    record ContextSummary(
         String currentLocation,
         String previousLocation,
         String playerHealth,
@@ -160,15 +172,4 @@ public class AIPromptService {
         List<NPCContextInfo> activeNPCs,
         Map<String, Object> worldState
     ) {}
-
-    private record NPCContextInfo(
-        String id,
-        String name,
-        int disposition,
-        String mood,
-        List<String> knownFacts,
-        String lastSeen,
-        String location,
-        String relationship
-    ) {}
-} 
\ No newline at end of file
+}
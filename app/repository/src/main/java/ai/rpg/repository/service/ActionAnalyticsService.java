@@ -0,0 +1,105 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.repository.repository.ActionEventRepository.TypeCount;
+import ai.rpg.repository.repository.ActionLocationRollupRepository;
+import ai.rpg.repository.repository.ActionLocationRollupRepository.LocationCount;
+import ai.rpg.repository.repository.ActionTypeRollupRepository;
+import ai.rpg.repository.repository.PlayerActionRollupRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Action analytics served from the rollup tables maintained by {@link ActionRollups}.
+ *
+ * Every query reads a number of rollup rows bounded by the window and the number of
+ * types or locations, never the action history itself, so latency stays flat as
+ * action_events grows. Results count actions as written, at the rollups' one-hour
+ * resolution: they include actions that retention or the session reaper have since
+ * deleted, and windows are widened to whole hours.
+ */
+@Service
+public class ActionAnalyticsService {
+    public static final int MAX_LOCATIONS = 100;
+    public static final long MAX_WINDOW_HOURS = 10L * 366 * 24;
+
+    private final ActionTypeRollupRepository typeRollups;
+    private final ActionLocationRollupRepository locationRollups;
+    private final PlayerActionRollupRepository playerRollups;
+
+    public ActionAnalyticsService(
+            ActionTypeRollupRepository typeRollups,
+            ActionLocationRollupRepository locationRollups,
+            PlayerActionRollupRepository playerRollups) {
+        this.typeRollups = typeRollups;
+        this.locationRollups = locationRollups;
+        this.playerRollups = playerRollups;
+    }
+
+    /**
+     * Actions per type in the hours overlapping [start, end): from the start of the hour
+     * containing start up to the end of the hour containing the last instant before end
+     *
+     * @throws IllegalArgumentException if end is before start
+     */
+    public Map<ActionType, Long> countByType(Instant start, Instant end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end must not be before start");
+        }
+        Map<ActionType, Long> counts = new EnumMap<>(ActionType.class);
+        add(counts, typeRollups.sumByType(ActionRollups.bucketOf(start), ceilToBucket(end)));
+        return counts;
+    }
+
+    /**
+     * Busiest locations since the given instant, busiest first, counted from the start
+     * of the hour containing it
+     *
+     * @throws IllegalArgumentException if limit is outside 1..{@value #MAX_LOCATIONS}
+     */
+    public List<LocationCount> mostActiveLocations(Instant since, int limit) {
+        if (limit <= 0 || limit > MAX_LOCATIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LOCATIONS);
+        }
+        return locationRollups.findMostActiveLocations(ActionRollups.bucketOf(since), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Busiest locations over the last windowHours hours
+     *
+     * @throws IllegalArgumentException if windowHours is outside 1..{@value #MAX_WINDOW_HOURS}
+     *                                  or limit is outside 1..{@value #MAX_LOCATIONS}
+     */
+    public List<LocationCount> mostActiveLocations(long windowHours, int limit) {
+        if (windowHours <= 0 || windowHours > MAX_WINDOW_HOURS) {
+            throw new IllegalArgumentException("windowHours must be between 1 and " + MAX_WINDOW_HOURS);
+        }
+        return mostActiveLocations(Instant.now().minus(Duration.ofHours(windowHours)), limit);
+    }
+
+    /**
+     * How often a player has taken each type of action, across all sessions
+     */
+    public Map<ActionType, Long> playerBehavior(String playerId) {
+        Map<ActionType, Long> counts = new EnumMap<>(ActionType.class);
+        add(counts, playerRollups.findByPlayerId(playerId));
+        return counts;
+    }
+
+    private static Instant ceilToBucket(Instant instant) {
+        Instant floor = ActionRollups.bucketOf(instant);
+        return floor.equals(instant) ? floor : floor.plus(1, ActionRollups.BUCKET);
+    }
+
+    private static void add(Map<ActionType, Long> counts, List<TypeCount> rows) {
+        for (TypeCount row : rows) {
+            counts.merge(row.getType(), row.getTotal(), Long::sum);
+        }
+    }
+}
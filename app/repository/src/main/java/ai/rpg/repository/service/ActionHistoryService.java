@@ -0,0 +1,101 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.ActionEvent;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.mapper.PlayerContextMapper;
+import ai.rpg.repository.repository.ActionEventRepository;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Session action history, newest first, in keyset pages.
+ *
+ * Each page seeks past the (timestamp, id) of the previous page's last row on the
+ * (player_context_id, timestamp, id) index, so a deep page costs the same as the
+ * first and no COUNT query is issued. The position is handed to clients as an
+ * opaque cursor.
+ */
+@Service
+public class ActionHistoryService {
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final int CURSOR_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final ActionEventRepository actions;
+    private final PlayerContextRepository sessions;
+    private final PlayerContextMapper mapper;
+
+    public ActionHistoryService(
+            ActionEventRepository actions,
+            PlayerContextRepository sessions,
+            PlayerContextMapper mapper) {
+        this.actions = actions;
+        this.sessions = sessions;
+        this.mapper = mapper;
+    }
+
+    /**
+     * One page of actions; {@code nextCursor} is null on the last page
+     */
+    public record ActionPage(List<ActionEvent> actions, String nextCursor) {}
+
+    private record Position(Instant timestamp, long id) {}
+
+    /**
+     * Page through a session's actions; empty if the session does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<ActionPage> page(String sessionId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        Position after = decodeCursor(cursor);
+        PageRequest page = PageRequest.of(0, size);
+        List<ActionEventEntity> rows = after == null
+            ? actions.findLatestBySessionId(sessionId, page)
+            : actions.findBySessionIdBefore(sessionId, after.timestamp(), after.id(), page);
+
+        // Only an empty first page needs to tell "no actions yet" from "no such session"
+        if (rows.isEmpty() && after == null && !sessions.existsBySessionId(sessionId)) {
+            return Optional.empty();
+        }
+
+        String next = null;
+        if (rows.size() == size) {
+            ActionEventEntity last = rows.get(rows.size() - 1);
+            next = encodeCursor(new Position(last.getTimestamp(), last.getId()));
+        }
+        return Optional.of(new ActionPage(rows.stream().map(mapper::toActionEvent).toList(), next));
+    }
+
+    private static String encodeCursor(Position position) {
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_BYTES)
+            .putLong(position.timestamp().getEpochSecond())
+            .putInt(position.timestamp().getNano())
+            .putLong(position.id());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private static Position decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != CURSOR_BYTES) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Instant timestamp = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            return new Position(timestamp, buffer.getLong());
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
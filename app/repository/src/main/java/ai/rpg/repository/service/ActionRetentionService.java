@@ -0,0 +1,226 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.repository.config.ActionRetentionProperties;
+import ai.rpg.repository.repository.ActionEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purges action events older than the retention window in bounded chunks.
+ *
+ * Each chunk reads the IDs of the oldest expired rows from the timestamp index and
+ * removes them with one bulk DELETE in its own transaction, so no entity is loaded
+ * and row locks are held for one chunk at a time. The job pauses between chunks to
+ * leave headroom for game traffic. Every chunk starts again from the oldest remaining
+ * row, so a run that is cancelled or dies part way is resumed by the next run
+ * without any saved position.
+ */
+@Service
+public class ActionRetentionService implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(ActionRetentionService.class);
+
+    private final ActionEventRepository repository;
+    private final ActionRetentionProperties properties;
+    private final TransactionTemplate transaction;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("action-retention").daemon().factory());
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Object pause = new Object();
+    private volatile boolean cancelled;
+    private volatile Progress progress;
+
+    private final LongAdder rowsDeleted = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+
+    public ActionRetentionService(
+            ActionEventRepository repository,
+            ActionRetentionProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * State of the current or most recent run
+     */
+    public record Progress(
+        Instant cutoff,
+        Instant startedAt,
+        long rowsDeleted,
+        long chunks,
+        Duration elapsed,
+        boolean finished
+    ) {
+        public double rowsPerSecond() {
+            long millis = elapsed.toMillis();
+            return millis > 0 ? rowsDeleted * 1000.0 / millis : 0.0;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long intervalMillis = properties.runInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::purgeQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        cancel();
+        scheduler.shutdown();
+        scheduler.awaitTermination(properties.chunkPause().toMillis() + 1000, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Delete every action older than the configured maximum age
+     */
+    public Progress purgeExpired() {
+        return purgeBefore(Instant.now().minus(properties.maxAge()));
+    }
+
+    /**
+     * Delete every action older than the cutoff, one chunk per transaction
+     *
+     * @return the final progress; {@code finished} is false if the run was cancelled
+     * @throws IllegalStateException if a run is already in progress
+     */
+    public Progress purgeBefore(Instant cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Action retention is already running");
+        }
+        cancelled = false;
+        runs.increment();
+        try {
+            return run(cutoff);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Stop the current run after its in-flight chunk; the next run picks up from there
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (pause) {
+            pause.notifyAll();
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Progress of the current or most recent run, or null if none has started
+     */
+    public Progress progress() {
+        return progress;
+    }
+
+    private Progress run(Instant cutoff) {
+        Instant startedAt = Instant.now();
+        long startNanos = System.nanoTime();
+        long deleted = 0;
+        long chunkCount = 0;
+        boolean finished = false;
+        progress = new Progress(cutoff, startedAt, 0, 0, Duration.ZERO, false);
+
+        while (!cancelled) {
+            int removed = deleteChunk(cutoff);
+            deleted += removed;
+            if (removed > 0) {
+                chunkCount++;
+            }
+            finished = removed < properties.chunkSize();
+            progress = new Progress(cutoff, startedAt, deleted, chunkCount,
+                Duration.ofNanos(System.nanoTime() - startNanos), finished);
+            log.debug("Action retention chunk {}: {} rows deleted, {} total, {} rows/s",
+                chunkCount, removed, deleted, Math.round(progress.rowsPerSecond()));
+            if (finished || !pauseBetweenChunks()) {
+                break;
+            }
+        }
+
+        Progress result = progress;
+        log.info("Action retention {} for actions before {}: {} rows in {} chunks over {} ms ({} rows/s)",
+            result.finished() ? "finished" : "cancelled", cutoff, result.rowsDeleted(), result.chunks(),
+            result.elapsed().toMillis(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private int deleteChunk(Instant cutoff) {
+        Integer removed = transaction.execute(status -> {
+            List<Long> ids = repository.findIdsBefore(cutoff, PageRequest.of(0, properties.chunkSize()));
+            return ids.isEmpty() ? 0 : repository.deleteByIds(ids);
+        });
+        int rows = removed != null ? removed : 0;
+        rowsDeleted.add(rows);
+        if (rows > 0) {
+            chunks.increment();
+        }
+        return rows;
+    }
+
+    /**
+     * @return false if the run was cancelled or interrupted while pausing
+     */
+    private boolean pauseBetweenChunks() {
+        long deadline = System.nanoTime() + properties.chunkPause().toNanos();
+        synchronized (pause) {
+            long remaining;
+            while (!cancelled && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(pause, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return !cancelled;
+    }
+
+    private void purgeQuietly() {
+        try {
+            purgeExpired();
+        } catch (RuntimeException e) {
+            // Committed chunks stay deleted; the next run continues from the oldest remaining row
+            log.warn("Action retention run failed", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("game.action.retention.rows.deleted", rowsDeleted, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.action.retention.chunks", chunks, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.action.retention.runs", runs, LongAdder::sum).register(registry);
+        Gauge.builder("game.action.retention.running", running, r -> r.get() ? 1 : 0).register(registry);
+        Gauge.builder("game.action.retention.rows.per.second", this,
+            service -> service.progress != null ? service.progress.rowsPerSecond() : 0.0).register(registry);
+    }
+}
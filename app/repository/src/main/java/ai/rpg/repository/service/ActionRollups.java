@@ -0,0 +1,238 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.ActionLocationRollupEntity;
+import ai.rpg.persistence.entity.ActionTypeRollupEntity;
+import ai.rpg.persistence.entity.PlayerActionRollupEntity;
+import ai.rpg.repository.config.ActionRollupProperties;
+import ai.rpg.repository.repository.ActionEventRepository;
+import ai.rpg.repository.repository.ActionEventRepository.RollupSource;
+import ai.rpg.repository.repository.ActionLocationRollupRepository;
+import ai.rpg.repository.repository.ActionTypeRollupRepository;
+import ai.rpg.repository.repository.PlayerActionRollupRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains the action rollup tables: counts per (hour, type), (hour, location)
+ * and (player, type).
+ *
+ * Stored actions are added to the rollup rows in the transaction that inserts
+ * them, so the rollups commit or roll back with the actions and a crash cannot
+ * lose counts. Each write aggregates its batch first and updates every row it
+ * touches once, in key order, so concurrent writers lock rows in the same order.
+ *
+ * Rollups count actions as written: retention purges and the session reaper do
+ * not subtract from them, so analytics keep history the raw table no longer has.
+ * {@link #rebuild()} only fills in counts missing for the actions still stored.
+ */
+@Service
+public class ActionRollups implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(ActionRollups.class);
+
+    public static final ChronoUnit BUCKET = ChronoUnit.HOURS;
+
+    private final ActionEventRepository actions;
+    private final ActionTypeRollupRepository typeRollups;
+    private final ActionLocationRollupRepository locationRollups;
+    private final PlayerActionRollupRepository playerRollups;
+    private final EntityManager entityManager;
+    private final ActionRollupProperties properties;
+    private final TransactionTemplate transaction;
+    // A second rebuild would only repeat the first one's scan
+    private final Object rebuildLock = new Object();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public ActionRollups(
+            ActionEventRepository actions,
+            ActionTypeRollupRepository typeRollups,
+            ActionLocationRollupRepository locationRollups,
+            PlayerActionRollupRepository playerRollups,
+            EntityManager entityManager,
+            ActionRollupProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.actions = actions;
+        this.typeRollups = typeRollups;
+        this.locationRollups = locationRollups;
+        this.playerRollups = playerRollups;
+        this.entityManager = entityManager;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    record TypeKey(Instant bucket, ActionType type) {
+        static final Comparator<TypeKey> ORDER =
+            Comparator.comparing(TypeKey::bucket).thenComparing(TypeKey::type);
+    }
+
+    record LocationKey(Instant bucket, String location) {
+        static final Comparator<LocationKey> ORDER =
+            Comparator.comparing(LocationKey::bucket).thenComparing(LocationKey::location);
+    }
+
+    record PlayerKey(String playerId, ActionType type) {
+        static final Comparator<PlayerKey> ORDER =
+            Comparator.comparing(PlayerKey::playerId).thenComparing(PlayerKey::type);
+    }
+
+    /**
+     * Outcome of a rebuild
+     */
+    public record RebuildResult(long actionsScanned, int rowsWritten, Duration elapsed) {}
+
+    /**
+     * Start of the rollup bucket holding the given instant
+     */
+    public static Instant bucketOf(Instant timestamp) {
+        return timestamp.truncatedTo(BUCKET);
+    }
+
+    /**
+     * Add actions to the rollups. Must run in the transaction that inserts them.
+     *
+     * A row that does not exist yet is inserted; if a concurrent transaction inserts
+     * the same row first, this transaction fails on the primary key and can be retried.
+     *
+     * @return number of rollup rows written
+     */
+    public int record(Collection<ActionEventEntity> stored) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Action rollups must be recorded in the transaction storing the actions");
+        }
+        Map<TypeKey, Long> types = new TreeMap<>(TypeKey.ORDER);
+        Map<LocationKey, Long> locations = new TreeMap<>(LocationKey.ORDER);
+        Map<PlayerKey, Long> players = new TreeMap<>(PlayerKey.ORDER);
+        for (ActionEventEntity action : stored) {
+            Instant bucket = bucketOf(action.getTimestamp());
+            types.merge(new TypeKey(bucket, action.getType()), 1L, Long::sum);
+            locations.merge(new LocationKey(bucket, action.getLocation()), 1L, Long::sum);
+            players.merge(new PlayerKey(action.getPlayerId(), action.getType()), 1L, Long::sum);
+        }
+
+        types.forEach((key, delta) -> {
+            if (typeRollups.increment(key.bucket(), key.type(), delta) == 0) {
+                entityManager.persist(new ActionTypeRollupEntity(key.bucket(), key.type(), delta));
+            }
+        });
+        locations.forEach((key, delta) -> {
+            if (locationRollups.increment(key.bucket(), key.location(), delta) == 0) {
+                entityManager.persist(new ActionLocationRollupEntity(key.bucket(), key.location(), delta));
+            }
+        });
+        players.forEach((key, delta) -> {
+            if (playerRollups.increment(key.playerId(), key.type(), delta) == 0) {
+                entityManager.persist(new PlayerActionRollupEntity(key.playerId(), key.type(), delta));
+            }
+        });
+
+        int rows = types.size() + locations.size() + players.size();
+        recorded.add(stored.size());
+        rowsWritten.add(rows);
+        return rows;
+    }
+
+    /**
+     * Recount the rollups from the actions currently in action_events and raise every
+     * row below its recount; rows are never lowered or removed.
+     *
+     * Meant for the first run after upgrading and for actions written without rollups.
+     * Purged actions are no longer in action_events, so lowering a row to its recount
+     * would erase their history. Since rollups commit with the actions they count, a
+     * row above its recount holds that history rather than an error, and actions stored
+     * while the scan runs are already counted by their own transaction.
+     */
+    public RebuildResult rebuild() {
+        synchronized (rebuildLock) {
+            long startNanos = System.nanoTime();
+            Map<TypeKey, Long> types = new HashMap<>();
+            Map<LocationKey, Long> locations = new HashMap<>();
+            Map<PlayerKey, Long> players = new HashMap<>();
+            PageRequest page = PageRequest.of(0, properties.rebuildPageSize());
+            long scanned = 0;
+            long afterId = 0;
+            List<RollupSource> batch;
+            do {
+                batch = actions.findRollupSourcesAfter(afterId, page);
+                for (RollupSource action : batch) {
+                    Instant bucket = bucketOf(action.getTimestamp());
+                    types.merge(new TypeKey(bucket, action.getType()), 1L, Long::sum);
+                    locations.merge(new LocationKey(bucket, action.getLocation()), 1L, Long::sum);
+                    players.merge(new PlayerKey(action.getPlayerId(), action.getType()), 1L, Long::sum);
+                    afterId = action.getId();
+                }
+                scanned += batch.size();
+            } while (batch.size() == properties.rebuildPageSize());
+
+            Integer raised = transaction.execute(status -> {
+                int rows = 0;
+                for (Map.Entry<TypeKey, Long> row : types.entrySet()) {
+                    TypeKey key = row.getKey();
+                    if (typeRollups.raiseTo(key.bucket(), key.type(), row.getValue()) > 0) {
+                        rows++;
+                    } else if (!typeRollups.existsById(new ActionTypeRollupEntity.Key(key.bucket(), key.type()))) {
+                        entityManager.persist(new ActionTypeRollupEntity(key.bucket(), key.type(), row.getValue()));
+                        rows++;
+                    }
+                }
+                for (Map.Entry<LocationKey, Long> row : locations.entrySet()) {
+                    LocationKey key = row.getKey();
+                    if (locationRollups.raiseTo(key.bucket(), key.location(), row.getValue()) > 0) {
+                        rows++;
+                    } else if (!locationRollups.existsById(
+                            new ActionLocationRollupEntity.Key(key.bucket(), key.location()))) {
+                        entityManager.persist(new ActionLocationRollupEntity(key.bucket(), key.location(), row.getValue()));
+                        rows++;
+                    }
+                }
+                for (Map.Entry<PlayerKey, Long> row : players.entrySet()) {
+                    PlayerKey key = row.getKey();
+                    if (playerRollups.raiseTo(key.playerId(), key.type(), row.getValue()) > 0) {
+                        rows++;
+                    } else if (!playerRollups.existsById(new PlayerActionRollupEntity.Key(key.playerId(), key.type()))) {
+                        entityManager.persist(new PlayerActionRollupEntity(key.playerId(), key.type(), row.getValue()));
+                        rows++;
+                    }
+                }
+                return rows;
+            });
+            rebuilds.increment();
+
+            RebuildResult result = new RebuildResult(scanned, raised != null ? raised : 0,
+                Duration.ofNanos(System.nanoTime() - startNanos));
+            log.info("Action rollups rebuilt from {} actions, {} rows raised in {} ms",
+                result.actionsScanned(), result.rowsWritten(), result.elapsed().toMillis());
+            return result;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("game.action.rollups.recorded", recorded, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.action.rollups.rows.written", rowsWritten, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.action.rollups.rebuilds", rebuilds, LongAdder::sum).register(registry);
+    }
+}
@@ -0,0 +1,93 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.OutcomeFlags;
+import ai.rpg.repository.repository.ActionEventRepository;
+import ai.rpg.repository.repository.ActionEventRepository.UnclassifiedAction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Classifies action rows written before outcome flags existed.
+ *
+ * Runs once in the background after startup. Each batch reads the ID, type and
+ * consequences of the next unclassified rows, classifies them with the same
+ * {@link OutcomeFlags#classify} used on write, and sets the flags with one bulk
+ * UPDATE per distinct mask. Classified rows drop out of the next batch's query, so
+ * an interrupted backfill simply continues on the next start.
+ */
+@Service
+public class OutcomeFlagBackfill {
+    private static final Logger log = LoggerFactory.getLogger(OutcomeFlagBackfill.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private final ActionEventRepository repository;
+    private final TransactionTemplate transaction;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("outcome-flag-backfill").daemon().factory());
+    private volatile boolean stopped;
+
+    public OutcomeFlagBackfill(ActionEventRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void start() {
+        worker.execute(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                log.warn("Outcome flag backfill failed; it resumes on the next start", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopped = true;
+        worker.shutdown();
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Classify every unclassified row
+     *
+     * @return number of rows classified
+     */
+    public long backfill() {
+        long classified = 0;
+        int batch;
+        do {
+            Integer updated = transaction.execute(status -> classifyBatch());
+            batch = updated != null ? updated : 0;
+            classified += batch;
+        } while (batch == BATCH_SIZE && !stopped);
+
+        if (classified > 0) {
+            log.info("Outcome flag backfill classified {} actions", classified);
+        }
+        return classified;
+    }
+
+    private int classifyBatch() {
+        List<UnclassifiedAction> rows = repository.findUnclassified(PageRequest.of(0, BATCH_SIZE));
+        Map<Integer, List<Long>> idsByFlags = rows.stream().collect(Collectors.groupingBy(
+            row -> OutcomeFlags.classify(row.getType(), row.getConsequences()),
+            Collectors.mapping(UnclassifiedAction::getId, Collectors.toList())));
+        idsByFlags.forEach((flags, ids) -> repository.setOutcomeFlags(ids, flags));
+        return rows.size();
+    }
+}
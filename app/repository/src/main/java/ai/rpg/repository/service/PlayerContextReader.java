@@ -0,0 +1,41 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.PlayerContext;
+import ai.rpg.persistence.mapper.PlayerContextMapper;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Read path for rendering a session: status and prompt never modify what they load.
+ *
+ * The session is fetched with its actions in one query, as read-only entities inside
+ * a read-only transaction. Hibernate keeps no loaded-state snapshot for them, the
+ * session is never flushed, and nothing is dirty-checked, so the JSON and binary
+ * columns are neither deep-copied nor compared. Entities are mapped to a detached
+ * {@link PlayerContext} before the transaction ends.
+ */
+@Service
+public class PlayerContextReader {
+    private final PlayerContextRepository repository;
+    private final PlayerContextMapper mapper;
+    private final TransactionTemplate readOnly;
+
+    public PlayerContextReader(
+            PlayerContextRepository repository,
+            PlayerContextMapper mapper,
+            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    public Optional<PlayerContext> read(String sessionId) {
+        return readOnly.execute(status ->
+            repository.findReadOnlyBySessionId(sessionId).map(mapper::toPlayerContext));
+    }
+}
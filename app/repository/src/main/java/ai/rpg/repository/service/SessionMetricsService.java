@@ -0,0 +1,117 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.persistence.repository.PlayerContextRepository.SessionSummary;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Session metrics served from a lightweight projection.
+ *
+ * Active sessions are read as {@link SessionSummary} rows in keyset order by
+ * session ID, so no entity graph is loaded and memory use is bounded by the page
+ * size regardless of how many sessions are live.
+ */
+@Service
+public class SessionMetricsService {
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_PAGE_SIZE = 500;
+
+    private final PlayerContextRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public SessionMetricsService(PlayerContextRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    public record ActiveSession(
+        String sessionId,
+        String playerId,
+        Instant lastUpdate,
+        String currentLocation,
+        int totalActions
+    ) {
+        static ActiveSession from(SessionSummary summary) {
+            return new ActiveSession(
+                summary.getSessionId(),
+                summary.getPlayerId(),
+                summary.getLastUpdate(),
+                summary.getCurrentLocation(),
+                summary.getTotalActions()
+            );
+        }
+    }
+
+    /**
+     * One page of active sessions; {@code nextCursor} is null on the last page
+     */
+    public record SessionPage(List<ActiveSession> sessions, String nextCursor) {}
+
+    public long countActiveSessions() {
+        return repository.countAllActiveSessions();
+    }
+
+    public SessionPage page(String cursor, int limit) {
+        int size = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        List<ActiveSession> sessions = fetch(decodeCursor(cursor), size);
+        String next = sessions.size() == size
+            ? encodeCursor(sessions.get(sessions.size() - 1).sessionId())
+            : null;
+        return new SessionPage(sessions, next);
+    }
+
+    /**
+     * Write every active session as a JSON array, one keyset page at a time
+     */
+    public void streamActiveSessions(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            String after = "";
+            List<ActiveSession> page;
+            do {
+                page = fetch(after, STREAM_PAGE_SIZE);
+                for (ActiveSession session : page) {
+                    objectMapper.writeValue(generator, session);
+                }
+                generator.flush();
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).sessionId();
+                }
+            } while (page.size() == STREAM_PAGE_SIZE);
+            generator.writeEndArray();
+        }
+    }
+
+    private List<ActiveSession> fetch(String afterSessionId, int size) {
+        return repository.findActiveSessionSummariesAfter(afterSessionId, PageRequest.of(0, size))
+            .stream()
+            .map(ActiveSession::from)
+            .toList();
+    }
+
+    private static String encodeCursor(String sessionId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sessionId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
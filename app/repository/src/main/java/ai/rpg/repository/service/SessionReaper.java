@@ -0,0 +1,236 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.repository.cache.SessionCache;
+import ai.rpg.repository.cache.SessionHeartbeat;
+import ai.rpg.repository.config.SessionReaperProperties;
+import ai.rpg.repository.repository.ActionEventRepository;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import ai.rpg.repository.repository.PlayerContextRepository.SessionKey;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retires stale sessions with bulk statements instead of loading session graphs.
+ *
+ * A run first deactivates active sessions that have been idle longer than the idle
+ * timeout, then deletes inactive sessions older than the expiry together with their
+ * actions. Both phases work in keyed batches of the oldest matching rows, one
+ * transaction per batch, and stop once the per-run time budget is spent; whatever is
+ * left over is picked up by the next run. Every batch re-checks its cutoff in the
+ * write itself, so a session touched after it was selected is left alone.
+ */
+@Service
+public class SessionReaper implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(SessionReaper.class);
+
+    private final PlayerContextRepository sessions;
+    private final ActionEventRepository actions;
+    private final SessionCache sessionCache;
+    private final SessionHeartbeat heartbeat;
+    private final SessionReaperProperties properties;
+    private final TransactionTemplate transaction;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("session-reaper").daemon().factory());
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder deactivated = new LongAdder();
+    private final LongAdder sessionsDeleted = new LongAdder();
+    private final LongAdder actionsDeleted = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    public SessionReaper(
+            PlayerContextRepository sessions,
+            ActionEventRepository actions,
+            SessionCache sessionCache,
+            SessionHeartbeat heartbeat,
+            SessionReaperProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.sessions = sessions;
+        this.actions = actions;
+        this.sessionCache = sessionCache;
+        this.heartbeat = heartbeat;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Outcome of one run; {@code complete} is false if the time budget ran out first
+     */
+    public record Result(
+        int deactivated,
+        int sessionsDeleted,
+        int actionsDeleted,
+        int batches,
+        Duration elapsed,
+        boolean complete
+    ) {}
+
+    @PostConstruct
+    void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long intervalMillis = properties.runInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::reapQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(properties.timeBudget().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run both phases within the configured time budget
+     *
+     * @throws IllegalStateException if a run is already in progress
+     */
+    public Result reap() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Session reaper is already running");
+        }
+        try {
+            // Widened by the heartbeat's staleness so sessions with an unflushed touch stay active
+            Instant idleBefore = heartbeat.activeSince(properties.idleTimeout());
+            Instant expiredBefore = Instant.now().minus(properties.expireAfter());
+            return run(idleBefore, expiredBefore);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Result run(Instant idleBefore, Instant expiredBefore) {
+        Tally tally = new Tally(System.nanoTime() + properties.timeBudget().toNanos());
+        long startNanos = System.nanoTime();
+        boolean complete = deactivateIdle(idleBefore, tally) && deleteExpired(expiredBefore, tally);
+        if (!complete) {
+            budgetExhausted.increment();
+        }
+
+        Result result = new Result(tally.deactivated, tally.sessionsDeleted, tally.actionsDeleted, tally.batches,
+            Duration.ofNanos(System.nanoTime() - startNanos), complete);
+        log.info("Session reaper {}: {} sessions deactivated, {} sessions and {} actions deleted in {} batches over {} ms",
+            complete ? "finished" : "stopped at its time budget", result.deactivated(), result.sessionsDeleted(),
+            result.actionsDeleted(), result.batches(), result.elapsed().toMillis());
+        return result;
+    }
+
+    /**
+     * @return true once no idle session is left, false if the budget ran out first
+     */
+    private boolean deactivateIdle(Instant idleBefore, Tally tally) {
+        PageRequest batch = PageRequest.of(0, properties.batchSize());
+        while (tally.hasBudget()) {
+            List<SessionKey> idle = sessions.findIdleSessionKeys(idleBefore, batch);
+            if (idle.isEmpty()) {
+                return true;
+            }
+            // Flush pending cached changes before the guarded update sees last_update
+            idle.forEach(key -> sessionCache.invalidate(key.getSessionId()));
+            List<Long> ids = idle.stream().map(SessionKey::getId).toList();
+            Integer updated = transaction.execute(status -> sessions.deactivateSessions(ids, idleBefore));
+            int rows = updated != null ? updated : 0;
+
+            tally.batches++;
+            tally.deactivated += rows;
+            deactivated.add(rows);
+            if (idle.size() < properties.batchSize()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true once no expired session is left, false if the budget ran out first
+     */
+    private boolean deleteExpired(Instant expiredBefore, Tally tally) {
+        PageRequest batch = PageRequest.of(0, properties.batchSize());
+        while (tally.hasBudget()) {
+            int[] removed = new int[2];
+            List<SessionKey> expired = transaction.execute(status -> {
+                List<SessionKey> keys = sessions.findExpiredSessionKeys(expiredBefore, batch);
+                if (!keys.isEmpty()) {
+                    // Only sessions still expired once locked; one touched since the select keeps its actions
+                    List<Long> ids = sessions.lockExpiredSessions(
+                        keys.stream().map(SessionKey::getId).toList(), expiredBefore);
+                    if (!ids.isEmpty()) {
+                        // Actions first: bulk deletes bypass the entity cascade
+                        removed[1] = actions.deleteByPlayerContextIds(ids);
+                        removed[0] = sessions.deleteExpiredSessions(ids, expiredBefore);
+                    }
+                }
+                return keys;
+            });
+            if (expired == null || expired.isEmpty()) {
+                return true;
+            }
+            expired.forEach(key -> sessionCache.invalidate(key.getSessionId()));
+
+            tally.batches++;
+            tally.sessionsDeleted += removed[0];
+            tally.actionsDeleted += removed[1];
+            sessionsDeleted.add(removed[0]);
+            actionsDeleted.add(removed[1]);
+            if (expired.size() < properties.batchSize()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Running totals of one run and its deadline
+     */
+    private static final class Tally {
+        final long deadlineNanos;
+        int deactivated;
+        int sessionsDeleted;
+        int actionsDeleted;
+        int batches;
+
+        Tally(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        // The first batch always runs so a tight budget still makes progress
+        boolean hasBudget() {
+            return batches == 0 || System.nanoTime() < deadlineNanos;
+        }
+    }
+
+    private void reapQuietly() {
+        try {
+            reap();
+        } catch (RuntimeException e) {
+            // Committed batches stay applied; the next run continues from the oldest remaining rows
+            log.warn("Session reaper run failed", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("game.session.reaper.deactivated", deactivated, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.reaper.sessions.deleted", sessionsDeleted, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.reaper.actions.deleted", actionsDeleted, LongAdder::sum).register(registry);
+        FunctionCounter.builder("game.session.reaper.budget.exhausted", budgetExhausted, LongAdder::sum).register(registry);
+    }
+}
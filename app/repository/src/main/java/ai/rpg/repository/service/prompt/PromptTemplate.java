@@ -0,0 +1,120 @@
+package ai.rpg.repository.service.prompt;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prompt template compiled once into literal and slot segments.
+ *
+ * Placeholders are written as {@code {{name}}} and each must be bound to a
+ * {@link SlotFormatter} when the template is built. Literal text between slots is
+ * kept as ready-to-append strings, so rendering is a straight walk over the
+ * segments into a per-thread buffer presized from previous renders.
+ */
+public final class PromptTemplate<T> {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    // Buffers grown beyond this are not kept for reuse
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+    private final String[] literals;
+    private final SlotFormatter<T>[] slots;
+    private volatile int sizeHint;
+
+    private PromptTemplate(String[] literals, SlotFormatter<T>[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+        this.sizeHint = literalLength + 32 * slots.length;
+    }
+
+    public static <T> Builder<T> builder(String source) {
+        return new Builder<>(source);
+    }
+
+    public String render(T model) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(sizeHint);
+        renderTo(model, out);
+
+        String result = out.toString();
+        if (result.length() > sizeHint) {
+            sizeHint = result.length();
+        }
+        if (out.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    public void renderTo(T model, StringBuilder out) {
+        out.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            slots[i].format(model, out);
+            out.append(literals[i + 1]);
+        }
+    }
+
+    public static final class Builder<T> {
+        private final String source;
+        private final Map<String, SlotFormatter<T>> formatters = new LinkedHashMap<>();
+
+        private Builder(String source) {
+            if (source == null) {
+                throw new IllegalArgumentException("Template source cannot be null");
+            }
+            this.source = source;
+        }
+
+        public Builder<T> slot(String name, SlotFormatter<T> formatter) {
+            if (formatters.put(name, formatter) != null) {
+                throw new IllegalArgumentException("Slot bound twice: " + name);
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public PromptTemplate<T> build() {
+            List<String> literals = new ArrayList<>();
+            List<SlotFormatter<T>> slots = new ArrayList<>();
+            Set<String> unused = new HashSet<>(formatters.keySet());
+
+            int position = 0;
+            int open;
+            while ((open = source.indexOf(OPEN, position)) >= 0) {
+                int close = source.indexOf(CLOSE, open + OPEN.length());
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unterminated slot at offset " + open);
+                }
+                String name = source.substring(open + OPEN.length(), close).trim();
+                SlotFormatter<T> formatter = formatters.get(name);
+                if (formatter == null) {
+                    throw new IllegalArgumentException("Unbound slot: " + name);
+                }
+                unused.remove(name);
+                literals.add(source.substring(position, open));
+                slots.add(formatter);
+                position = close + CLOSE.length();
+            }
+            literals.add(source.substring(position));
+
+            if (!unused.isEmpty()) {
+                throw new IllegalArgumentException("Slots not present in template: " + unused);
+            }
+            return new PromptTemplate<>(
+                literals.toArray(String[]::new),
+                slots.toArray(SlotFormatter[]::new)
+            );
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ai.rpg.repository.service.prompt;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Renders one template slot by appending directly to the output buffer
+ */
+@FunctionalInterface
+public interface SlotFormatter<T> {
+
+    // Beyond this, tenths no longer fit exactly in a long
+    double MAX_FAST_DECIMAL = 1e15;
+
+    void format(T model, StringBuilder out);
+
+    /**
+     * Append the value's string form; null renders as "null" like {@code %s}
+     */
+    static <T> SlotFormatter<T> text(Function<T, ?> value) {
+        return (model, out) -> out.append(value.apply(model));
+    }
+
+    /**
+     * Append an int without boxing
+     */
+    static <T> SlotFormatter<T> integer(ToIntFunction<T> value) {
+        return (model, out) -> out.append(value.applyAsInt(model));
+    }
+
+    /**
+     * Append a decimal rounded half-up to one place, like {@code %.1f}
+     */
+    static <T> SlotFormatter<T> oneDecimal(ToDoubleFunction<T> value) {
+        return (model, out) -> {
+            double decimal = value.applyAsDouble(model);
+            if (!Double.isFinite(decimal) || Math.abs(decimal) >= MAX_FAST_DECIMAL) {
+                out.append(String.format("%.1f", decimal));
+                return;
+            }
+            // Round the magnitude so the sign is written once, as %.1f does for -0.3
+            long tenths = Math.round(Math.abs(decimal) * 10);
+            if (decimal < 0) {
+                out.append('-');
+            }
+            out.append(tenths / 10).append('.').append(tenths % 10);
+        };
+    }
+
+    /**
+     * Append each element on its own line
+     */
+    static <T> SlotFormatter<T> lines(Function<T, ? extends Collection<String>> value) {
+        return (model, out) -> {
+            boolean first = true;
+            for (String line : value.apply(model)) {
+                if (!first) {
+                    out.append('\n');
+                }
+                out.append(line);
+                first = false;
+            }
+        };
+    }
+
+    /**
+     * Append each entry as a "- key: value" line
+     */
+    static <T> SlotFormatter<T> bulletedEntries(Function<T, ? extends Map<String, ?>> value) {
+        return (model, out) -> {
+            boolean first = true;
+            for (Map.Entry<String, ?> entry : value.apply(model).entrySet()) {
+                if (!first) {
+                    out.append('\n');
+                }
+                out.append("- ").append(entry.getKey()).append(": ").append(entry.getValue());
+                first = false;
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+-- Tables as they stood before V1, which nothing created until now, so a fresh
+-- database migrates from empty. V1 adds the session columns to player_context and
+-- V1_1 renames it to the mapped player_contexts. Ids are identity columns until V2
+-- and the character, location and NPC columns are JSON until V3.
+CREATE TABLE IF NOT EXISTS player_context (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    player_id VARCHAR(255) NOT NULL,
+    character_name VARCHAR(255) NOT NULL,
+    health_current INTEGER,
+    health_max INTEGER,
+    reputation INTEGER,
+    attributes JSONB,
+    equipment JSONB,
+    inventory JSONB,
+    character_metadata JSONB,
+    current_location VARCHAR(255) NOT NULL,
+    previous_location VARCHAR(255),
+    visit_count INTEGER,
+    first_visit TIMESTAMP WITH TIME ZONE,
+    time_in_location_minutes INTEGER,
+    location_history JSONB,
+    npc_states JSONB,
+    total_actions INTEGER,
+    combat_actions INTEGER,
+    social_actions INTEGER,
+    explore_actions INTEGER,
+    session_time_minutes DOUBLE PRECISION,
+    locations_visited INTEGER,
+    npcs_interacted INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS action_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    action_id VARCHAR(255) NOT NULL UNIQUE,
+    timestamp TIMESTAMP WITH TIME ZONE NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    command VARCHAR(500) NOT NULL,
+    target VARCHAR(255),
+    location VARCHAR(255) NOT NULL,
+    outcome TEXT NOT NULL,
+    consequences JSONB,
+    metadata JSONB,
+    player_id VARCHAR(255) NOT NULL,
+    player_context_id BIGINT NOT NULL REFERENCES player_context (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_action_timestamp ON action_events (timestamp);
+CREATE INDEX IF NOT EXISTS idx_action_type ON action_events (type);
+CREATE INDEX IF NOT EXISTS idx_action_location ON action_events (location);
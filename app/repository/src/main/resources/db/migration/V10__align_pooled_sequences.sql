@@ -0,0 +1,11 @@
+-- Hibernate's pooled optimizer treats the value nextval returns as the top of a block
+-- and hands out the 49 ids below it first. V2 left nextval at MAX(id) + 1, so the
+-- first block reused existing ids. Move each sequence so its next block starts above
+-- MAX(id), unless the sequence is already past that point.
+SELECT setval('player_contexts_seq', COALESCE((SELECT MAX(id) FROM player_contexts), 0) + 50, false)
+WHERE COALESCE((SELECT MAX(id) FROM player_contexts), 0) + 50
+    > (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM player_contexts_seq);
+
+SELECT setval('action_events_seq', COALESCE((SELECT MAX(id) FROM action_events), 0) + 50, false)
+WHERE COALESCE((SELECT MAX(id) FROM action_events), 0) + 50
+    > (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM action_events_seq);
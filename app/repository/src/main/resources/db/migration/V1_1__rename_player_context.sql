@@ -0,0 +1,3 @@
+-- V1 targets player_context; the entity has always mapped player_contexts.
+-- Indexes, the uk_session_id constraint and the action_events foreign key follow the rename.
+ALTER TABLE IF EXISTS player_context RENAME TO player_contexts;
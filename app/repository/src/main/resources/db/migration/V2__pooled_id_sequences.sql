@@ -0,0 +1,8 @@
+-- Pooled sequences for entity ids, replacing IDENTITY so inserts can be batched.
+-- INCREMENT BY must match @SequenceGenerator(allocationSize = 50) on the entities.
+CREATE SEQUENCE IF NOT EXISTS player_contexts_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS action_events_seq START WITH 1 INCREMENT BY 50;
+
+-- Continue past ids already handed out by the identity columns
+SELECT setval('player_contexts_seq', COALESCE((SELECT MAX(id) FROM player_contexts), 0) + 1, false);
+SELECT setval('action_events_seq', COALESCE((SELECT MAX(id) FROM action_events), 0) + 1, false);
@@ -0,0 +1,7 @@
+-- Character collection columns move from JSON text to the versioned binary codec.
+-- Existing JSON is kept as UTF-8 bytes; the codec reads it as legacy JSON and
+-- rewrites the column in binary on the next update.
+ALTER TABLE player_contexts ALTER COLUMN attributes TYPE BYTEA USING convert_to(attributes::text, 'UTF8');
+ALTER TABLE player_contexts ALTER COLUMN equipment TYPE BYTEA USING convert_to(equipment::text, 'UTF8');
+ALTER TABLE player_contexts ALTER COLUMN inventory TYPE BYTEA USING convert_to(inventory::text, 'UTF8');
+ALTER TABLE player_contexts ALTER COLUMN character_metadata TYPE BYTEA USING convert_to(character_metadata::text, 'UTF8');
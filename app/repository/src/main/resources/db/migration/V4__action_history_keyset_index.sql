@@ -0,0 +1,4 @@
+-- Keyset pagination of a session's action history seeks on (player_context_id, timestamp, id)
+-- and reads the index backwards, newest first, without sorting or OFFSET scans.
+CREATE INDEX IF NOT EXISTS idx_action_context_timestamp
+    ON action_events (player_context_id, timestamp, id);
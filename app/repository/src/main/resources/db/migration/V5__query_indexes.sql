@@ -0,0 +1,46 @@
+-- Indexes for every repository query, checked by QueryPlanTest against the entity mappings.
+-- Single-column indexes that a composite below now leads with are dropped to keep writes cheap.
+
+-- player_contexts ------------------------------------------------------------
+
+-- session_id is already covered by the uk_session_id unique constraint
+DROP INDEX IF EXISTS idx_session_id;
+
+-- findByPlayerId, findActiveSessionsByPlayerId, findByPlayerIdOrderByLastUpdateDesc,
+-- findMostRecentSessionByPlayerId
+DROP INDEX IF EXISTS idx_player_id;
+CREATE INDEX IF NOT EXISTS idx_player_last_update ON player_contexts (player_id, last_update);
+
+-- findActiveSessions, countActiveSessions, findSessionSummaries, findSessionsForCleanup
+CREATE INDEX IF NOT EXISTS idx_last_update ON player_contexts (last_update);
+
+-- findAllActiveSessions, countAllActiveSessions
+CREATE INDEX IF NOT EXISTS idx_active_last_update ON player_contexts (is_active, last_update);
+
+-- findActiveSessionSummariesAfter: keyset walk answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_active_session ON player_contexts (is_active, session_id)
+    INCLUDE (player_id, last_update, current_location, total_actions);
+
+-- findByCurrentLocation
+CREATE INDEX IF NOT EXISTS idx_current_location ON player_contexts (current_location);
+
+-- action_events --------------------------------------------------------------
+
+-- findByPlayerId, findByPlayerIdAndTimestampBetween
+CREATE INDEX IF NOT EXISTS idx_action_player_timestamp ON action_events (player_id, timestamp);
+
+-- findByPlayerIdAndType
+CREATE INDEX IF NOT EXISTS idx_action_player_type ON action_events (player_id, type);
+
+-- findByTypeOrderByTimestampDesc
+DROP INDEX IF EXISTS idx_action_type;
+CREATE INDEX IF NOT EXISTS idx_action_type_timestamp ON action_events (type, timestamp);
+
+-- findByLocationOrderByTimestampDesc, findMostActiveLocations (index-only GROUP BY)
+DROP INDEX IF EXISTS idx_action_location;
+CREATE INDEX IF NOT EXISTS idx_action_location_timestamp ON action_events (location, timestamp);
+
+-- countActionsByTypeInPeriod, findPlayerBehaviorPatterns, deleteByTimestampBefore
+CREATE INDEX IF NOT EXISTS idx_action_timestamp ON action_events (timestamp);
+
+-- Session history and the player_context_id join: idx_action_context_timestamp (V4)
@@ -0,0 +1,7 @@
+-- Outcome bitmask (OutcomeFlags: 1 success, 2 victory, 4 combat, 8 failure), classified on write.
+-- Left NULL on existing rows; OutcomeFlagBackfill classifies them in batches after startup
+-- with the same classifier the write path uses.
+ALTER TABLE action_events ADD COLUMN IF NOT EXISTS outcome_flags INTEGER;
+
+-- findByOutcomeMasks matches a flag as an IN over every mask containing it
+CREATE INDEX IF NOT EXISTS idx_action_outcome_timestamp ON action_events (outcome_flags, timestamp);
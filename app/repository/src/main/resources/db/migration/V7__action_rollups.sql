@@ -0,0 +1,27 @@
+-- Pre-aggregated action counts maintained by ActionRollups as actions are written,
+-- so analytics read a few rollup rows instead of grouping all of action_events.
+-- Buckets are UTC hours. The primary keys are the only access paths the analytics
+-- queries need: a bucket range, or one player.
+CREATE TABLE IF NOT EXISTS action_rollup_type_hourly (
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    action_count BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, type)
+);
+
+CREATE TABLE IF NOT EXISTS action_rollup_location_hourly (
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    location VARCHAR(255) NOT NULL,
+    action_count BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, location)
+);
+
+CREATE TABLE IF NOT EXISTS action_rollup_player_type (
+    player_id VARCHAR(255) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    action_count BIGINT NOT NULL,
+    PRIMARY KEY (player_id, type)
+);
+
+-- Existing actions are not counted here; run ActionRollups.rebuild() once after upgrading
+-- (POST /api/analytics/rollups/rebuild).
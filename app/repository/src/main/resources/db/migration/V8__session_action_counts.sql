@@ -0,0 +1,4 @@
+-- Per-ActionType session counts as a JSON object of non-zero counts. The total and
+-- category columns stay and are derived from it on every write. Existing rows keep
+-- NULL here and are read from their category columns until next saved.
+ALTER TABLE player_contexts ADD COLUMN IF NOT EXISTS action_counts JSONB;
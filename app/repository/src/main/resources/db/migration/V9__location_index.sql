@@ -0,0 +1,4 @@
+-- Per-location visit summaries in the binary column codec. location_history now
+-- keeps only the most recent visits; rows without an index rebuild it from their
+-- stored history when next loaded.
+ALTER TABLE player_contexts ADD COLUMN IF NOT EXISTS location_index BYTEA;
@@ -0,0 +1,99 @@
+package ai.rpg.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActionDigestTest {
+
+    @Test
+    void whenTalkingToAnNpcAgain_thenItBecomesTheMostRecent() {
+        // given
+        ActionDigest digest = ActionDigest.startingAt("tavern");
+
+        // when
+        for (String npc : List.of("innkeeper", "bard", "guard", "innkeeper", "innkeeper")) {
+            digest = digest.apply(action(ActionType.TALK, npc, "tavern"));
+        }
+
+        // then
+        assertThat(digest.activeNpcs()).containsExactly("bard", "guard", "innkeeper");
+    }
+
+    @Test
+    void whenMoreNpcsThanTheLimit_thenTheLeastRecentIsDropped() {
+        // given
+        ActionDigest digest = ActionDigest.startingAt("market");
+
+        // when
+        for (String npc : List.of("npc-0", "npc-1", "npc-2", "npc-3", "npc-4", "npc-0", "npc-5")) {
+            digest = digest.apply(action(ActionType.TALK, npc, "market"));
+        }
+
+        // then
+        assertThat(digest.activeNpcs())
+            .hasSize(ActionDigest.MAX_ACTIVE_NPCS)
+            .containsExactly("npc-2", "npc-3", "npc-4", "npc-0", "npc-5");
+    }
+
+    @Test
+    void whenReplayed_thenItMatchesTheIncrementalDigest() {
+        // given
+        List<ActionEvent> actions = List.of(
+            action(ActionType.MOVE, null, "dark_forest"),
+            action(ActionType.TALK, "hermit", "dark_forest"),
+            action(ActionType.ATTACK, "wolf", "dark_forest"),
+            action(ActionType.MOVE, null, "mountain_pass"),
+            action(ActionType.TALK, "hermit", "mountain_pass")
+        );
+        LocationState location = LocationState.startingLocation();
+        ActionDigest incremental = ActionDigest.startingAt(location.current());
+        for (ActionEvent action : actions) {
+            incremental = incremental.apply(action);
+        }
+
+        // when
+        ActionDigest replayed = ActionDigest.replay(location, actions);
+
+        // then
+        assertThat(replayed).isEqualTo(incremental);
+        assertThat(replayed.lastLocation()).isEqualTo("mountain_pass");
+        assertThat(replayed.activeNpcs()).containsExactly("hermit");
+        assertThat(replayed.latestActions(2)).containsExactly("talk -> ok", "move -> ok");
+        assertThat(ActionDigest.replay(location, List.of()).lastLocation()).isEqualTo(location.current());
+    }
+
+    @Test
+    void whenReloadedAfterActionsLeftTheHistory_thenNothingIsLost() {
+        // given
+        PlayerContext started = PlayerContext.newPlayer("player-reload", "session-reload", "Hero");
+        LocationState location = started.location().moveTo("dark_forest").moveTo("starting_village");
+        PlayerContext live = new PlayerContext(started.playerId(), started.sessionId(), started.startTime(),
+            started.lastUpdate(), started.character(), location, List.of(), Map.of(), started.sessionStats(), null)
+            .withNewAction(action(ActionType.ATTACK, "wolf", "starting_village"));
+        for (int i = 0; i < PlayerContext.MAX_ACTIONS; i++) {
+            live = live.withNewAction(action(ActionType.TALK, "npc-" + (i % 7), "starting_village"));
+        }
+
+        // when
+        // Loaded contexts carry no digest and only the retained actions
+        PlayerContext reloaded = new PlayerContext(live.playerId(), live.sessionId(), live.startTime(),
+            live.lastUpdate(), live.character(), live.location(), live.actions(), live.npcStates(),
+            live.sessionStats(), null);
+
+        // then
+        assertThat(reloaded.actions()).noneMatch(ActionEvent::isCombat);
+        assertThat(reloaded.digest()).isEqualTo(live.digest());
+        assertThat(reloaded.sessionStats().combatActions()).isEqualTo(1);
+        assertThat(reloaded.location().locationsVisited()).isEqualTo(2);
+    }
+
+    private static ActionEvent action(ActionType type, String target, String location) {
+        return new ActionEvent("action-" + System.nanoTime(), Instant.now(), type, type.name().toLowerCase(),
+            target, location, "ok", List.of(), Map.of(), OutcomeFlags.classify(type, List.of()));
+    }
+}
@@ -0,0 +1,121 @@
+package ai.rpg.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedHistoryTest {
+
+    @Test
+    void whenAppendingPastCapacity_thenOldestElementsAreEvicted() {
+        // given
+        BoundedHistory<Integer> history = BoundedHistory.empty(5);
+
+        // when
+        List<BoundedHistory<Integer>> versions = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            history = history.append(i);
+            versions.add(history);
+        }
+
+        // then
+        assertThat(history).containsExactly(18, 19, 20, 21, 22);
+        assertThat(history.latest()).isEqualTo(22);
+        assertThat(history.capacity()).isEqualTo(5);
+        // Every earlier version still sees its own window across compactions
+        assertThat(versions.get(2)).containsExactly(0, 1, 2);
+        assertThat(versions.get(9)).containsExactly(5, 6, 7, 8, 9);
+        assertThat(versions.get(15)).containsExactly(11, 12, 13, 14, 15);
+    }
+
+    @Test
+    void whenTwoVersionsAppendToTheSameBase_thenNeitherSeesTheOther() {
+        // given
+        BoundedHistory<String> base = BoundedHistory.<String>empty(3).append("a").append("b");
+
+        // when
+        BoundedHistory<String> left = base.append("left");
+        BoundedHistory<String> right = base.append("right");
+
+        // then
+        assertThat(base).containsExactly("a", "b");
+        assertThat(left).containsExactly("a", "b", "left");
+        assertThat(right).containsExactly("a", "b", "right");
+        assertThat(right.append("next")).containsExactly("b", "right", "next");
+        assertThat(left).containsExactly("a", "b", "left");
+    }
+
+    @Test
+    void whenAppendingConcurrentlyToTheSameBase_thenEachVersionHoldsOnlyItsOwnElement() throws Exception {
+        // given
+        int threads = 8;
+        int rounds = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                BoundedHistory<String> base = BoundedHistory.<String>empty(4).append("x").append("y");
+                CountDownLatch ready = new CountDownLatch(1);
+                List<Future<BoundedHistory<String>>> appended = new ArrayList<>();
+
+                // when
+                for (int t = 0; t < threads; t++) {
+                    String element = "t" + t;
+                    appended.add(executor.submit(() -> {
+                        ready.await();
+                        return base.append(element);
+                    }));
+                }
+                ready.countDown();
+
+                // then
+                for (int t = 0; t < threads; t++) {
+                    assertThat(appended.get(t).get()).containsExactly("x", "y", "t" + t);
+                }
+                assertThat(base).containsExactly("x", "y");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenCreatedFromExistingHistory_thenItIsReusedOnlyForTheSameCapacity() {
+        // given
+        BoundedHistory<Integer> history = BoundedHistory.of(List.of(1, 2, 3, 4, 5, 6), 4);
+
+        // when
+        BoundedHistory<Integer> same = BoundedHistory.of(history, 4);
+        BoundedHistory<Integer> narrower = BoundedHistory.of(history, 2);
+        BoundedHistory<Integer> wider = BoundedHistory.of(history, 10);
+
+        // then
+        assertThat(history).containsExactly(3, 4, 5, 6);
+        assertThat(same).isSameAs(history);
+        assertThat(narrower).containsExactly(5, 6);
+        assertThat(wider).containsExactly(3, 4, 5, 6);
+        assertThat(wider.append(7)).containsExactly(3, 4, 5, 6, 7);
+        assertThat(history).isEqualTo(List.of(3, 4, 5, 6)).hasSameHashCodeAs(List.of(3, 4, 5, 6));
+    }
+
+    @Test
+    void whenEmptyOrGivenNull_thenItBehavesLikeAnEmptyList() {
+        // given
+        BoundedHistory<String> empty = BoundedHistory.empty(3);
+
+        // when / then
+        assertThat(empty).isEmpty();
+        assertThat(empty.latest()).isNull();
+        assertThatThrownBy(() -> empty.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> empty.append(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> BoundedHistory.empty(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
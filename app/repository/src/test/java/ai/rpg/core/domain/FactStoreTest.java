@@ -0,0 +1,150 @@
+package ai.rpg.core.domain;
+
+import ai.rpg.persistence.mapper.NPCRelationshipMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Run the long-relationship measurement with {@code ./gradlew :app:repository:benchmark}.
+ */
+class FactStoreTest {
+
+    @Test
+    void whenFactIsRepeated_thenItMovesToTheEndAndCountsAMention() {
+        // given
+        FactStore facts = FactStore.of(List.of("smith", "owes money", "has a daughter"), 10);
+
+        // when
+        FactStore updated = facts.mentionAll(List.of("smith", "fears wolves", "smith"));
+
+        // then
+        assertThat(updated).containsExactly("owes money", "has a daughter", "fears wolves", "smith");
+        assertThat(updated.mentions("smith")).isEqualTo(3);
+        assertThat(updated.top(2)).containsExactly("smith", "fears wolves");
+        assertThat(facts).containsExactly("smith", "owes money", "has a daughter");
+    }
+
+    @Test
+    void whenStoreIsFull_thenLeastRecentlyMentionedFactIsEvicted() {
+        // given
+        FactStore facts = FactStore.of(List.of("a", "b", "c"), 3);
+
+        // when
+        FactStore updated = facts.mention("a").mention("d");
+
+        // then
+        assertThat(updated).containsExactly("c", "a", "d");
+        assertThat(updated.contains("b")).isFalse();
+    }
+
+    @Test
+    void whenManyFactsChurn_thenOrderMatchesARecencyOrderedMap() {
+        // given
+        Random random = new Random(42);
+        FactStore facts = FactStore.empty(50);
+        LinkedHashMap<String, Integer> expected = new LinkedHashMap<>(16, 0.75f, true);
+
+        // when
+        for (int i = 0; i < 20_000; i++) {
+            String fact = "fact-" + random.nextInt(120);
+            facts = facts.mention(fact);
+            expected.merge(fact, 1, Integer::sum);
+            if (expected.size() > 50) {
+                expected.remove(expected.keySet().iterator().next());
+            }
+        }
+
+        // then
+        assertThat(facts).containsExactlyElementsOf(new ArrayList<>(expected.keySet()));
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertThat(facts.mentions(entry.getKey())).isEqualTo(entry.getValue());
+        }
+    }
+
+    @Test
+    void whenRelationshipIsStored_thenFactsAndMentionsSurvive() {
+        // given
+        NPCRelationshipMapper mapper = new NPCRelationshipMapper() {};
+        NPCRelationship npc = NPCRelationship.firstMeeting("blacksmith_tom", "Tom", "starting_village")
+            .afterInteraction(10, List.of("sells swords", "owes the guild"))
+            .afterInteraction(5, List.of("sells swords"));
+
+        // when
+        NPCRelationship loaded = mapper.fromData(mapper.toData(npc));
+
+        // then
+        assertThat(loaded).isEqualTo(npc);
+        assertThat(loaded.facts().mentions("sells swords")).isEqualTo(2);
+        assertThat(loaded.relevantFacts(1)).containsExactly("sells swords");
+    }
+
+    @Test
+    void whenStoredAsJson_thenFactsKeepTheirRecencyOrder() throws Exception {
+        // given
+        NPCRelationshipMapper mapper = new NPCRelationshipMapper() {};
+        NPCRelationship npc = NPCRelationship.firstMeeting("blacksmith_tom", "Tom", "starting_village")
+            .afterInteraction(0, List.of("zealous", "moody", "apprenticed"))
+            .afterInteraction(0, List.of("moody"));
+        // JSON columns such as JSONB do not keep object keys in insertion order
+        ObjectMapper json = new ObjectMapper().findAndRegisterModules()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+        // when
+        NPCRelationshipData stored = json.readValue(json.writeValueAsString(mapper.toData(npc)),
+            NPCRelationshipData.class);
+        NPCRelationship loaded = mapper.fromData(stored);
+
+        // then
+        assertThat(loaded.knownFacts()).containsExactly("zealous", "apprenticed", "moody");
+        assertThat(loaded.facts().mentions("moody")).isEqualTo(2);
+    }
+
+    @Test
+    void whenLegacyKnowledgeIsLoaded_thenItIsKeptApartFromFacts() {
+        // given
+        NPCRelationshipMapper mapper = new NPCRelationshipMapper() {};
+        NPCRelationshipData legacy = new NPCRelationshipData("hermit_olan", null, "neutral", 0, null,
+            Map.of("lives alone", "true"), null, null, null, 0, null, null);
+
+        // when
+        NPCRelationship loaded = mapper.fromData(legacy);
+        NPCRelationshipData restored = mapper.toData(loaded.afterInteraction(0, List.of("keeps goats")));
+
+        // then
+        assertThat(loaded.name()).isEqualTo("hermit_olan");
+        assertThat(loaded.knownFacts()).isEmpty();
+        assertThat(loaded.knowledge()).containsExactly(Map.entry("lives alone", "true"));
+        assertThat(restored.knowledge()).containsExactly(Map.entry("lives alone", "true"));
+        assertThat(restored.facts()).containsExactly(new NPCRelationshipData.KnownFact("keeps goats", 1));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void measureLongRelationship() {
+        int interactions = 200_000;
+        for (int round = 0; round < 2; round++) {
+            NPCRelationship npc = NPCRelationship.firstMeeting("innkeeper_mara", "Mara", "starting_village");
+            long start = System.nanoTime();
+            for (int i = 0; i < interactions; i++) {
+                npc = npc.afterInteraction(0, List.of("rumor-" + i % 1_000, "rumor-" + i % 7));
+            }
+            List<String> top = npc.relevantFacts(5);
+            long nanos = System.nanoTime() - start;
+            if (round == 1) {
+                System.out.printf(Locale.ROOT, "%d interactions: %.2f us each, %d facts kept, top %s%n",
+                    interactions, nanos / 1000.0 / interactions, npc.knownFacts().size(), top);
+            }
+        }
+    }
+}
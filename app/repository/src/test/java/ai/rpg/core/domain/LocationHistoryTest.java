@@ -0,0 +1,120 @@
+package ai.rpg.core.domain;
+
+import ai.rpg.persistence.codec.BinaryColumnFrame;
+import ai.rpg.persistence.codec.LocationCodecs;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Run the long-session measurement with {@code ./gradlew :app:repository:benchmark}.
+ */
+class LocationHistoryTest {
+    private static final List<String> ROUTE = List.of("starting_village", "dark_forest", "mountain_pass", "royal_castle");
+
+    @Test
+    void whenVisitsLeaveTheWindow_thenTheyAreStillCounted() {
+        // given
+        LocationState location = LocationState.startingLocation();
+
+        // when
+        for (int i = 1; i <= 100; i++) {
+            location = location.moveTo(ROUTE.get(i % ROUTE.size()));
+        }
+
+        // then
+        LocationHistory history = location.history();
+        assertThat(history).hasSize(LocationHistory.DEFAULT_WINDOW);
+        assertThat(history.totalVisits()).isEqualTo(100);
+        assertThat(history.distinctLocations()).isEqualTo(ROUTE.size());
+        assertThat(location.timesVisited("dark_forest")).isEqualTo(25);
+        assertThat(location.hasVisited("royal_castle")).isTrue();
+        assertThat(location.hasVisited("sunken_temple")).isFalse();
+        assertThat(history.firstVisit("starting_village")).isBeforeOrEqualTo(history.lastVisit("starting_village"));
+    }
+
+    @Test
+    void whenMovingBackAndForth_thenOnlyDistinctLocationsAreCounted() {
+        // given
+        LocationState location = LocationState.startingLocation();
+        int atStart = location.locationsVisited();
+
+        // when
+        for (String next : List.of("dark_forest", "starting_village", "dark_forest", "starting_village")) {
+            location = location.moveTo(next);
+        }
+
+        // then
+        assertThat(atStart).isEqualTo(1);
+        assertThat(location.locationsVisited()).isEqualTo(2);
+        assertThat(location.timesVisited("starting_village")).isEqualTo(2);
+        assertThat(location.timesVisited("dark_forest")).isEqualTo(2);
+    }
+
+    @Test
+    void whenLegacyHistoryIsLoaded_thenEveryVisitIsIndexed() {
+        // given
+        Instant start = Instant.parse("2025-01-01T00:00:00Z");
+        List<LocationVisit> stored = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            stored.add(new LocationVisit(ROUTE.get(i % ROUTE.size()), start.plusSeconds(60L * i), null, 1));
+        }
+
+        // when
+        LocationHistory history = LocationHistory.restore(stored, null, 10);
+
+        // then
+        assertThat(history).hasSize(10).isEqualTo(stored.subList(40, 50));
+        assertThat(history.visits("starting_village")).isEqualTo(13);
+        assertThat(history.firstVisit("starting_village")).isEqualTo(start);
+        assertThat(history.lastVisit("starting_village")).isEqualTo(start.plusSeconds(60L * 48));
+    }
+
+    @Test
+    void whenIndexIsStored_thenItRestoresTheSameCounts() {
+        // given
+        LocationState location = LocationState.startingLocation();
+        for (int i = 1; i <= 60; i++) {
+            location = location.moveTo(ROUTE.get(i % ROUTE.size()));
+        }
+        LocationHistory history = location.history();
+
+        // when
+        byte[] stored = BinaryColumnFrame.encode(LocationCodecs.INDEX, new ArrayList<>(history.stats()));
+        LocationHistory restored = LocationHistory.restore(history, BinaryColumnFrame.decode(LocationCodecs.INDEX, stored),
+            LocationHistory.DEFAULT_WINDOW);
+
+        // then
+        assertThat(restored).isEqualTo(history);
+        assertThat(restored.totalVisits()).isEqualTo(60);
+        for (String name : ROUTE) {
+            assertThat(restored.visits(name)).isEqualTo(history.visits(name));
+            assertThat(restored.lastVisit(name).toEpochMilli()).isEqualTo(history.lastVisit(name).toEpochMilli());
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void measureLongSession() {
+        int moves = 100_000;
+        for (int round = 0; round < 2; round++) {
+            LocationState location = LocationState.startingLocation();
+            long start = System.nanoTime();
+            for (int i = 1; i <= moves; i++) {
+                location = location.moveTo(ROUTE.get(i % ROUTE.size()));
+            }
+            long nanos = System.nanoTime() - start;
+            int indexBytes = BinaryColumnFrame.encode(LocationCodecs.INDEX, new ArrayList<>(location.history().stats())).length;
+            if (round == 1) {
+                System.out.printf(Locale.ROOT, "%d moves: %.2f us/move, window %d visits, index %d bytes%n",
+                    moves, nanos / 1000.0 / moves, location.locationHistory().size(), indexBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ai.rpg.core.domain;
+
+import ai.rpg.persistence.entity.SessionMetricsEmbeddable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionMetricsTest {
+
+    @Test
+    void whenEveryTypeIsRecorded_thenEachHasItsOwnCount() {
+        // given
+        SessionMetrics metrics = SessionMetrics.empty();
+
+        // when
+        for (ActionType type : ActionType.values()) {
+            metrics = metrics.incrementAction(type);
+        }
+        metrics = metrics.incrementAction(ActionType.CAST);
+
+        // then
+        assertThat(metrics.totalActions()).isEqualTo(ActionType.values().length + 1);
+        assertThat(metrics.actionCounts().count(ActionType.CAST)).isEqualTo(2);
+        assertThat(metrics.actionCounts().count(ActionType.REST)).isEqualTo(1);
+        assertThat(metrics.combatActions()).isEqualTo(2);
+        assertThat(metrics.socialActions()).isEqualTo(2);
+        assertThat(metrics.exploreActions()).isEqualTo(2);
+    }
+
+    @Test
+    void whenStored_thenCategoryColumnsFollowTheSharedTable() {
+        // given
+        ActionCounts counts = ActionCounts.of(Map.of(ActionType.COMBAT, 3, ActionType.TRADE, 2, ActionType.USE, 1));
+        SessionMetricsEmbeddable embeddable = new SessionMetricsEmbeddable();
+
+        // when
+        embeddable.setActionCounts(counts);
+        embeddable.incrementAction(ActionType.MOVE);
+
+        // then
+        assertThat(embeddable.getTotalActions()).isEqualTo(7);
+        assertThat(embeddable.getCombatActions()).isEqualTo(3);
+        assertThat(embeddable.getSocialActions()).isEqualTo(2);
+        assertThat(embeddable.getExploreActions()).isEqualTo(1);
+        assertThat(embeddable.getActionCounts()).isEqualTo(counts.increment(ActionType.MOVE));
+    }
+
+    @Test
+    void whenServerWideCountersAreRead_thenSnapshotCoversEveryType() {
+        // given
+        ActionCounters counters = new ActionCounters();
+
+        // when
+        counters.increment(ActionType.ATTACK);
+        counters.increment(ActionType.COMBAT);
+        counters.increment(ActionType.REST);
+
+        // then
+        assertThat(counters.snapshot()).hasSize(ActionType.values().length).containsEntry(ActionType.REST, 1L);
+        assertThat(counters.count(ActionCategory.COMBAT)).isEqualTo(2);
+        assertThat(counters.total()).isEqualTo(3);
+    }
+}
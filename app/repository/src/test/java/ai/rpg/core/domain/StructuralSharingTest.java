@@ -0,0 +1,204 @@
+package ai.rpg.core.domain;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that withers on PlayerContext, CharacterState and NPCRelationship share
+ * unchanged collections and leave earlier versions intact. Run the allocation
+ * measurement with {@code ./gradlew :app:repository:benchmark}.
+ */
+class StructuralSharingTest {
+    private static final int ITEMS = 200;
+    private static final int NPCS = 100;
+    private static final int FACTS = 200;
+    private static final int TURNS = 10_000;
+
+    @Test
+    void whenWitherChangesOneField_thenOtherCollectionsAreShared() {
+        // given
+        PlayerContext context = largeContext();
+        CharacterState character = context.character();
+        NPCRelationship npc = context.npcStates().get("npc-0");
+
+        // when
+        CharacterState hurt = character.withHealthChange(-1);
+        NPCRelationship talkedTo = npc.afterInteraction(5, List.of());
+        PlayerContext updated = context.withNpcState(talkedTo).withNewAction(action(0));
+
+        // then
+        assertThat(hurt.inventory()).isSameAs(character.inventory());
+        assertThat(hurt.attributes()).isSameAs(character.attributes());
+        assertThat(talkedTo.knownFacts()).isSameAs(npc.knownFacts());
+        assertThat(talkedTo.notes()).isSameAs(npc.notes());
+        assertThat(updated.character()).isSameAs(context.character());
+        assertThat(updated.withUpdatedTime().npcStates()).isSameAs(updated.npcStates());
+    }
+
+    @Test
+    void whenCollectionIsExtended_thenEarlierVersionIsUnchanged() {
+        // given
+        PlayerContext context = largeContext();
+        CharacterState character = context.character();
+        NPCRelationship npc = context.npcStates().get("npc-0");
+
+        // when
+        CharacterState stronger = character.withAttribute("strength", 18).withInventoryItem(item(ITEMS));
+        NPCRelationship informed = npc.afterInteraction(0, List.of("fact-0", "new-fact", "new-fact"));
+        PlayerContext updated = context.withNpcState(NPCRelationship.firstMeeting("stranger", "Stranger", "harbor"));
+
+        // then
+        assertThat(character.attributes()).containsEntry("strength", 10).hasSize(4);
+        assertThat(stronger.attributes()).containsEntry("strength", 18).hasSize(4);
+        assertThat(character.inventory()).hasSize(ITEMS);
+        assertThat(stronger.inventory()).hasSize(ITEMS + 1).endsWith(item(ITEMS));
+        assertThat(npc.knownFacts()).hasSize(FACTS);
+        assertThat(informed.knownFacts()).hasSize(FACTS + 1).endsWith("new-fact");
+        assertThat(context.npcStates()).hasSize(NPCS).doesNotContainKey("stranger");
+        assertThat(updated.npcStates()).hasSize(NPCS + 1).containsKey("stranger");
+    }
+
+    @Test
+    void whenComparedWithPlainCollections_thenContentsAreEqual() {
+        // given
+        List<String> facts = new ArrayList<>();
+        Map<String, Integer> attributes = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            facts.add("fact-" + i);
+            attributes.put("attribute-" + i, i);
+        }
+
+        // when
+        PersistentVector<String> vector = PersistentVector.of(facts);
+        PersistentMap<String, Integer> map = PersistentMap.of(attributes);
+
+        // then
+        assertThat(vector).isEqualTo(facts).hasSameHashCodeAs(facts);
+        assertThat(map).isEqualTo(attributes).hasSameHashCodeAs(attributes);
+        assertThat(PersistentVector.of(vector)).isSameAs(vector);
+        assertThat(PersistentMap.of(map)).isSameAs(map);
+        assertThat(map.without("attribute-7")).hasSize(999).doesNotContainKey("attribute-7");
+        assertThat(vector.with(500, "replaced").get(500)).isEqualTo("replaced");
+        assertThat(vector.get(500)).isEqualTo("fact-500");
+    }
+
+    @Test
+    void whenCollectionContainsNull_thenItIsRejected() {
+        // given
+        List<String> facts = Arrays.asList("fact", null);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("key", null);
+
+        // when / then
+        assertThatThrownBy(() -> PersistentVector.of(facts)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> PersistentMap.of(metadata)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void measureAllocationPerTurn() {
+        PlayerContext context = largeContext();
+        copyingTurns(context, TURNS);
+        sharingTurns(context, TURNS);
+
+        long copying = allocatedBytes(() -> copyingTurns(context, TURNS));
+        long sharing = allocatedBytes(() -> sharingTurns(context, TURNS));
+
+        System.out.printf(Locale.ROOT, "copy on write:      %,.0f bytes/turn%n", (double) copying / TURNS);
+        System.out.printf(Locale.ROOT, "structural sharing: %,.0f bytes/turn%n", (double) sharing / TURNS);
+    }
+
+    // One turn: an action, a conversation that teaches a fact, a new item and an attribute bump
+    private static PlayerContext sharingTurns(PlayerContext context, int turns) {
+        for (int t = 0; t < turns; t++) {
+            NPCRelationship npc = context.npcStates().get("npc-" + t % NPCS);
+            CharacterState character = context.character()
+                .withInventoryItem(item(t))
+                .withAttribute("strength", t % 20);
+            context = withCharacter(context.withNewAction(action(t)), character)
+                .withNpcState(npc.afterInteraction(1, List.of("turn-" + t)));
+        }
+        return context;
+    }
+
+    // The same turn on plain immutable collections, copied in full as the records did before
+    private static PlayerContext copyingTurns(PlayerContext context, int turns) {
+        List<InventoryItem> inventory = List.copyOf(context.character().inventory());
+        Map<String, Integer> attributes = Map.copyOf(context.character().attributes());
+        Map<String, List<String>> initialFacts = new HashMap<>();
+        context.npcStates().forEach((npcId, npc) -> initialFacts.put(npcId, List.copyOf(npc.knownFacts())));
+        Map<String, List<String>> factsByNpc = Map.copyOf(initialFacts);
+
+        for (int t = 0; t < turns; t++) {
+            String npcId = "npc-" + t % NPCS;
+            List<String> facts = new ArrayList<>(factsByNpc.get(npcId));
+            facts.add("turn-" + t);
+            Map<String, List<String>> updatedFacts = new HashMap<>(factsByNpc);
+            updatedFacts.put(npcId, List.copyOf(facts));
+            factsByNpc = Map.copyOf(updatedFacts);
+
+            List<InventoryItem> updatedInventory = new ArrayList<>(inventory);
+            updatedInventory.add(item(t));
+            inventory = List.copyOf(updatedInventory);
+            Map<String, Integer> updatedAttributes = new HashMap<>(attributes);
+            updatedAttributes.put("strength", t % 20);
+            attributes = Map.copyOf(updatedAttributes);
+
+            context = context.withNewAction(action(t));
+        }
+        return context;
+    }
+
+    private static PlayerContext withCharacter(PlayerContext context, CharacterState character) {
+        return new PlayerContext(context.playerId(), context.sessionId(), context.startTime(), context.lastUpdate(),
+            character, context.location(), context.actions(), context.npcStates(), context.sessionStats(),
+            context.digest());
+    }
+
+    private static PlayerContext largeContext() {
+        CharacterState character = CharacterState.newCharacter("Hero");
+        for (int i = 0; i < ITEMS; i++) {
+            character = character.withInventoryItem(item(i));
+        }
+        List<String> facts = new ArrayList<>(FACTS);
+        for (int i = 0; i < FACTS; i++) {
+            facts.add("fact-" + i);
+        }
+        Map<String, NPCRelationship> npcs = new HashMap<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < NPCS; i++) {
+            npcs.put("npc-" + i, new NPCRelationship("npc-" + i, "NPC " + i, 0, now, now, 1,
+                facts, NPCMood.NEUTRAL, "starting_village", List.of("note")));
+        }
+        return new PlayerContext("player", "session", now, now, character, LocationState.startingLocation(),
+            List.of(), npcs, SessionMetrics.empty(), null);
+    }
+
+    private static InventoryItem item(int index) {
+        return new InventoryItem("item-" + index, "Item " + index, "misc", 1, 1, Map.of());
+    }
+
+    private static ActionEvent action(int index) {
+        return new ActionEvent("action-" + index, Instant.now(), ActionType.TALK, "talk", "npc-0",
+            "starting_village", "ok", List.of(), Map.of(), 0);
+    }
+
+    private static long allocatedBytes(Runnable work) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        work.run();
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+}
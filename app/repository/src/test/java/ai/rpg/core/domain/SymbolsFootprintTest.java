@@ -0,0 +1,152 @@
+package ai.rpg.core.domain;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Holds 10k sessions built from freshly allocated names, as a load from the
+ * database or the journal would produce them, and checks that each distinct name
+ * is retained once. Run the heap measurement with {@code ./gradlew :app:repository:benchmark}.
+ */
+class SymbolsFootprintTest {
+    private static final int SESSIONS = 10_000;
+    private static final int ACTIONS_PER_SESSION = 20;
+    private static final int VISITS_PER_SESSION = 10;
+    private static final List<String> LOCATIONS = List.of(
+        "starting_village", "dark_forest", "mountain_pass", "abandoned_mine", "royal_castle",
+        "harbor_district", "sunken_temple", "merchant_quarter", "wizard_tower", "frozen_lake");
+    private static final List<String> NPCS = List.of(
+        "blacksmith_tom", "innkeeper_mara", "captain_rhys", "hermit_olan", "queen_elsa");
+
+    @Test
+    void whenSessionsAreLoaded_thenEachNameIsRetainedOnce() {
+        // given
+        List<PlayerContext> sessions = loadSessions();
+
+        // when
+        Set<String> locationInstances = identitySet();
+        Set<String> npcInstances = identitySet();
+        for (PlayerContext session : sessions) {
+            locationInstances.add(session.location().current());
+            locationInstances.add(session.location().previous());
+            session.location().locationHistory().forEach(visit -> locationInstances.add(visit.location()));
+            for (ActionEvent action : session.actions()) {
+                locationInstances.add(action.location());
+                npcInstances.add(action.target());
+            }
+            session.npcStates().forEach((npcId, relationship) -> {
+                npcInstances.add(npcId);
+                npcInstances.add(relationship.npcId());
+                locationInstances.add(relationship.location());
+            });
+        }
+
+        // then
+        assertThat(locationInstances).hasSize(LOCATIONS.size());
+        assertThat(npcInstances).hasSize(NPCS.size());
+    }
+
+    @Test
+    void whenNameIsTooLong_thenItIsNotAdmitted() {
+        // given
+        String sentence = "x".repeat(Symbols.MAX_SYMBOL_LENGTH + 1);
+
+        // when / then
+        assertThat(Symbols.id(sentence)).isEqualTo(Symbols.NONE);
+        assertThat(Symbols.intern(sentence)).isSameAs(sentence);
+    }
+
+    @Test
+    void whenTargetIsFreeForm_thenItIsNotRegistered() {
+        // given
+        String npc = Symbols.intern("target_npc_" + System.nanoTime());
+        String phrase = "the loose stone behind the altar " + System.nanoTime();
+        int before = Symbols.size();
+
+        // when
+        ActionEvent atNpc = ActionEvent.create(ActionType.TALK, "talk", copyOf(npc), "starting_village", "ok", List.of());
+        ActionEvent atPhrase = ActionEvent.create(ActionType.EXAMINE, "examine", phrase, "starting_village", "ok",
+            List.of());
+
+        // then
+        assertThat(atNpc.target()).isSameAs(npc);
+        assertThat(atPhrase.target()).isSameAs(phrase);
+        assertThat(Symbols.size()).isEqualTo(before);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void measureRetainedHeapPerSession() {
+        long before = usedHeap();
+        List<PlayerContext> sessions = loadSessions();
+        long after = usedHeap();
+
+        long occurrences = (long) SESSIONS * (2 + VISITS_PER_SESSION + 2L * ACTIONS_PER_SESSION + 3L * NPCS.size());
+        System.out.printf(Locale.ROOT, "%d sessions retain %.1f MB (%.0f bytes/session)%n",
+            sessions.size(), (after - before) / 1e6, (double) (after - before) / sessions.size());
+        System.out.printf(Locale.ROOT, "%d name references share %d symbols%n", occurrences, Symbols.size());
+    }
+
+    private static List<PlayerContext> loadSessions() {
+        Instant now = Instant.now();
+        List<PlayerContext> sessions = new ArrayList<>(SESSIONS);
+        for (int s = 0; s < SESSIONS; s++) {
+            List<LocationVisit> visits = new ArrayList<>(VISITS_PER_SESSION);
+            for (int v = 0; v < VISITS_PER_SESSION; v++) {
+                visits.add(new LocationVisit(copyOf(location(s + v)), now, now, 0));
+            }
+            LocationState location = new LocationState(copyOf(location(s)), copyOf(location(s + 1)), 1, now, 0, visits);
+
+            // NPCs first: an action target only shares the name of an NPC already known
+            Map<String, NPCRelationship> npcs = new HashMap<>();
+            for (String npc : NPCS) {
+                // Keyed the way PlayerContextMapper.toNpcStates keys a loaded session
+                npcs.put(Symbols.intern(copyOf(npc)), new NPCRelationship(copyOf(npc), "name", 0, now, now, 1,
+                    List.of(), NPCMood.NEUTRAL, copyOf(location(s)), List.of()));
+            }
+
+            List<ActionEvent> actions = new ArrayList<>(ACTIONS_PER_SESSION);
+            for (int a = 0; a < ACTIONS_PER_SESSION; a++) {
+                actions.add(new ActionEvent("action-" + s + "-" + a, now, ActionType.TALK, "talk",
+                    copyOf(NPCS.get((s + a) % NPCS.size())), copyOf(location(s + a)), "ok", List.of(), Map.of(), 0));
+            }
+
+            sessions.add(new PlayerContext("player-" + s, "session-" + s, now, now,
+                CharacterState.newCharacter("Hero"), location, actions, npcs, SessionMetrics.empty(), null));
+        }
+        return sessions;
+    }
+
+    private static String location(int index) {
+        return LOCATIONS.get(index % LOCATIONS.size());
+    }
+
+    // A distinct instance with the same contents, like a freshly decoded column value
+    private static String copyOf(String name) {
+        return new String(name.toCharArray());
+    }
+
+    private static Set<String> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
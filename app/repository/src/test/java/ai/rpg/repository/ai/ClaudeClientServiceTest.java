@@ -1,8 +1,75 @@
 package ai.rpg.repository.ai;
 
-import org.springframework.boot.test.context.SpringBootTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@SpringBootTest
 class ClaudeClientServiceTest {
-    // Test temporarily disabled
-} 
\ No newline at end of file
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void whenStreamHasTextDeltas_thenOnlyTheirTextIsEmitted() {
+        // given
+        Flux<ServerSentEvent<String>> events = Flux.just(
+            event("message_start", "{\"type\":\"message_start\",\"message\":{\"id\":\"msg_1\"}}"),
+            event("content_block_start", "{\"type\":\"content_block_start\",\"index\":0}"),
+            event("ping", "{\"type\":\"ping\"}"),
+            event("content_block_delta", delta("The tavern ")),
+            event("content_block_delta", delta("")),
+            event("content_block_delta", delta("is quiet.")),
+            event("content_block_stop", "{\"type\":\"content_block_stop\",\"index\":0}"),
+            event("message_stop", "{\"type\":\"message_stop\"}"),
+            event("content_block_delta", delta("after stop"))
+        );
+
+        // when
+        List<String> tokens = ClaudeClientService.textDeltas(events, objectMapper).collectList().block();
+
+        // then
+        assertThat(tokens).containsExactly("The tavern ", "is quiet.");
+    }
+
+    @Test
+    void whenStreamSendsErrorEvent_thenItFailsWithTheProviderError() {
+        // given
+        Flux<ServerSentEvent<String>> events = Flux.just(
+            event("content_block_delta", delta("Partial")),
+            event("error", "{\"type\":\"error\",\"error\":{\"type\":\"overloaded_error\",\"message\":\"Overloaded\"}}"),
+            event("content_block_delta", delta("never"))
+        );
+        List<String> received = new ArrayList<>();
+
+        // when / then
+        assertThatThrownBy(() -> ClaudeClientService.textDeltas(events, objectMapper).doOnNext(received::add).blockLast())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("overloaded_error")
+            .hasMessageContaining("Overloaded");
+        assertThat(received).containsExactly("Partial");
+    }
+
+    @Test
+    void whenDeltaIsMalformed_thenStreamFails() {
+        // given
+        Flux<ServerSentEvent<String>> events = Flux.just(event("content_block_delta", "{not json"));
+
+        // when / then
+        assertThatThrownBy(() -> ClaudeClientService.textDeltas(events, objectMapper).blockLast())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Malformed Claude stream event");
+    }
+
+    private static ServerSentEvent<String> event(String name, String data) {
+        return ServerSentEvent.<String>builder().event(name).data(data).build();
+    }
+
+    private static String delta(String text) {
+        return "{\"type\":\"content_block_delta\",\"index\":0,\"delta\":{\"type\":\"text_delta\",\"text\":\"" + text + "\"}}";
+    }
+}
@@ -0,0 +1,75 @@
+package ai.rpg.repository.ai;
+
+import ai.rpg.repository.config.CompletionCacheProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompletionCacheTest {
+
+    @Test
+    void whenIdenticalPromptsInFlight_thenProviderCalledOnce() {
+        // given
+        CompletionCache cache = new CompletionCache(new CompletionCacheProperties(Duration.ofMinutes(1), 100));
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> first = cache.get("claude", "Describe the tavern", () -> delayedResponse(calls));
+        Mono<String> second = cache.get("claude", "  Describe   the\ntavern ", () -> delayedResponse(calls));
+
+        // when
+        String combined = Mono.zip(first, second, (a, b) -> a + "|" + b).block();
+        String cached = cache.get("claude", "Describe the tavern", () -> delayedResponse(calls)).block();
+
+        // then
+        assertThat(combined).isEqualTo("response-1|response-1");
+        assertThat(cached).isEqualTo("response-1");
+        assertThat(calls).hasValue(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+        assertThat(cache.stats().coalesced()).isEqualTo(1);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void whenProviderFails_thenNextRequestRetries() {
+        // given
+        CompletionCache cache = new CompletionCache(new CompletionCacheProperties(Duration.ofMinutes(1), 100));
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<String> failing = cache.get("openai", "prompt", () -> Mono.error(new IllegalStateException("boom")));
+
+        // when
+        assertThatThrownBy(failing::block).hasMessageContaining("boom");
+        String retried = cache.get("openai", "prompt", () -> delayedResponse(calls)).block();
+
+        // then
+        assertThat(retried).isEqualTo("response-1");
+        assertThat(calls).hasValue(1);
+        assertThat(cache.stats().misses()).isEqualTo(2);
+        assertThat(cache.stats().hits()).isZero();
+    }
+
+    @Test
+    void whenCacheIsFull_thenCompletedEntriesAreEvicted() {
+        // given
+        CompletionCache cache = new CompletionCache(new CompletionCacheProperties(Duration.ofMinutes(1), 2));
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            cache.get("claude", "prompt " + i, () -> delayedResponse(calls)).block();
+        }
+
+        // then
+        assertThat(cache.stats().size()).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(3);
+    }
+
+    private static Mono<String> delayedResponse(AtomicInteger calls) {
+        return Mono.fromSupplier(() -> "response-" + calls.incrementAndGet())
+            .delayElement(Duration.ofMillis(50));
+    }
+}
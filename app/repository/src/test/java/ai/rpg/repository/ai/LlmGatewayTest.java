@@ -0,0 +1,196 @@
+package ai.rpg.repository.ai;
+
+import ai.rpg.repository.config.LlmGatewayProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class LlmGatewayTest {
+    private HttpServer stub;
+    private volatile long latencyMillis;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private LlmGateway gateway;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.createContext("/complete", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException | IOException e) {
+                exchange.close();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+        stub.stop(0);
+    }
+
+    @Test
+    void whenProviderSlowsDown_thenConcurrencyIsCappedAndOverflowFailsFast() {
+        // given
+        gateway = new LlmGateway(properties(2, 2, Duration.ofSeconds(5), Duration.ofSeconds(10)));
+        WebClient client = client();
+        latencyMillis = 300;
+
+        // when
+        long start = System.nanoTime();
+        List<String> outcomes = Flux.range(0, 8)
+            .flatMap(i -> gateway.execute("stub", () -> call(client))
+                .onErrorResume(LlmGatewayRejectedException.class, e -> Mono.just("rejected")))
+            .collectList()
+            .block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // then
+        assertThat(outcomes).filteredOn("ok"::equals).hasSize(4);
+        assertThat(outcomes).filteredOn("rejected"::equals).hasSize(4);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+        // Two waves of two calls each; the overflow never reached the stub
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(3));
+        // Permits are released in doFinally, which may run just after the caller sees the result
+        await().atMost(Duration.ofSeconds(1)).untilAsserted(() -> {
+            LlmGateway.ProviderStats stats = gateway.stats("stub");
+            assertThat(stats.active()).isZero();
+            assertThat(stats.queued()).isZero();
+            assertThat(stats.completed()).isEqualTo(4);
+            assertThat(stats.rejected()).isEqualTo(4);
+        });
+    }
+
+    @Test
+    void whenReadDeadlineExceeded_thenCallFailsAndReleasesPermit() {
+        // given
+        gateway = new LlmGateway(properties(1, 0, Duration.ofMillis(200), Duration.ofSeconds(10)));
+        WebClient client = client();
+        // Warm up the HTTP client outside the gateway so startup cost is not timed
+        call(client).block();
+        latencyMillis = 2_000;
+
+        // when
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gateway.execute("stub", () -> call(client)).block())
+            .isInstanceOf(RuntimeException.class);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // then
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(1));
+        await().atMost(Duration.ofSeconds(1)).until(() -> gateway.stats("stub").active() == 0);
+    }
+
+    @Test
+    void whenQueuedPastTotalDeadline_thenTimesOutAndLeavesQueue() {
+        // given
+        gateway = new LlmGateway(properties(1, 1, Duration.ofSeconds(5), Duration.ofMillis(500)));
+        WebClient client = client();
+        latencyMillis = 2_000;
+
+        // when
+        Mono<String> first = gateway.execute("stub", () -> call(client))
+            .onErrorResume(TimeoutException.class, e -> Mono.just("timeout"));
+        Mono<String> queued = gateway.execute("stub", () -> call(client))
+            .onErrorResume(TimeoutException.class, e -> Mono.just("timeout"));
+        List<String> outcomes = Flux.merge(first, queued).collectList().block();
+
+        // then
+        assertThat(outcomes).containsExactly("timeout", "timeout");
+        await().atMost(Duration.ofSeconds(1)).untilAsserted(() -> {
+            LlmGateway.ProviderStats stats = gateway.stats("stub");
+            assertThat(stats.timeouts()).isEqualTo(2);
+            assertThat(stats.active()).isZero();
+            assertThat(stats.queued()).isZero();
+        });
+    }
+
+    @Test
+    void whenStreamOutlivesTotalDeadline_thenItRunsToCompletion() {
+        // given
+        gateway = new LlmGateway(properties(1, 0, Duration.ofSeconds(5), Duration.ofMillis(300)));
+
+        // when
+        List<Long> tokens = gateway.stream("stub", () -> Flux.interval(Duration.ofMillis(50)).take(15))
+            .collectList()
+            .block();
+
+        // then
+        assertThat(tokens).hasSize(15);
+        await().atMost(Duration.ofSeconds(1)).until(() -> gateway.stats("stub").active() == 0);
+        assertThat(gateway.stats("stub").timeouts()).isZero();
+    }
+
+    @Test
+    void whenStreamStalls_thenIdleTimeoutFailsItAndReleasesPermit() {
+        // given
+        gateway = new LlmGateway(properties(1, 0, Duration.ofSeconds(5), Duration.ofSeconds(5)));
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        // when
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gateway.stream("stub", () -> Flux.concat(Flux.just("first"), Flux.<String>never()))
+                .doOnNext(received::add)
+                .blockLast())
+            .hasCauseInstanceOf(TimeoutException.class)
+            .hasMessageContaining("idle timeout");
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // then
+        assertThat(received).containsExactly("first");
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+        await().atMost(Duration.ofSeconds(1)).until(() -> gateway.stats("stub").active() == 0);
+        assertThat(gateway.stats("stub").timeouts()).isEqualTo(1);
+    }
+
+    private LlmGatewayProperties properties(int concurrency, int queueCapacity,
+                                            Duration readTimeout, Duration totalTimeout) {
+        return new LlmGatewayProperties(concurrency, queueCapacity, Map.of(), Duration.ofSeconds(1),
+            readTimeout, totalTimeout, Duration.ofMillis(500), Duration.ofSeconds(10),
+            16, Duration.ofSeconds(30), Duration.ofMinutes(5));
+    }
+
+    private WebClient client() {
+        return gateway.configure(WebClient.builder())
+            .baseUrl("http://localhost:" + stub.getAddress().getPort())
+            .build();
+    }
+
+    private static Mono<String> call(WebClient client) {
+        return client.get().uri("/complete").retrieve().bodyToMono(String.class);
+    }
+}
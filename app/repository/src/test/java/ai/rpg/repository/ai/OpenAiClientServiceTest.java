@@ -0,0 +1,74 @@
+package ai.rpg.repository.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenAiClientServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void whenStreamHasContentDeltas_thenTheyAreEmittedUntilDone() {
+        // given
+        Flux<ServerSentEvent<String>> events = Flux.just(
+            event("{\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\"}}]}"),
+            event(chunk("The tavern ")),
+            event(chunk("")),
+            ServerSentEvent.<String>builder().comment("keep-alive").build(),
+            event(chunk("is quiet.")),
+            event("{\"choices\":[{\"index\":0,\"delta\":{},\"finish_reason\":\"stop\"}]}"),
+            event(" [DONE] "),
+            event(chunk("after done"))
+        );
+
+        // when
+        List<String> tokens = OpenAiClientService.contentDeltas(events, objectMapper).collectList().block();
+
+        // then
+        assertThat(tokens).containsExactly("The tavern ", "is quiet.");
+    }
+
+    @Test
+    void whenChunkCarriesAnError_thenStreamFailsWithTheProviderError() {
+        // given
+        Flux<ServerSentEvent<String>> events = Flux.just(
+            event(chunk("Partial")),
+            event("{\"error\":{\"type\":\"server_error\",\"message\":\"The server had an error\"}}"),
+            event(chunk("never"))
+        );
+        List<String> received = new ArrayList<>();
+
+        // when / then
+        assertThatThrownBy(() -> OpenAiClientService.contentDeltas(events, objectMapper).doOnNext(received::add).blockLast())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("server_error")
+            .hasMessageContaining("The server had an error");
+        assertThat(received).containsExactly("Partial");
+    }
+
+    @Test
+    void whenChunkIsMalformed_thenStreamFails() {
+        // given
+        Flux<ServerSentEvent<String>> events = Flux.just(event("{not json"));
+
+        // when / then
+        assertThatThrownBy(() -> OpenAiClientService.contentDeltas(events, objectMapper).blockLast())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Malformed OpenAI stream event");
+    }
+
+    private static ServerSentEvent<String> event(String data) {
+        return ServerSentEvent.builder(data).build();
+    }
+
+    private static String chunk(String content) {
+        return "{\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + content + "\"}}]}";
+    }
+}
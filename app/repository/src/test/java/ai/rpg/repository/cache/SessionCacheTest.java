@@ -0,0 +1,237 @@
+package ai.rpg.repository.cache;
+
+import ai.rpg.core.domain.CharacterState;
+import ai.rpg.core.domain.PlayerContext;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.persistence.mapper.PlayerContextMapper;
+import ai.rpg.repository.config.SessionCacheProperties;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import ai.rpg.repository.service.PlayerContextReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(PlayerContextReader.class)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class SessionCacheTest {
+
+    @TestConfiguration
+    @ComponentScan("ai.rpg.persistence.mapper")
+    static class Mappers {}
+
+    @Autowired
+    private PlayerContextRepository repository;
+
+    @Autowired
+    private PlayerContextMapper mapper;
+
+    @Autowired
+    private PlayerContextReader reader;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void whenCacheIsFull_thenCleanEntryIsEvicted() {
+        // given
+        SessionCache cache = cache(repository, 2);
+        cache.prime(PlayerContext.newPlayer("player-1", "evict-1", "Hero"));
+        cache.prime(PlayerContext.newPlayer("player-2", "evict-2", "Hero"));
+
+        // when
+        cache.prime(PlayerContext.newPlayer("player-3", "evict-3", "Hero"));
+
+        // then
+        SessionCache.Stats stats = cache.stats();
+        assertThat(stats.size()).isEqualTo(2);
+        assertThat(stats.evictions()).isEqualTo(1);
+        assertThat(stats.flushes()).isZero();
+    }
+
+    @Test
+    void whenEveryEntryIsDirty_thenNothingIsEvictedUntilFlushed() {
+        // given
+        SessionCache cache = cache(repository, 2);
+        persist("dirty-1");
+        persist("dirty-2");
+        cache.put(withReputation(PlayerContext.newPlayer("player-dirty-1", "dirty-1", "Hero"), 1));
+        cache.put(withReputation(PlayerContext.newPlayer("player-dirty-2", "dirty-2", "Hero"), 2));
+
+        // when
+        cache.prime(PlayerContext.newPlayer("player-dirty-3", "dirty-3", "Hero"));
+        SessionCache.Stats overflowing = cache.stats();
+        int written = cache.flush();
+        cache.prime(PlayerContext.newPlayer("player-dirty-4", "dirty-4", "Hero"));
+
+        // then
+        assertThat(overflowing.size()).isEqualTo(3);
+        assertThat(overflowing.evictions()).isZero();
+        assertThat(overflowing.dirty()).isEqualTo(2);
+        assertThat(written).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(storedReputation("dirty-1")).isEqualTo(1);
+        assertThat(storedReputation("dirty-2")).isEqualTo(2);
+    }
+
+    @Test
+    void whenDirtyEntryIsFlushed_thenItIsWrittenOnce() {
+        // given
+        SessionCache cache = cache(repository, 10);
+        PlayerContext context = persist("flush-once");
+        cache.prime(context);
+
+        // when
+        cache.update("flush-once", ctx -> withReputation(ctx, 7));
+        int first = cache.flush();
+        int second = cache.flush();
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(storedReputation("flush-once")).isEqualTo(7);
+        assertThat(cache.stats().dirty()).isZero();
+        assertThat(cache.stats().flushes()).isEqualTo(1);
+    }
+
+    @Test
+    void whenUpdatedDuringFlush_thenNewerVersionStaysDirty() {
+        // given
+        PlayerContext context = persist("flush-race");
+        AtomicBoolean raced = new AtomicBoolean();
+        SessionCache[] holder = new SessionCache[1];
+        // Lands a second update after the flush took its snapshot, before it is marked flushed
+        PlayerContextRepository racing = intercepting(repository, () -> {
+            if (raced.compareAndSet(false, true)) {
+                holder[0].update("flush-race", ctx -> withReputation(ctx, 2));
+            }
+        });
+        SessionCache cache = cache(racing, 10);
+        holder[0] = cache;
+        cache.put(withReputation(context, 1));
+
+        // when
+        int first = cache.flush();
+        long dirtyAfterFirst = cache.stats().dirty();
+        int storedAfterFirst = storedReputation("flush-race");
+        int second = cache.flush();
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(dirtyAfterFirst).isEqualTo(1);
+        assertThat(storedAfterFirst).isEqualTo(1);
+        assertThat(second).isEqualTo(1);
+        assertThat(storedReputation("flush-race")).isEqualTo(2);
+        assertThat(cache.stats().dirty()).isZero();
+    }
+
+    @Test
+    void whenDirtyEntryIsInvalidated_thenItIsFlushedFirst() {
+        // given
+        SessionCache cache = cache(repository, 10);
+        PlayerContext context = persist("invalidate");
+        cache.put(withReputation(context, 4));
+
+        // when
+        cache.invalidate("invalidate");
+
+        // then
+        assertThat(cache.stats().size()).isZero();
+        assertThat(storedReputation("invalidate")).isEqualTo(4);
+    }
+
+    @Test
+    void whenInvalidatedWhileDeactivating_thenTheFlushDoesNotReactivateTheSession() {
+        // given
+        SessionCache cache = cache(repository, 10);
+        PlayerContext context = persist("deactivate");
+        cache.put(withReputation(context, 5));
+
+        // when
+        // The same steps as starting a new session for the player
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            repository.findActiveSessionsByPlayerId("player-deactivate").forEach(session -> {
+                cache.invalidate(session.getSessionId());
+                repository.deactivateSession(session.getSessionId());
+            }));
+        cache.put(withReputation(context, 6));
+        cache.flush();
+
+        // then
+        PlayerContextEntity stored = new TransactionTemplate(transactionManager).execute(status ->
+            repository.findBySessionId("deactivate").orElseThrow());
+        assertThat(stored.getIsActive()).isFalse();
+        assertThat(stored.getCharacter().getReputation()).isEqualTo(6);
+    }
+
+    // Built by hand so the background flusher never runs and each test starts empty
+    private SessionCache cache(PlayerContextRepository repository, int maxSize) {
+        return new SessionCache(repository, mapper, reader,
+            new SessionCacheProperties(maxSize, Duration.ofHours(1)), transactionManager);
+    }
+
+    private PlayerContext persist(String sessionId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            PlayerContextEntity playerContext = new PlayerContextEntity();
+            playerContext.setPlayerId("player-" + sessionId);
+            playerContext.setSessionId(sessionId);
+            playerContext.setStartTime(Instant.now());
+            playerContext.setLastUpdate(Instant.now());
+            playerContext.setIsActive(true);
+            playerContext.setCharacter(new CharacterStateEmbeddable("Hero"));
+            repository.save(playerContext);
+        });
+        return PlayerContext.newPlayer("player-" + sessionId, sessionId, "Hero");
+    }
+
+    private int storedReputation(String sessionId) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+            repository.findBySessionId(sessionId).orElseThrow().getCharacter().getReputation());
+    }
+
+    private static PlayerContext withReputation(PlayerContext context, int reputation) {
+        CharacterState character = context.character()
+            .withReputationChange(reputation - context.character().reputation());
+        return new PlayerContext(context.playerId(), context.sessionId(), context.startTime(), context.lastUpdate(),
+            character, context.location(), context.actions(), context.npcStates(), context.sessionStats(),
+            context.digest());
+    }
+
+    // Runs the hook before every session lookup, then delegates
+    private static PlayerContextRepository intercepting(PlayerContextRepository delegate, Runnable beforeLookup) {
+        return (PlayerContextRepository) Proxy.newProxyInstance(
+            PlayerContextRepository.class.getClassLoader(),
+            new Class<?>[] {PlayerContextRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("findBySessionId")) {
+                    beforeLookup.run();
+                }
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}
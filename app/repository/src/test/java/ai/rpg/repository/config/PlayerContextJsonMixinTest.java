@@ -0,0 +1,41 @@
+package ai.rpg.repository.config;
+
+import ai.rpg.core.domain.ActionEvent;
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.PlayerContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jackson.JsonMixinModule;
+import org.springframework.boot.jackson.JsonMixinModuleEntries;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlayerContextJsonMixinTest {
+
+    @Test
+    void whenSerialized_thenTheDigestIsLeftOut() throws Exception {
+        // given
+        PlayerContext context = PlayerContext.newPlayer("player-json", "session-json", "Hero")
+            .withNewAction(ActionEvent.create(ActionType.TALK, "talk to innkeeper", "innkeeper",
+                "starting_village", "The innkeeper nods", List.of()));
+
+        // Registered the way Spring Boot's Jackson auto-configuration finds @JsonMixin classes
+        JsonMixinModule mixins = new JsonMixinModule();
+        mixins.registerEntries(JsonMixinModuleEntries.scan(new StaticApplicationContext(),
+            List.of(PlayerContextJsonMixin.class.getPackageName())), getClass().getClassLoader());
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(mixins).registerModule(new JavaTimeModule());
+
+        // when
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(context));
+
+        // then
+        assertThat(json.has("digest")).isFalse();
+        assertThat(json.path("sessionId").asText()).isEqualTo("session-json");
+        assertThat(json.path("actions")).hasSize(1);
+    }
+}
@@ -0,0 +1,43 @@
+package ai.rpg.repository.config;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.SessionMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jackson.JsonMixinModule;
+import org.springframework.boot.jackson.JsonMixinModuleEntries;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionMetricsJsonMixinTest {
+
+    @Test
+    void whenSerialized_thenDerivedTotalsAreIncluded() throws Exception {
+        // given
+        SessionMetrics metrics = SessionMetrics.empty()
+            .incrementAction(ActionType.ATTACK)
+            .incrementAction(ActionType.TALK)
+            .incrementAction(ActionType.MOVE)
+            .incrementAction(ActionType.MOVE);
+
+        // Registered the way Spring Boot's Jackson auto-configuration finds @JsonMixin classes
+        JsonMixinModule mixins = new JsonMixinModule();
+        mixins.registerEntries(JsonMixinModuleEntries.scan(new StaticApplicationContext(),
+            List.of(SessionMetricsJsonMixin.class.getPackageName())), getClass().getClassLoader());
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(mixins);
+
+        // when
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(metrics));
+
+        // then
+        assertThat(json.path("totalActions").asInt()).isEqualTo(4);
+        assertThat(json.path("combatActions").asInt()).isEqualTo(metrics.combatActions()).isPositive();
+        assertThat(json.path("socialActions").asInt()).isEqualTo(metrics.socialActions()).isPositive();
+        assertThat(json.path("exploreActions").asInt()).isEqualTo(metrics.exploreActions()).isPositive();
+        assertThat(json.path("actionCounts").path("MOVE").asInt()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,105 @@
+package ai.rpg.repository.executor;
+
+import ai.rpg.repository.config.SessionExecutorProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionActionExecutorTest {
+
+    private SessionActionExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    void whenSubmittingForOneSession_thenTasksRunInOrder() {
+        // given
+        executor = new SessionActionExecutor(new SessionExecutorProperties(4, 1024));
+        List<Integer> observed = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 500; i++) {
+            int sequence = i;
+            futures.add(executor.submit("session1", () -> {
+                observed.add(sequence);
+                return sequence;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // then
+        assertThat(observed).hasSize(500).isSorted();
+    }
+
+    @Test
+    void whenOneSessionIsBlocked_thenOtherStripesKeepRunning() throws Exception {
+        // given
+        executor = new SessionActionExecutor(new SessionExecutorProperties(64, 16));
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocked = executor.submit("session1", () -> await(release));
+
+        // when
+        String other = sessionOnAnotherStripe("session1", 64);
+        String result = executor.submit(other, () -> "done").get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result).isEqualTo("done");
+        assertThat(blocked).isNotDone();
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void whenStripeQueueIsFull_thenSubmissionFailsFast() {
+        // given
+        executor = new SessionActionExecutor(new SessionExecutorProperties(1, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit("session1", () -> await(release));
+        executor.submit("session1", () -> true);
+
+        // when
+        CompletableFuture<Boolean> rejected = executor.submit("session1", () -> true);
+
+        // then
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(executor.stats().get(0).rejected()).isEqualTo(1);
+        release.countDown();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String sessionOnAnotherStripe(String sessionId, int stripes) {
+        for (int i = 0; ; i++) {
+            String candidate = "session-" + i;
+            if (stripeOf(candidate, stripes) != stripeOf(sessionId, stripes)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static int stripeOf(String sessionId, int stripes) {
+        int hash = sessionId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes);
+    }
+}
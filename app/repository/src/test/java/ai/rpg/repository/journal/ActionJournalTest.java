@@ -0,0 +1,140 @@
+package ai.rpg.repository.journal;
+
+import ai.rpg.core.domain.ActionEvent;
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.journal.ActionJournal;
+import ai.rpg.persistence.journal.ActionJournalDrainer;
+import ai.rpg.persistence.journal.JournalRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActionJournalTest {
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenConcurrentAppendsSynced_thenDrainerDeliversEveryRecordOnce() throws Exception {
+        // given
+        List<JournalRecord> drained = new ArrayList<>();
+        try (ActionJournal journal = ActionJournal.open(directory, SEGMENT_BYTES)) {
+            ExecutorService appenders = Executors.newFixedThreadPool(8);
+            List<Future<?>> appends = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                JournalRecord record = record(i);
+                appends.add(appenders.submit(() -> {
+                    journal.sync(journal.append(record));
+                    return null;
+                }));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+            appenders.shutdown();
+
+            // when
+            int count = new ActionJournalDrainer(journal, drained::addAll, Duration.ofSeconds(1), 64).drain();
+
+            // then
+            assertThat(count).isEqualTo(300);
+            assertThat(journal.stats().syncs()).isLessThanOrEqualTo(300);
+            assertThat(journal.stats().undrainedBytes()).isZero();
+        }
+        assertThat(drained).extracting(record -> record.event().id()).doesNotHaveDuplicates().hasSize(300);
+        // Drained segments are deleted; only the active one remains
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void whenReopened_thenUndrainedRecordsAreReplayed() throws Exception {
+        // given
+        try (ActionJournal journal = ActionJournal.open(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(record(i));
+            }
+            journal.sync(journal.append(record(100)));
+            ActionJournal.Batch firstBatch = journal.read(journal.checkpointPosition(), 40);
+            journal.checkpoint(firstBatch.nextPosition());
+        }
+
+        // when
+        List<JournalRecord> replayed = new ArrayList<>();
+        try (ActionJournal reopened = ActionJournal.open(directory, SEGMENT_BYTES)) {
+            new ActionJournalDrainer(reopened, replayed::addAll, Duration.ofSeconds(1), 64).drain();
+
+            // then
+            assertThat(reopened.stats().recoveredRecords()).isEqualTo(61);
+        }
+        assertThat(replayed).hasSize(61);
+        assertThat(replayed.get(0).event()).isEqualTo(record(40).event());
+        assertThat(replayed.get(60).sessionId()).isEqualTo(record(100).sessionId());
+    }
+
+    @Test
+    void whenTailIsTorn_thenRecoveryStopsAtLastIntactRecord() throws Exception {
+        // given
+        try (ActionJournal journal = ActionJournal.open(directory, SEGMENT_BYTES)) {
+            journal.sync(journal.append(record(1)));
+            journal.sync(journal.append(record(2)));
+        }
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        ByteBuffer frames = ByteBuffer.wrap(bytes);
+        int end = 0;
+        while (frames.getInt(end) != 0) {
+            end += 8 + frames.getInt(end);
+        }
+        // A length header that reached disk without its payload
+        frames.putInt(end, 120);
+        Files.write(segment, bytes);
+
+        // when
+        List<JournalRecord> recovered = new ArrayList<>();
+        try (ActionJournal reopened = ActionJournal.open(directory, SEGMENT_BYTES)) {
+            reopened.sync(reopened.append(record(3)));
+            new ActionJournalDrainer(reopened, recovered::addAll, Duration.ofSeconds(1), 64).drain();
+        }
+
+        // then
+        assertThat(recovered).extracting(record -> record.event().id())
+            .containsExactly("action-1", "action-2", "action-3");
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    private static JournalRecord record(int i) {
+        return new JournalRecord("session-" + (i % 4), new ActionEvent(
+            "action-" + i,
+            Instant.ofEpochSecond(1_700_000_000L + i, 1_000),
+            i % 2 == 0 ? ActionType.MOVE : ActionType.TALK,
+            "command " + i,
+            i % 2 == 0 ? null : "npc-" + i,
+            "location-" + (i % 3),
+            "outcome ".repeat(i % 20 + 1),
+            List.of("consequence-" + i),
+            Map.of("turn", (long) i, "roll", 0.5, "critical", i % 7 == 0, "note", "n" + i),
+            0
+        ));
+    }
+}
@@ -0,0 +1,110 @@
+package ai.rpg.repository.repository;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.order_updates=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ActionEventBatchInsertTest {
+    private static final int EVENTS = 500;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void whenSavingManyEvents_thenInsertsAreBatched() {
+        // given
+        PlayerContextEntity playerContext = persistPlayerContext("session-batch");
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // when
+        insertEvents(playerContext, "batch", EVENTS);
+
+        // then
+        // One statement per 50-row batch plus one sequence call per 50 ids, rather than one per event
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(EVENTS / 10);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(EVENTS);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkInsertThroughputWithAndWithoutBatching() {
+        PlayerContextEntity playerContext = persistPlayerContext("session-bench");
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+
+        // Warm up both paths
+        session.setJdbcBatchSize(1);
+        insertEvents(playerContext, "warm-single", EVENTS);
+        session.setJdbcBatchSize(50);
+        insertEvents(playerContext, "warm-batch", EVENTS);
+
+        // Batch size 1 behaves like IDENTITY: one round trip per event
+        session.setJdbcBatchSize(1);
+        double unbatched = eventsPerSecond(() -> insertEvents(playerContext, "single", EVENTS * 4));
+        session.setJdbcBatchSize(50);
+        double batched = eventsPerSecond(() -> insertEvents(playerContext, "batched", EVENTS * 4));
+
+        System.out.printf("action event inserts: unbatched %.0f events/s, batched %.0f events/s (%.1fx)%n",
+            unbatched, batched, batched / unbatched);
+        assertThat(batched).isGreaterThan(unbatched);
+    }
+
+    private void insertEvents(PlayerContextEntity playerContext, String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            ActionEventEntity event = new ActionEventEntity(prefix + "-" + i, ActionType.MOVE,
+                "go north", null, "forest", "You walk north", List.of("moved"));
+            event.setPlayerId(playerContext.getPlayerId());
+            event.setPlayerContext(playerContext);
+            entityManager.persist(event);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private double eventsPerSecond(Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        return EVENTS * 4 / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private PlayerContextEntity persistPlayerContext(String sessionId) {
+        PlayerContextEntity playerContext = new PlayerContextEntity();
+        playerContext.setPlayerId("player-" + sessionId);
+        playerContext.setSessionId(sessionId);
+        playerContext.setStartTime(Instant.now());
+        playerContext.setLastUpdate(Instant.now());
+        playerContext.setIsActive(true);
+        playerContext.setCharacter(new CharacterStateEmbeddable("TestHero"));
+        return entityManager.persistFlushFind(playerContext);
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    }
+}
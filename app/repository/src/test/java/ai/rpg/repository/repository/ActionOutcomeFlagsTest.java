@@ -0,0 +1,122 @@
+package ai.rpg.repository.repository;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.OutcomeFlags;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.repository.service.OutcomeFlagBackfill;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ActionOutcomeFlagsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ActionEventRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void whenSaved_thenOutcomeIsClassifiedAndQueryable() {
+        // given
+        PlayerContextEntity playerContext = persistPlayerContext("session-flags");
+        persistAction(playerContext, "a-win", ActionType.TALK, List.of("persuasion success"));
+        persistAction(playerContext, "a-hit", ActionType.ATTACK, List.of("orc wounded"));
+        persistAction(playerContext, "a-look", ActionType.EXAMINE, List.of("nothing found"));
+        entityManager.clear();
+
+        // when
+        List<ActionEventEntity> successful = repository.findSuccessfulActions(PageRequest.of(0, 10));
+        List<ActionEventEntity> combat = repository.findCombatActions(PageRequest.of(0, 10));
+
+        // then
+        assertThat(successful).extracting(ActionEventEntity::getActionId).containsExactly("a-win");
+        assertThat(combat).extracting(ActionEventEntity::getActionId).containsExactly("a-hit");
+        assertThat(combat.get(0).isCombat()).isTrue();
+        assertThat(combat.get(0).isSuccessful()).isFalse();
+    }
+
+    @Test
+    void whenConsequencesChangeInPlace_thenFlagsAreReclassifiedOnFlush() {
+        // given
+        PlayerContextEntity playerContext = persistPlayerContext("session-reclassify");
+        ActionEventEntity action = persistAction(playerContext, "a-late", ActionType.TALK, List.of("greeted"));
+
+        // when
+        action.getConsequences().add("decisive victory");
+        entityManager.flush();
+        entityManager.clear();
+
+        // then
+        assertThat(repository.findSuccessfulActions(PageRequest.of(0, 10)))
+            .extracting(ActionEventEntity::getActionId)
+            .containsExactly("a-late");
+    }
+
+    @Test
+    void whenRowsPredateFlags_thenBackfillClassifiesThem() {
+        // given
+        PlayerContextEntity playerContext = persistPlayerContext("session-backfill");
+        persistAction(playerContext, "a-old-win", ActionType.TALK, List.of("victory"));
+        persistAction(playerContext, "a-old-fight", ActionType.MOVE, List.of("combat started", "attack failed"));
+        persistAction(playerContext, "a-old-walk", ActionType.MOVE, List.of("moved"));
+        entityManager.getEntityManager()
+            .createNativeQuery("UPDATE action_events SET outcome_flags = NULL")
+            .executeUpdate();
+        entityManager.clear();
+        assertThat(repository.findSuccessfulActions(PageRequest.of(0, 10))).isEmpty();
+
+        // when
+        long classified = new OutcomeFlagBackfill(repository, transactionManager).backfill();
+        entityManager.clear();
+
+        // then
+        assertThat(classified).isEqualTo(3);
+        assertThat(repository.findUnclassified(PageRequest.of(0, 10))).isEmpty();
+        assertThat(repository.findSuccessfulActions(PageRequest.of(0, 10)))
+            .extracting(ActionEventEntity::getActionId)
+            .containsExactly("a-old-win");
+        assertThat(repository.findByOutcomeMasks(OutcomeFlags.masksWithAny(OutcomeFlags.FAILURE), PageRequest.of(0, 10)))
+            .extracting(ActionEventEntity::getActionId)
+            .containsExactly("a-old-fight");
+    }
+
+    private PlayerContextEntity persistPlayerContext(String sessionId) {
+        PlayerContextEntity playerContext = new PlayerContextEntity();
+        playerContext.setPlayerId("player-" + sessionId);
+        playerContext.setSessionId(sessionId);
+        playerContext.setStartTime(Instant.now());
+        playerContext.setLastUpdate(Instant.now());
+        playerContext.setIsActive(true);
+        playerContext.setCharacter(new CharacterStateEmbeddable("TestHero"));
+        return entityManager.persist(playerContext);
+    }
+
+    private ActionEventEntity persistAction(PlayerContextEntity playerContext, String actionId,
+                                            ActionType type, List<String> consequences) {
+        ActionEventEntity event = new ActionEventEntity(actionId, type, "do something", null,
+            "forest", "it happens", consequences);
+        event.setPlayerId(playerContext.getPlayerId());
+        event.setPlayerContext(playerContext);
+        return entityManager.persistAndFlush(event);
+    }
+}
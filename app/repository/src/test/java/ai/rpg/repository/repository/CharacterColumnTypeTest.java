@@ -0,0 +1,191 @@
+package ai.rpg.repository.repository;
+
+import ai.rpg.core.domain.EquipmentItemData;
+import ai.rpg.core.domain.InventoryItemData;
+import ai.rpg.persistence.codec.BinaryColumnFrame;
+import ai.rpg.persistence.codec.CharacterCodecs;
+import ai.rpg.persistence.codec.CharacterColumnTypes;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CharacterColumnTypeTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void whenUnchangedContextFlushed_thenNoUpdateIsIssued() {
+        // given
+        Long id = persistCharacter("session-clean").getId();
+        entityManager.clear();
+        PlayerContextEntity loaded = entityManager.find(PlayerContextEntity.class, id);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // when
+        entityManager.flush();
+
+        // then
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(loaded.getCharacter().getEquipment()).isEqualTo(equipment());
+        assertThat(loaded.getCharacter().getInventory()).isEqualTo(inventory());
+        assertThat(loaded.getCharacter().getMetadata()).isEqualTo(metadata());
+    }
+
+    @Test
+    void whenCollectionMutatedInPlace_thenUpdateIsIssued() {
+        // given
+        Long id = persistCharacter("session-dirty").getId();
+        entityManager.clear();
+        PlayerContextEntity loaded = entityManager.find(PlayerContextEntity.class, id);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // when
+        loaded.getCharacter().getAttributes().put("strength", 14);
+        entityManager.flush();
+        entityManager.clear();
+
+        // then
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(entityManager.find(PlayerContextEntity.class, id).getCharacter().getAttributes())
+            .containsEntry("strength", 14);
+    }
+
+    @Test
+    void whenColumnHoldsLegacyJson_thenItIsReadAndRewrittenAsBinary() {
+        // given
+        Long id = persistCharacter("session-legacy").getId();
+        entityManager.getEntityManager()
+            .createNativeQuery("UPDATE player_contexts SET inventory = ?1 WHERE id = ?2")
+            .setParameter(1, "[{\"id\":\"old\",\"name\":\"Rope\",\"type\":\"tool\",\"quantity\":2,\"metadata\":{}}]"
+                .getBytes(StandardCharsets.UTF_8))
+            .setParameter(2, id)
+            .executeUpdate();
+        entityManager.clear();
+
+        // when
+        PlayerContextEntity loaded = entityManager.find(PlayerContextEntity.class, id);
+        loaded.getCharacter().setReputation(5);
+        entityManager.flush();
+        byte[] stored = (byte[]) entityManager.getEntityManager()
+            .createNativeQuery("SELECT inventory FROM player_contexts WHERE id = ?1")
+            .setParameter(1, id)
+            .getSingleResult();
+
+        // then
+        assertThat(loaded.getCharacter().getInventory())
+            .containsExactly(new InventoryItemData("old", "Rope", "tool", 2, Map.of()));
+        assertThat(BinaryColumnFrame.isFramed(stored)).isTrue();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkPayloadSizeAndFlushCostAgainstJson() throws Exception {
+        ObjectMapper json = new ObjectMapper();
+        List<EquipmentItemData> equipment = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            equipment.addAll(equipment());
+        }
+        CharacterColumnTypes.Equipment binaryType = new CharacterColumnTypes.Equipment();
+        TypeReference<List<EquipmentItemData>> jsonType = new TypeReference<>() {};
+
+        int jsonBytes = json.writeValueAsBytes(equipment).length;
+        int binaryBytes = BinaryColumnFrame.encode(CharacterCodecs.EQUIPMENT, equipment).length;
+
+        // One flush of an unchanged entity: snapshot the loaded value, then compare it with the current one.
+        // The JSON path snapshots by serialize/deserialize and compares with deep equals.
+        int rounds = 20_000;
+        long sink = 0;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long jsonStart = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                List<EquipmentItemData> snapshot = json.readValue(json.writeValueAsBytes(equipment), jsonType);
+                sink += snapshot.equals(equipment) ? 1 : 0;
+            }
+            long jsonNanos = System.nanoTime() - jsonStart;
+
+            long binaryStart = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                List<EquipmentItemData> snapshot = binaryType.deepCopy(equipment);
+                sink += binaryType.equals(snapshot, equipment) ? 1 : 0;
+            }
+            long binaryNanos = System.nanoTime() - binaryStart;
+
+            if (warmup == 1) {
+                System.out.printf("equipment column (%d items): json %d bytes, binary %d bytes (%.0f%%)%n",
+                    equipment.size(), jsonBytes, binaryBytes, 100.0 * binaryBytes / jsonBytes);
+                System.out.printf("snapshot + dirty check: json %.1f us, binary %.1f us per flush%n",
+                    jsonNanos / 1000.0 / rounds, binaryNanos / 1000.0 / rounds);
+            }
+        }
+        assertThat(sink).isEqualTo(4L * rounds);
+        assertThat(binaryBytes).isLessThan(jsonBytes);
+    }
+
+    private PlayerContextEntity persistCharacter(String sessionId) {
+        PlayerContextEntity playerContext = new PlayerContextEntity();
+        playerContext.setPlayerId("player-" + sessionId);
+        playerContext.setSessionId(sessionId);
+        playerContext.setStartTime(Instant.now());
+        playerContext.setLastUpdate(Instant.now());
+        playerContext.setIsActive(true);
+        CharacterStateEmbeddable character = new CharacterStateEmbeddable("TestHero");
+        character.setEquipment(new ArrayList<>(equipment()));
+        character.setInventory(new ArrayList<>(inventory()));
+        character.setMetadata(new java.util.HashMap<>(metadata()));
+        playerContext.setCharacter(character);
+        return entityManager.persistAndFlush(playerContext);
+    }
+
+    private static List<EquipmentItemData> equipment() {
+        return List.of(
+            new EquipmentItemData("sword-1", "Iron Sword", "weapon", "main_hand",
+                Map.of("attack", 5), Map.of("durability", 90)),
+            new EquipmentItemData("shield-1", "Oak Shield", "armor", "off_hand",
+                Map.of("defense", 3, "weight", 4), Map.of())
+        );
+    }
+
+    private static List<InventoryItemData> inventory() {
+        return List.of(
+            new InventoryItemData("potion", "Healing Potion", "consumable", 3, Map.of("heals", 10)),
+            new InventoryItemData("torch", "Torch", "tool", 1, Map.of())
+        );
+    }
+
+    private static Map<String, Object> metadata() {
+        return Map.of("class", "ranger", "level", 3, "xp", 1250L, "blessed", true,
+            "titles", List.of("Wanderer", "Slayer"));
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    }
+}
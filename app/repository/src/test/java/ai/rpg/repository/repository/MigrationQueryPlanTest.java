@@ -0,0 +1,103 @@
+package ai.rpg.repository.repository;
+
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates an empty PostgreSQL database with Flyway and checks what only the migrations
+ * decide: that every mapped table exists, and that the covering index answers the
+ * active-session summaries on its own. {@link QueryPlanTest} explains the H2 schema
+ * generated from the entities instead. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=ai.rpg.repository.repository.QueryPlanTest$CapturedSql"
+})
+class MigrationQueryPlanTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driverClassName", postgres::getDriverClassName);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlayerContextRepository sessions;
+
+    @Test
+    void whenMigratedFromEmpty_thenEntitiesCanBeWrittenAndRead() {
+        // given
+        PlayerContextEntity playerContext = new PlayerContextEntity("player-fresh", "session-fresh");
+        playerContext.setCharacter(new CharacterStateEmbeddable("Hero"));
+
+        // when
+        sessions.save(playerContext);
+        List<String> tables = jdbc.queryForList(
+            "SELECT table_name FROM information_schema.tables WHERE table_schema = current_schema()", String.class);
+
+        // then
+        assertThat(tables)
+            .contains("player_contexts", "action_events", "action_rollup_type_hourly",
+                "action_rollup_location_hourly", "action_rollup_player_type")
+            .doesNotContain("player_context");
+        assertThat(sessions.findBySessionId("session-fresh"))
+            .hasValueSatisfying(loaded -> assertThat(loaded.getCharacter().getAttributes()).containsEntry("strength", 10));
+    }
+
+    @Test
+    void whenActiveSummariesArePaged_thenTheCoveringIndexAnswersThemAlone() {
+        // given
+        // Ids far above what the sequence hands out to entities saved by other tests
+        jdbc.update("INSERT INTO player_contexts (id, player_id, session_id, character_name, current_location, "
+            + "is_active, total_actions, start_time, last_update) "
+            + "SELECT 1000000 + i, 'player-' || i, 'summary-' || i, 'Hero', 'starting_village', i % 2 = 0, i, "
+            + "now(), now() FROM generate_series(1, 5000) AS i");
+        // Index-only scans are costed from the visibility map, which VACUUM fills in
+        jdbc.execute("VACUUM ANALYZE player_contexts");
+
+        // when
+        QueryPlanTest.CapturedSql.statements.clear();
+        sessions.findActiveSessionSummariesAfter("summary-1", PageRequest.of(0, 10));
+        String sql = QueryPlanTest.CapturedSql.statements.stream()
+            .filter(statement -> statement.stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+            .findFirst()
+            .orElseThrow();
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class, "summary-1", 10));
+
+        // then
+        assertThat(plan).contains("Index Only Scan using idx_active_session");
+    }
+}
@@ -0,0 +1,97 @@
+package ai.rpg.repository.repository;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates a PostgreSQL database that already holds identity-generated rows when V2
+ * replaces the identity columns with pooled sequences, then inserts through Hibernate.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+class MigrationSequenceTest {
+    // More than one 50-id block, so a block that starts below MAX(id) reuses ids
+    private static final int EXISTING_ROWS = 120;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driverClassName", postgres::getDriverClassName);
+    }
+
+    @TestConfiguration
+    static class SeedBeforePooledSequences {
+        @Bean
+        FlywayMigrationStrategy seedIdentityRows() {
+            return flyway -> {
+                Flyway.configure().configuration(flyway.getConfiguration()).target("1.1").load().migrate();
+                JdbcTemplate jdbc = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+                jdbc.update("INSERT INTO player_contexts (player_id, character_name, current_location) "
+                    + "SELECT 'seed-' || i, 'Hero', 'starting_village' FROM generate_series(1, ?) AS i", EXISTING_ROWS);
+                jdbc.update("INSERT INTO action_events (action_id, timestamp, type, command, location, outcome, "
+                    + "player_id, player_context_id) "
+                    + "SELECT 'seed-' || i, now(), 'MOVE', 'go north', 'forest', 'You walk north', 'seed-1', "
+                    + "(SELECT MIN(id) FROM player_contexts) FROM generate_series(1, ?) AS i", EXISTING_ROWS);
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private PlayerContextRepository sessions;
+
+    @Test
+    void whenInsertingAfterMigration_thenIdsStartAboveExistingRows() {
+        // given
+        PlayerContextEntity playerContext = new PlayerContextEntity("player-new", "session-new");
+        playerContext.setCharacter(new CharacterStateEmbeddable("Hero"));
+        ActionEventEntity action = new ActionEventEntity("action-new", ActionType.MOVE,
+            "go north", null, "forest", "You walk north", List.of("moved"));
+        action.setPlayerId(playerContext.getPlayerId());
+        playerContext.addAction(action);
+
+        // when
+        PlayerContextEntity saved = sessions.save(playerContext);
+
+        // then
+        assertThat(saved.getId()).isGreaterThan(EXISTING_ROWS);
+        assertThat(saved.getActions()).singleElement()
+            .satisfies(savedAction -> assertThat(savedAction.getId()).isGreaterThan(EXISTING_ROWS));
+    }
+}
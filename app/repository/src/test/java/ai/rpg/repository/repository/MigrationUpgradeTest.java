@@ -0,0 +1,84 @@
+package ai.rpg.repository.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a PostgreSQL database deployed before V0_1 existed: its tables predate Flyway
+ * and its history starts at V1. With the ignore pattern from application.properties.example
+ * the base schema stays unapplied and every later migration runs. Skipped when Docker is
+ * not available.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=true",
+    "spring.flyway.ignore-migration-patterns=*:future,*:ignored",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+class MigrationUpgradeTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driverClassName", postgres::getDriverClassName);
+    }
+
+    @TestConfiguration
+    static class DeployedAtV1 {
+        @Bean
+        FlywayMigrationStrategy upgradeFromV1() {
+            return flyway -> {
+                Flyway.configure().configuration(flyway.getConfiguration()).target("1").load().migrate();
+                // Deployed databases created these tables by hand and never recorded V0_1
+                new JdbcTemplate(flyway.getConfiguration().getDataSource())
+                    .update("DELETE FROM flyway_schema_history WHERE version = '0.1'");
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlayerContextRepository sessions;
+
+    @Test
+    void whenUpgradedFromV1_thenLaterMigrationsApplyAndTheBaseSchemaStaysUnapplied() {
+        // when
+        List<String> applied = jdbc.queryForList(
+            "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class);
+
+        // then
+        assertThat(applied).doesNotContain("0.1").contains("1", "1.1", "2", "10");
+        assertThat(sessions.count()).isZero();
+    }
+}
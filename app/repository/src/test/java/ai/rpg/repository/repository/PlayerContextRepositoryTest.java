@@ -1,12 +1,18 @@
 package ai.rpg.repository.repository;
 
 import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.persistence.repository.PlayerContextRepository.SessionSummary;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.TestPropertySource;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -120,4 +126,64 @@ class PlayerContextRepositoryTest {
         // then
         assertThat(playerContextRepository.findById(entity.getId())).isEmpty();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void whenTouchSessions_thenLastUpdateOnlyMovesForward() {
+        // given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        PlayerContextEntity stale = new PlayerContextEntity("player1", "session1");
+        stale.getCharacter().setName("TestPlayer");
+        stale.setLastUpdate(now.minus(1, ChronoUnit.HOURS));
+        PlayerContextEntity fresh = new PlayerContextEntity("player2", "session2");
+        fresh.getCharacter().setName("OtherPlayer");
+        fresh.setLastUpdate(now.plus(1, ChronoUnit.HOURS));
+        PlayerContextEntity earlier = new PlayerContextEntity("player3", "session3");
+        earlier.getCharacter().setName("ThirdPlayer");
+        earlier.setLastUpdate(now.minus(1, ChronoUnit.HOURS));
+        entityManager.persist(stale);
+        entityManager.persist(fresh);
+        entityManager.persist(earlier);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        int updated = playerContextRepository.touchSessions(Map.of(
+                "session1", now,
+                "session2", now,
+                "session3", now.minusSeconds(5)));
+        entityManager.clear();
+
+        // then
+        assertThat(updated).isEqualTo(2);
+        assertThat(playerContextRepository.findBySessionId("session1").get().getLastUpdate()).isEqualTo(now);
+        assertThat(playerContextRepository.findBySessionId("session2").get().getLastUpdate())
+                .isEqualTo(now.plus(1, ChronoUnit.HOURS));
+        assertThat(playerContextRepository.findBySessionId("session3").get().getLastUpdate())
+                .isEqualTo(now.minusSeconds(5));
+    }
+
+    @Test
+    void whenFindActiveSessionSummariesAfter_thenReturnKeysetPage() {
+        // given
+        for (String sessionId : List.of("session-a", "session-b", "session-c")) {
+            PlayerContextEntity entity = new PlayerContextEntity("player-" + sessionId, sessionId);
+            entity.getCharacter().setName("TestPlayer");
+            entityManager.persist(entity);
+        }
+        PlayerContextEntity inactive = new PlayerContextEntity("player-d", "session-d");
+        inactive.getCharacter().setName("TestPlayer");
+        inactive.setIsActive(false);
+        entityManager.persist(inactive);
+        entityManager.flush();
+
+        // when
+        List<SessionSummary> first = playerContextRepository.findActiveSessionSummariesAfter("", PageRequest.of(0, 2));
+        List<SessionSummary> second = playerContextRepository.findActiveSessionSummariesAfter(
+                first.get(first.size() - 1).getSessionId(), PageRequest.of(0, 2));
+
+        // then
+        assertThat(first).extracting(SessionSummary::getSessionId).containsExactly("session-a", "session-b");
+        assertThat(second).extracting(SessionSummary::getSessionId).containsExactly("session-c");
+        assertThat(playerContextRepository.countAllActiveSessions()).isEqualTo(3);
+    }
+}
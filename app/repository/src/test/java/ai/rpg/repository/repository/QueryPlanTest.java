@@ -0,0 +1,201 @@
+package ai.rpg.repository.repository;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.OutcomeFlags;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL of every repository query and fails on a full table scan.
+ *
+ * The schema comes from the entity mappings, so the {@code @Index} declarations on the
+ * entities must stay in step with the Flyway migrations that create the same indexes.
+ * {@link MigrationQueryPlanTest} checks the migrated PostgreSQL schema itself.
+ * A new query method fails {@link #everyRepositoryQueryIsExplained()} until a case is
+ * added for it below.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=ai.rpg.repository.repository.QueryPlanTest$CapturedSql"
+})
+class QueryPlanTest {
+
+    /**
+     * Records the SQL Hibernate prepares so it can be explained afterwards
+     */
+    public static class CapturedSql implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlayerContextRepository sessions;
+
+    @Autowired
+    private ActionEventRepository actions;
+
+    @Autowired
+    private ActionTypeRollupRepository typeRollups;
+
+    @Autowired
+    private ActionLocationRollupRepository locationRollups;
+
+    @Autowired
+    private PlayerActionRollupRepository playerRollups;
+
+    @Test
+    void everyRepositoryQueryIsExplained() {
+        assertThat(cases().keySet())
+            .containsAll(queryMethods(PlayerContextRepository.class))
+            .containsAll(queryMethods(ActionEventRepository.class))
+            .containsAll(queryMethods(ActionTypeRollupRepository.class))
+            .containsAll(queryMethods(ActionLocationRollupRepository.class))
+            .containsAll(queryMethods(PlayerActionRollupRepository.class));
+    }
+
+    @Test
+    void noRepositoryQueryScansAWholeTable() {
+        // given
+        Map<String, String> fullScans = new LinkedHashMap<>();
+
+        // when
+        cases().forEach((name, query) -> {
+            List<String> statements = capture(query);
+            assertThat(statements).as("SQL issued by %s", name).isNotEmpty();
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan.contains("tableScan")) {
+                    fullScans.put(name, plan);
+                }
+            }
+        });
+
+        // then
+        assertThat(fullScans).isEmpty();
+    }
+
+    private Map<String, Runnable> cases() {
+        Instant now = Instant.now();
+        PageRequest page = PageRequest.of(0, 10);
+        Map<String, Runnable> cases = new LinkedHashMap<>();
+
+        String s = "PlayerContextRepository.";
+        cases.put(s + "findByPlayerId", () -> sessions.findByPlayerId("player"));
+        cases.put(s + "findBySessionId", () -> sessions.findBySessionId("session"));
+        cases.put(s + "existsBySessionId", () -> sessions.existsBySessionId("session"));
+        cases.put(s + "findReadOnlyBySessionId", () -> sessions.findReadOnlyBySessionId("session"));
+        cases.put(s + "findActiveSessionsByPlayerId", () -> sessions.findActiveSessionsByPlayerId("player"));
+        cases.put(s + "findAllActiveSessions", () -> sessions.findAllActiveSessions());
+        cases.put(s + "countAllActiveSessions", () -> sessions.countAllActiveSessions());
+        cases.put(s + "findActiveSessionSummariesAfter", () -> sessions.findActiveSessionSummariesAfter("", page));
+        cases.put(s + "deactivateSession", () -> sessions.deactivateSession("session"));
+        cases.put(s + "updateLastAccess", () -> sessions.updateLastAccess("session"));
+        cases.put(s + "findSessionKeys", () -> sessions.findSessionKeys(List.of("session-a", "session-b")));
+        cases.put(s + "findIdleSessionKeys", () -> sessions.findIdleSessionKeys(now, page));
+        cases.put(s + "deactivateSessions", () -> sessions.deactivateSessions(List.of(1L, 2L), now));
+        cases.put(s + "findExpiredSessionKeys", () -> sessions.findExpiredSessionKeys(now, page));
+        cases.put(s + "lockExpiredSessions", () -> sessions.lockExpiredSessions(List.of(1L, 2L), now));
+        cases.put(s + "deleteExpiredSessions", () -> sessions.deleteExpiredSessions(List.of(1L, 2L), now));
+
+        String a = "ActionEventRepository.";
+        cases.put(a + "findByPlayerId", () -> actions.findByPlayerId("player"));
+        cases.put(a + "findByPlayerIdAndType", () -> actions.findByPlayerIdAndType("player", ActionType.MOVE));
+        cases.put(a + "findByPlayerIdAndTimestampBetween",
+            () -> actions.findByPlayerIdAndTimestampBetween("player", now.minusSeconds(60), now));
+        cases.put(a + "findExistingActionIds", () -> actions.findExistingActionIds(List.of("action-a", "action-b")));
+        cases.put(a + "findLatestBySessionId", () -> actions.findLatestBySessionId("session", page));
+        cases.put(a + "findBySessionIdBefore", () -> actions.findBySessionIdBefore("session", now, 1L, page));
+        cases.put(a + "findIdsBefore", () -> actions.findIdsBefore(now, page));
+        cases.put(a + "deleteByIds", () -> actions.deleteByIds(List.of(1L, 2L)));
+        cases.put(a + "deleteByPlayerContextIds", () -> actions.deleteByPlayerContextIds(List.of(1L, 2L)));
+        cases.put(a + "findByOutcomeMasks",
+            () -> actions.findByOutcomeMasks(OutcomeFlags.masksWithAny(OutcomeFlags.SUCCESSFUL), page));
+        cases.put(a + "findUnclassified", () -> actions.findUnclassified(page));
+        cases.put(a + "setOutcomeFlags", () -> actions.setOutcomeFlags(List.of(1L, 2L), OutcomeFlags.COMBAT));
+        cases.put(a + "findRollupSourcesAfter", () -> actions.findRollupSourcesAfter(0L, page));
+
+        String t = "ActionTypeRollupRepository.";
+        cases.put(t + "increment", () -> typeRollups.increment(now, ActionType.MOVE, 1));
+        cases.put(t + "raiseTo", () -> typeRollups.raiseTo(now, ActionType.MOVE, 1));
+        cases.put(t + "sumByType", () -> typeRollups.sumByType(now.minusSeconds(7200), now));
+
+        String l = "ActionLocationRollupRepository.";
+        cases.put(l + "increment", () -> locationRollups.increment(now, "forest", 1));
+        cases.put(l + "raiseTo", () -> locationRollups.raiseTo(now, "forest", 1));
+        cases.put(l + "findMostActiveLocations", () -> locationRollups.findMostActiveLocations(now, page));
+
+        String p = "PlayerActionRollupRepository.";
+        cases.put(p + "increment", () -> playerRollups.increment("player", ActionType.MOVE, 1));
+        cases.put(p + "raiseTo", () -> playerRollups.raiseTo("player", ActionType.MOVE, 1));
+        cases.put(p + "findByPlayerId", () -> playerRollups.findByPlayerId("player"));
+        return cases;
+    }
+
+    private List<String> capture(Runnable query) {
+        entityManager.flush();
+        CapturedSql.statements.clear();
+        query.run();
+        entityManager.flush();
+        return CapturedSql.statements.stream()
+            .filter(sql -> {
+                String verb = sql.stripLeading().toLowerCase(Locale.ROOT);
+                return verb.startsWith("select") || verb.startsWith("update") || verb.startsWith("delete");
+            })
+            .toList();
+    }
+
+    private String explain(String sql) {
+        // H2 plans a parameterised statement without values, so the SQL is explained as prepared
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                StringBuilder text = new StringBuilder();
+                while (plan.next()) {
+                    text.append(plan.getString(1)).append('\n');
+                }
+                return text.toString();
+            }
+        });
+    }
+
+    private static Set<String> queryMethods(Class<?> repository) {
+        return Arrays.stream(repository.getDeclaredMethods())
+            .filter(method -> !method.isSynthetic() && !method.isDefault())
+            .filter(method -> !Modifier.isStatic(method.getModifiers()))
+            .map(Method::getName)
+            .map(name -> repository.getSimpleName() + "." + name)
+            .collect(Collectors.toSet());
+    }
+}
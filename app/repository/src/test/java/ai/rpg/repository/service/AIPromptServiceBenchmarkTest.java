@@ -0,0 +1,111 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.PlayerContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the compiled GM prompt template with the previous String.format path.
+ * Run the timing with {@code ./gradlew :app:repository:benchmark}.
+ */
+class AIPromptServiceBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+
+    private final AIPromptService service = new AIPromptService(null);
+    private final PlayerContext context = PlayerContext.newPlayer("player1", "session1", "TestHero");
+
+    @Test
+    void whenRenderingTemplate_thenOutputMatchesFormatPath() {
+        assertThat(service.renderPrompt(context)).isEqualTo(legacyRender(context));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkTemplateAgainstFormatPath() {
+        double legacy = measure(AIPromptServiceBenchmarkTest::legacyRender);
+        double template = measure(service::renderPrompt);
+
+        System.out.printf(Locale.ROOT, "String.format path: %.0f ns/op%n", legacy);
+        System.out.printf(Locale.ROOT, "compiled template:  %.0f ns/op (%.2fx)%n", template, legacy / template);
+    }
+
+    private double measure(Function<PlayerContext, String> render) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += render.apply(context).length();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += render.apply(context).length();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(sink).isPositive();
+        return (double) elapsed / MEASURED_ITERATIONS;
+    }
+
+    // The generatePrompt body before the template engine, kept as the baseline
+    private static String legacyRender(PlayerContext context) {
+        AIPromptService.ContextSummary summary = AIPromptService.generateContextSummary(context);
+        List<String> recentActions = AIPromptService.getRecentActions(context, 3);
+
+        return String.format("""
+            GAME MASTER CONTEXT
+
+            CURRENT GAME STATE:
+            - Location: %s (previously: %s)
+            - Player Health: %s
+            - Player Reputation: %d (%s)
+            - Session Duration: %.1f minutes
+            - Player Mood: %s
+
+            RECENT PLAYER ACTIONS:
+            %s
+
+            ACTIVE NPCS IN AREA:
+            %s
+
+            PLAYER CHARACTER:
+            - Name: %s
+            - Equipment: %s
+            - Recent Focus: %s
+
+            WORLD CONTEXT:
+            %s
+
+            GM INSTRUCTIONS:
+            You are the AI Game Master for this fantasy RPG session. Based on the current context:
+            1. Respond as the omniscient narrator and world
+            2. Maintain consistency with previous interactions
+            3. React appropriately to the player's reputation and recent actions
+            4. Consider NPC relationships and dispositions
+            5. Provide immersive, contextual descriptions
+            6. Balance challenge with player agency
+
+            Current situation requires your response as Game Master.""",
+            summary.currentLocation(),
+            AIPromptService.formatPreviousLocation(summary.previousLocation()),
+            summary.playerHealth(),
+            summary.playerReputation(),
+            AIPromptService.getReputationDescription(summary.playerReputation()),
+            summary.sessionDuration(),
+            summary.playerMood(),
+            recentActions.stream().collect(Collectors.joining("\n")),
+            AIPromptService.formatActiveNPCs(summary.activeNPCs()),
+            context.character().name(),
+            AIPromptService.formatEquipment(context),
+            AIPromptService.determinePlayerFocus(context),
+            summary.worldState().entrySet().stream()
+                .map(e -> String.format("- %s: %s", e.getKey(), e.getValue()))
+                .collect(Collectors.joining("\n"))
+        );
+    }
+}
@@ -0,0 +1,150 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.ActionEvent;
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.repository.service.ActionHistoryService.ActionPage;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ActionHistoryService.class)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ActionHistoryServiceTest {
+
+    @TestConfiguration
+    @ComponentScan("ai.rpg.persistence.mapper")
+    static class Mappers {}
+
+    @Autowired
+    private ActionHistoryService history;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void whenPagingThroughHistory_thenEveryActionIsSeenOnceNewestFirst() {
+        // given: 25 actions, several sharing a timestamp so the id tie-breaker matters
+        persistSession("session-history", 25);
+        persistSession("session-other", 5);
+
+        // when
+        List<ActionEvent> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            ActionPage page = history.page("session-history", cursor, 10).orElseThrow();
+            seen.addAll(page.actions());
+            pageSizes.add(page.actions().size());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // then
+        assertThat(pageSizes).containsExactly(10, 10, 5);
+        assertThat(seen).extracting(ActionEvent::id).doesNotHaveDuplicates().hasSize(25)
+            .allMatch(id -> id.startsWith("session-history-"));
+        assertThat(seen).extracting(ActionEvent::timestamp)
+            .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(seen.get(0).id()).isEqualTo("session-history-action-24");
+        assertThat(seen.get(24).id()).isEqualTo("session-history-action-0");
+    }
+
+    @Test
+    void whenFetchingAPage_thenOneStatementAndNoCount() {
+        // given
+        persistSession("session-count", 30);
+        String cursor = history.page("session-count", null, 10).orElseThrow().nextCursor();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // when
+        ActionPage page = history.page("session-count", cursor, 10).orElseThrow();
+
+        // then
+        assertThat(page.actions()).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenSessionHasNoActions_thenEmptyPage() {
+        // given
+        persistSession("session-empty", 0);
+
+        // when
+        ActionPage page = history.page("session-empty", null, 10).orElseThrow();
+
+        // then
+        assertThat(page.actions()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void whenSessionMissing_thenEmpty() {
+        assertThat(history.page("no-such-session", null, 10)).isEmpty();
+    }
+
+    @Test
+    void whenCursorIsMalformed_thenRejected() {
+        assertThatThrownBy(() -> history.page("session-any", "not-a-cursor", 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid cursor");
+    }
+
+    private void persistSession(String sessionId, int actions) {
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            PlayerContextEntity playerContext = new PlayerContextEntity();
+            playerContext.setPlayerId("player-" + sessionId);
+            playerContext.setSessionId(sessionId);
+            playerContext.setStartTime(base);
+            playerContext.setLastUpdate(base);
+            playerContext.setIsActive(true);
+            playerContext.setCharacter(new CharacterStateEmbeddable("TestHero"));
+            entityManager.persist(playerContext);
+            for (int i = 0; i < actions; i++) {
+                ActionEventEntity event = new ActionEventEntity(sessionId + "-action-" + i, ActionType.MOVE,
+                    "go north", null, "forest", "You walk north", List.of("moved"));
+                // Three actions per second, so pages split inside a run of equal timestamps
+                event.setTimestamp(base.plusSeconds(i / 3));
+                event.setPlayerId(playerContext.getPlayerId());
+                event.setPlayerContext(playerContext);
+                entityManager.persist(event);
+            }
+        });
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    }
+}
@@ -0,0 +1,145 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.repository.config.ActionRetentionProperties;
+import ai.rpg.repository.repository.ActionEventRepository;
+import ai.rpg.repository.service.ActionRetentionService.Progress;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ActionRetentionServiceTest {
+    private static final Instant CUTOFF = Instant.parse("2024-06-01T00:00:00Z");
+
+    @Autowired
+    private ActionEventRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clearActions() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void whenPurging_thenOnlyExpiredActionsAreDeletedInChunks() {
+        // given
+        persistSession("session-purge", 120, 30);
+        ActionRetentionService retention = retention(50, Duration.ZERO);
+
+        // when
+        Progress progress = retention.purgeBefore(CUTOFF);
+
+        // then
+        assertThat(progress.finished()).isTrue();
+        assertThat(progress.rowsDeleted()).isEqualTo(120);
+        assertThat(progress.chunks()).isEqualTo(3);
+        assertThat(repository.findAll())
+            .hasSize(30)
+            .allMatch(event -> !event.getTimestamp().isBefore(CUTOFF));
+    }
+
+    @Test
+    void whenCancelled_thenNextRunResumesFromTheOldestRemainingRow() throws Exception {
+        // given: a long pause holds the run after its first chunk
+        persistSession("session-resume", 100, 10);
+        ActionRetentionService retention = retention(40, Duration.ofMinutes(1));
+
+        // when
+        CompletableFuture<Progress> first = CompletableFuture.supplyAsync(() -> retention.purgeBefore(CUTOFF));
+        awaitChunks(retention, 1);
+        retention.cancel();
+        Progress cancelled = first.get(5, TimeUnit.SECONDS);
+        long remainingAfterCancel = repository.count();
+        Progress resumed = retention(40, Duration.ZERO).purgeBefore(CUTOFF);
+
+        // then
+        assertThat(cancelled.finished()).isFalse();
+        assertThat(cancelled.rowsDeleted()).isEqualTo(40);
+        assertThat(remainingAfterCancel).isEqualTo(70);
+        assertThat(resumed.finished()).isTrue();
+        assertThat(resumed.rowsDeleted()).isEqualTo(60);
+        assertThat(repository.count()).isEqualTo(10);
+    }
+
+    @Test
+    void whenAlreadyRunning_thenSecondRunIsRejected() throws Exception {
+        // given
+        persistSession("session-busy", 20, 0);
+        ActionRetentionService retention = retention(5, Duration.ofMinutes(1));
+        CompletableFuture<Progress> first = CompletableFuture.supplyAsync(() -> retention.purgeBefore(CUTOFF));
+        awaitChunks(retention, 1);
+
+        // when / then
+        assertThatThrownBy(() -> retention.purgeBefore(CUTOFF))
+            .isInstanceOf(IllegalStateException.class);
+        retention.cancel();
+        assertThat(first.get(5, TimeUnit.SECONDS).finished()).isFalse();
+    }
+
+    private ActionRetentionService retention(int chunkSize, Duration pause) {
+        ActionRetentionProperties properties = new ActionRetentionProperties(
+            false, Duration.ofDays(90), Duration.ofHours(1), chunkSize, pause);
+        return new ActionRetentionService(repository, properties, transactionManager);
+    }
+
+    private static void awaitChunks(ActionRetentionService retention, long chunks) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (retention.progress() == null || retention.progress().chunks() < chunks) {
+            assertThat(System.nanoTime()).as("waiting for retention progress").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private void persistSession(String sessionId, int expired, int retained) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            PlayerContextEntity playerContext = new PlayerContextEntity();
+            playerContext.setPlayerId("player-" + sessionId);
+            playerContext.setSessionId(sessionId);
+            playerContext.setStartTime(CUTOFF);
+            playerContext.setLastUpdate(CUTOFF);
+            playerContext.setIsActive(true);
+            playerContext.setCharacter(new CharacterStateEmbeddable("TestHero"));
+            entityManager.persist(playerContext);
+            for (int i = 0; i < expired + retained; i++) {
+                ActionEventEntity event = new ActionEventEntity(sessionId + "-action-" + i, ActionType.MOVE,
+                    "go north", null, "forest", "You walk north", List.of("moved"));
+                event.setTimestamp(i < expired
+                    ? CUTOFF.minusSeconds(expired - i)
+                    : CUTOFF.plusSeconds(i));
+                event.setPlayerId(playerContext.getPlayerId());
+                event.setPlayerContext(playerContext);
+                entityManager.persist(event);
+            }
+        });
+    }
+}
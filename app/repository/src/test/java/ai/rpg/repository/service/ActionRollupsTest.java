@@ -0,0 +1,247 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.ActionEvent;
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.persistence.journal.JournalRecord;
+import ai.rpg.repository.config.ActionRollupProperties;
+import ai.rpg.repository.journal.JpaJournalSink;
+import ai.rpg.repository.repository.ActionEventRepository;
+import ai.rpg.repository.repository.ActionLocationRollupRepository;
+import ai.rpg.repository.repository.ActionLocationRollupRepository.LocationCount;
+import ai.rpg.repository.repository.ActionTypeRollupRepository;
+import ai.rpg.repository.repository.PlayerActionRollupRepository;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import ai.rpg.repository.service.ActionRollups.RebuildResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ActionRollups.class, ActionAnalyticsService.class, JpaJournalSink.class})
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ActionRollupsTest {
+    private static final String SESSION = "session-rollup";
+    private static final String PLAYER = "player-rollup";
+
+    @TestConfiguration
+    @ComponentScan("ai.rpg.persistence.mapper")
+    @EnableConfigurationProperties(ActionRollupProperties.class)
+    static class Config {}
+
+    @Autowired
+    private ActionRollups rollups;
+
+    @Autowired
+    private ActionAnalyticsService analytics;
+
+    @Autowired
+    private JpaJournalSink sink;
+
+    @Autowired
+    private ActionEventRepository actions;
+
+    @Autowired
+    private PlayerContextRepository sessions;
+
+    @Autowired
+    private ActionTypeRollupRepository typeRollups;
+
+    @Autowired
+    private ActionLocationRollupRepository locationRollups;
+
+    @Autowired
+    private PlayerActionRollupRepository playerRollups;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void clearTables() {
+        transaction = new TransactionTemplate(transactionManager);
+        typeRollups.deleteAllInBatch();
+        locationRollups.deleteAllInBatch();
+        playerRollups.deleteAllInBatch();
+        actions.deleteAllInBatch();
+        sessions.deleteAllInBatch();
+
+        PlayerContextEntity playerContext = new PlayerContextEntity();
+        playerContext.setPlayerId(PLAYER);
+        playerContext.setSessionId(SESSION);
+        playerContext.setStartTime(Instant.now());
+        playerContext.setLastUpdate(Instant.now());
+        playerContext.setIsActive(true);
+        playerContext.setCharacter(new CharacterStateEmbeddable("TestHero"));
+        sessions.save(playerContext);
+    }
+
+    @Test
+    void whenActionsAreStored_thenAnalyticsReadTheRollups() {
+        // given
+        writeActions();
+        // Whole-hour windows must not need the raw rows at all
+        actions.deleteAllInBatch();
+
+        // when
+        Map<ActionType, Long> byType = analytics.countByType(at("10:00"), at("12:00"));
+        List<LocationCount> locations = analytics.mostActiveLocations(at("00:00"), 10);
+        Map<ActionType, Long> behavior = analytics.playerBehavior(PLAYER);
+
+        // then
+        assertThat(byType).containsExactlyInAnyOrderEntriesOf(Map.of(ActionType.MOVE, 2L, ActionType.ATTACK, 1L));
+        assertThat(locations).extracting(LocationCount::getLocation).first().isEqualTo("forest");
+        assertThat(locations).extracting(LocationCount::getTotal).containsExactly(2L, 1L, 1L);
+        assertThat(behavior).containsExactlyInAnyOrderEntriesOf(
+            Map.of(ActionType.MOVE, 2L, ActionType.ATTACK, 1L, ActionType.TALK, 1L));
+    }
+
+    @Test
+    void whenWindowHasPartialHours_thenItIsWidenedToWholeHours() {
+        // given
+        writeActions();
+
+        // when: counts the 10:00, 11:00 and 12:00 buckets
+        Map<ActionType, Long> byType = analytics.countByType(at("10:30"), at("12:20"));
+
+        // then
+        assertThat(byType).containsExactlyInAnyOrderEntriesOf(
+            Map.of(ActionType.MOVE, 2L, ActionType.ATTACK, 1L, ActionType.TALK, 1L));
+    }
+
+    @Test
+    void whenLocationWindowIsOutOfRange_thenItIsRejected() {
+        assertThatThrownBy(() -> analytics.mostActiveLocations(0, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> analytics.mostActiveLocations(Long.MAX_VALUE, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenWrittenRepeatedly_thenCountsAccumulateOnExistingRows() {
+        // given
+        writeActions();
+
+        // when
+        sink.write(List.of(record(ActionType.MOVE, "forest", "10:50")));
+
+        // then
+        assertThat(analytics.countByType(at("10:00"), at("11:00"))).containsEntry(ActionType.MOVE, 3L);
+        assertThat(analytics.playerBehavior(PLAYER)).containsEntry(ActionType.MOVE, 3L);
+    }
+
+    @Test
+    void whenActionsWereStoredWithoutRollups_thenRebuildAddsThem() {
+        // given: an action stored directly, as before the rollup tables existed
+        writeActions();
+        transaction.executeWithoutResult(status -> {
+            ActionEventEntity unrolled = phantom("13:10");
+            unrolled.setPlayerContext(sessions.findBySessionId(SESSION).orElseThrow());
+            actions.save(unrolled);
+        });
+        assertThat(analytics.countByType(at("13:00"), at("14:00"))).isEmpty();
+
+        // when
+        RebuildResult result = rollups.rebuild();
+
+        // then
+        assertThat(result.actionsScanned()).isEqualTo(5);
+        // New 13:00 type and location buckets, and the player's MOVE total
+        assertThat(result.rowsWritten()).isEqualTo(3);
+        assertThat(analytics.playerBehavior(PLAYER)).containsEntry(ActionType.MOVE, 3L);
+        assertThat(analytics.countByType(at("10:00"), at("14:00"))).containsExactlyInAnyOrderEntriesOf(
+            Map.of(ActionType.MOVE, 3L, ActionType.ATTACK, 1L, ActionType.TALK, 1L));
+    }
+
+    @Test
+    void whenActionsHaveBeenPurged_thenRebuildKeepsTheirHistory() {
+        // given
+        writeActions();
+        actions.deleteAllInBatch();
+
+        // when
+        RebuildResult result = rollups.rebuild();
+
+        // then
+        assertThat(result.actionsScanned()).isZero();
+        assertThat(result.rowsWritten()).isZero();
+        assertThat(analytics.playerBehavior(PLAYER)).containsExactlyInAnyOrderEntriesOf(
+            Map.of(ActionType.MOVE, 2L, ActionType.ATTACK, 1L, ActionType.TALK, 1L));
+        assertThat(analytics.countByType(at("10:00"), at("13:00"))).containsExactlyInAnyOrderEntriesOf(
+            Map.of(ActionType.MOVE, 2L, ActionType.ATTACK, 1L, ActionType.TALK, 1L));
+    }
+
+    @Test
+    void whenTheStoringTransactionRollsBack_thenItsCountsRollBackToo() {
+        // given
+        writeActions();
+
+        // when
+        transaction.executeWithoutResult(status -> {
+            rollups.record(List.of(phantom("10:20"), phantom("13:10")));
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(analytics.playerBehavior(PLAYER)).containsEntry(ActionType.MOVE, 2L);
+        assertThat(analytics.countByType(at("13:00"), at("14:00"))).isEmpty();
+    }
+
+    @Test
+    void whenRecordedOutsideATransaction_thenItIsRejected() {
+        assertThatThrownBy(() -> rollups.record(List.of(phantom("10:20"))))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void writeActions() {
+        sink.write(List.of(
+            record(ActionType.MOVE, "forest", "10:15"),
+            record(ActionType.MOVE, "forest", "10:45"),
+            record(ActionType.ATTACK, "cave", "11:05"),
+            record(ActionType.TALK, "town", "12:30")));
+    }
+
+    // An action entity built outside the journal sink, so nothing records it in the rollups
+    private static ActionEventEntity phantom(String time) {
+        ActionEventEntity phantom = new ActionEventEntity("phantom-" + time, ActionType.MOVE, "go north", null,
+            "forest", "You walk north", List.of());
+        phantom.setTimestamp(at(time));
+        phantom.setPlayerId(PLAYER);
+        return phantom;
+    }
+
+    private static JournalRecord record(ActionType type, String location, String time) {
+        ActionEvent event = new ActionEvent(UUID.randomUUID().toString(), at(time), type, "do something", null,
+            location, "it happens", List.of(), null, 0);
+        return new JournalRecord(SESSION, event);
+    }
+
+    private static Instant at(String time) {
+        return Instant.parse("2024-06-01T" + time + ":00Z");
+    }
+}
@@ -0,0 +1,128 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.core.domain.PlayerContext;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(PlayerContextReader.class)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class PlayerContextReaderTest {
+
+    @TestConfiguration
+    @ComponentScan("ai.rpg.persistence.mapper")
+    static class Mappers {}
+
+    @Autowired
+    private PlayerContextReader reader;
+
+    @Autowired
+    private PlayerContextRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void whenReadingSession_thenNothingIsFlushedOrDirtyChecked() {
+        // given
+        persistSession("session-read", 3);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // when
+        Optional<PlayerContext> context = reader.read("session-read");
+
+        // then
+        assertThat(context).isPresent();
+        assertThat(context.get().actions()).hasSize(3);
+        assertThat(statistics.getFlushCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        // Session and actions come back in one statement
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenReadOnlyEntityIsModified_thenFlushSkipsIt() {
+        // given
+        persistSession("session-readonly", 1);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // when
+        boolean readOnly = new TransactionTemplate(transactionManager).execute(status -> {
+            PlayerContextEntity entity = repository.findReadOnlyBySessionId("session-readonly").orElseThrow();
+            entity.getCharacter().setReputation(99);
+            entity.getCharacter().getAttributes().put("strength", 18);
+            entityManager.flush();
+            return entityManager.unwrap(Session.class).isReadOnly(entity);
+        });
+
+        // then
+        assertThat(readOnly).isTrue();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(reader.read("session-readonly").orElseThrow().character().reputation()).isZero();
+    }
+
+    @Test
+    void whenSessionMissing_thenEmpty() {
+        assertThat(reader.read("no-such-session")).isEmpty();
+    }
+
+    private void persistSession(String sessionId, int actions) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            PlayerContextEntity playerContext = new PlayerContextEntity();
+            playerContext.setPlayerId("player-" + sessionId);
+            playerContext.setSessionId(sessionId);
+            playerContext.setStartTime(Instant.now());
+            playerContext.setLastUpdate(Instant.now());
+            playerContext.setIsActive(true);
+            playerContext.setCharacter(new CharacterStateEmbeddable("TestHero"));
+            entityManager.persist(playerContext);
+            for (int i = 0; i < actions; i++) {
+                ActionEventEntity event = new ActionEventEntity(sessionId + "-action-" + i, ActionType.MOVE,
+                    "go north", null, "forest", "You walk north", List.of("moved"));
+                event.setPlayerId(playerContext.getPlayerId());
+                event.setPlayerContext(playerContext);
+                entityManager.persist(event);
+            }
+        });
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    }
+}
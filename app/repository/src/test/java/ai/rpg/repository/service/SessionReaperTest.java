@@ -0,0 +1,215 @@
+package ai.rpg.repository.service;
+
+import ai.rpg.core.domain.ActionType;
+import ai.rpg.persistence.entity.ActionEventEntity;
+import ai.rpg.persistence.entity.CharacterStateEmbeddable;
+import ai.rpg.persistence.entity.PlayerContextEntity;
+import ai.rpg.repository.cache.SessionCache;
+import ai.rpg.repository.cache.SessionHeartbeat;
+import ai.rpg.repository.config.SessionCacheProperties;
+import ai.rpg.repository.config.SessionHeartbeatProperties;
+import ai.rpg.repository.config.SessionReaperProperties;
+import ai.rpg.repository.repository.ActionEventRepository;
+import ai.rpg.repository.repository.PlayerContextRepository;
+import ai.rpg.repository.service.SessionReaper.Result;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SessionReaper.class, SessionCache.class, SessionHeartbeat.class, PlayerContextReader.class})
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class SessionReaperTest {
+
+    @TestConfiguration
+    @ComponentScan("ai.rpg.persistence.mapper")
+    @EnableConfigurationProperties({
+        SessionCacheProperties.class,
+        SessionHeartbeatProperties.class,
+        SessionReaperProperties.class
+    })
+    static class Config {}
+
+    @Autowired
+    private SessionReaper reaper;
+
+    @Autowired
+    private SessionCache sessionCache;
+
+    @Autowired
+    private SessionHeartbeat heartbeat;
+
+    @Autowired
+    private PlayerContextRepository sessions;
+
+    @Autowired
+    private ActionEventRepository actions;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clearSessions() {
+        actions.deleteAllInBatch();
+        sessions.deleteAllInBatch();
+    }
+
+    @Test
+    void whenReaping_thenIdleSessionsAreDeactivatedAndExpiredOnesDeleted() {
+        // given
+        Instant now = Instant.now();
+        persistSession("session-live", true, now, 2);
+        persistSession("session-idle", true, now.minus(Duration.ofHours(2)), 2);
+        persistSession("session-inactive", false, now.minus(Duration.ofDays(2)), 2);
+        persistSession("session-expired", false, now.minus(Duration.ofDays(40)), 3);
+
+        // when
+        Result result = reaper.reap();
+
+        // then
+        assertThat(result.complete()).isTrue();
+        assertThat(result.deactivated()).isEqualTo(1);
+        assertThat(result.sessionsDeleted()).isEqualTo(1);
+        assertThat(result.actionsDeleted()).isEqualTo(3);
+        assertThat(sessions.findBySessionId("session-live").orElseThrow().getIsActive()).isTrue();
+        assertThat(sessions.findBySessionId("session-idle").orElseThrow().getIsActive()).isFalse();
+        assertThat(sessions.existsBySessionId("session-inactive")).isTrue();
+        assertThat(sessions.existsBySessionId("session-expired")).isFalse();
+        assertThat(actions.count()).isEqualTo(6);
+    }
+
+    @Test
+    void whenExpiredSessionIsCached_thenItIsDroppedFromTheCache() {
+        // given
+        persistSession("session-cached", false, Instant.now().minus(Duration.ofDays(40)), 1);
+        assertThat(sessionCache.get("session-cached")).isPresent();
+
+        // when
+        reaper.reap();
+
+        // then
+        assertThat(sessionCache.get("session-cached")).isEmpty();
+    }
+
+    @Test
+    void whenBudgetIsSpent_thenRunStopsAndNextRunContinues() {
+        // given: one-row batches and a budget that only allows the first batch
+        Instant idleSince = Instant.now().minus(Duration.ofHours(2));
+        for (int i = 0; i < 5; i++) {
+            persistSession("session-budget-" + i, true, idleSince.plusSeconds(i), 0);
+        }
+        SessionReaperProperties tight = new SessionReaperProperties(
+            false, Duration.ofMinutes(30), Duration.ofDays(30), Duration.ofMinutes(5), 1, Duration.ofNanos(1));
+        SessionReaper budgeted = new SessionReaper(sessions, actions, sessionCache, heartbeat, tight, transactionManager);
+
+        // when
+        Result first = budgeted.reap();
+        Result second = budgeted.reap();
+
+        // then
+        assertThat(first.complete()).isFalse();
+        assertThat(first.batches()).isEqualTo(1);
+        assertThat(first.deactivated()).isEqualTo(1);
+        assertThat(second.deactivated()).isEqualTo(1);
+        // Oldest idle sessions go first
+        assertThat(sessions.findBySessionId("session-budget-0").orElseThrow().getIsActive()).isFalse();
+        assertThat(sessions.findBySessionId("session-budget-1").orElseThrow().getIsActive()).isFalse();
+        assertThat(sessions.findBySessionId("session-budget-2").orElseThrow().getIsActive()).isTrue();
+    }
+
+    @Test
+    void whenExpiredSessionIsRevivedBeforeTheDelete_thenItKeepsItsActions() {
+        // given
+        persistSession("session-revived", false, Instant.now().minus(Duration.ofDays(40)), 2);
+        // Revives the session after the reaper selected it, before the delete locks it
+        PlayerContextRepository reviving = intercepting(sessions, "lockExpiredSessions", () -> {
+            TransactionTemplate revive = new TransactionTemplate(transactionManager);
+            revive.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            // is_active is not updatable through the entity, so revive with a bulk update
+            revive.executeWithoutResult(status -> entityManager.createQuery(
+                    "UPDATE PlayerContextEntity p SET p.isActive = true, p.lastUpdate = ?1 WHERE p.sessionId = ?2")
+                .setParameter(1, Instant.now())
+                .setParameter(2, "session-revived")
+                .executeUpdate());
+        });
+        SessionReaper racing = new SessionReaper(reviving, actions, sessionCache, heartbeat,
+            new SessionReaperProperties(false, Duration.ofMinutes(30), Duration.ofDays(30), Duration.ofMinutes(5),
+                10, Duration.ofSeconds(5)),
+            transactionManager);
+
+        // when
+        Result result = racing.reap();
+
+        // then
+        assertThat(result.sessionsDeleted()).isZero();
+        assertThat(result.actionsDeleted()).isZero();
+        assertThat(sessions.findBySessionId("session-revived").orElseThrow().getIsActive()).isTrue();
+        assertThat(actions.count()).isEqualTo(2);
+    }
+
+    private void persistSession(String sessionId, boolean active, Instant lastUpdate, int actionCount) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            PlayerContextEntity playerContext = new PlayerContextEntity();
+            playerContext.setPlayerId("player-" + sessionId);
+            playerContext.setSessionId(sessionId);
+            playerContext.setStartTime(lastUpdate);
+            playerContext.setLastUpdate(lastUpdate);
+            playerContext.setIsActive(active);
+            playerContext.setCharacter(new CharacterStateEmbeddable("TestHero"));
+            entityManager.persist(playerContext);
+            for (int i = 0; i < actionCount; i++) {
+                ActionEventEntity event = new ActionEventEntity(sessionId + "-action-" + i, ActionType.MOVE,
+                    "go north", null, "forest", "You walk north", List.of("moved"));
+                event.setTimestamp(lastUpdate);
+                event.setPlayerId(playerContext.getPlayerId());
+                event.setPlayerContext(playerContext);
+                entityManager.persist(event);
+            }
+        });
+    }
+
+    // Runs the hook before every call of the named method, then delegates
+    private static PlayerContextRepository intercepting(PlayerContextRepository delegate, String methodName,
+                                                        Runnable before) {
+        return (PlayerContextRepository) Proxy.newProxyInstance(
+            PlayerContextRepository.class.getClassLoader(),
+            new Class<?>[] {PlayerContextRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals(methodName)) {
+                    before.run();
+                }
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}